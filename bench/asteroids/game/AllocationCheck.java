@@ -0,0 +1,285 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Checks that the per-tick paths allocate nothing once they have warmed up: placing participants as they move and turn
+ * (Participant.move, along with a lookup of a point on each participant like the ship's nose), whole ticks of
+ * ParticipantState.moveParticipants over a busy world, and whole steps of a SimulationEngine playing a game by itself.
+ * Each is run for WARMUP_TICKS, so that the buffers have all grown to size, and then for MEASURED_TICKS while the bytes
+ * the thread allocates are counted.
+ *
+ * A path passes if it allocated less than a byte per tick on average. Anything the path itself allocated would be at
+ * least an object (sixteen bytes or more) per tick, while the compiler occasionally allocates a few hundred bytes on
+ * the thread when it reoptimizes code, which the average absorbs. The first two paths don't use the participants of the
+ * game, since those need an engine; their world is made of participants that move, turn, and wrap around the screen as
+ * the game's do.
+ *
+ * The engine does allocate when something new comes into the game, such as a ship, an alien, or the asteroids of a
+ * level, so its steps are counted one at a time instead, and pass if no more than one in EVENT_TICKS of them allocated
+ * anything. A step that allocated on every tick would allocate on all of them.
+ *
+ * The check prints the bytes allocated per tick by each path, and exits with status 1 if any path failed. It needs a
+ * JVM that can count the bytes each thread allocates, as HotSpot can, and exits with status 2 if it can't.
+ *
+ * Usage: AllocationCheck [participants]
+ */
+public class AllocationCheck
+{
+    /** Number of participants in the world if none is given */
+    private final static int DEFAULT_PARTICIPANTS = 1_000;
+
+    /** Seed of the world */
+    private final static long SEED = 1410;
+
+    /** Ticks run before counting */
+    private final static int WARMUP_TICKS = 2_000;
+
+    /** Ticks counted */
+    private final static int MEASURED_TICKS = 5_000;
+
+    /** At most one step of the engine in this many may allocate, for the things that come into the game */
+    private final static int EVENT_TICKS = 50;
+
+    /** The outlines the participants are given: specks, ships, rocks, and segments */
+    private final static Shape[] OUTLINES = { polygon(1, 4), polygon(12, 3), polygon(25, 9), segment(12) };
+
+    /** Counts the bytes allocated by this thread */
+    private final com.sun.management.ThreadMXBean threads;
+
+    /** Whether every path has passed so far */
+    private boolean passed = true;
+
+    /** Keeps the results of the paths from being optimized away */
+    private double sink;
+
+    /**
+     * Checks the paths with the number of participants given by the argument.
+     */
+    public static void main (String[] args)
+    {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PARTICIPANTS;
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+        {
+            System.err.println("This JVM can't count the bytes each thread allocates");
+            System.exit(2);
+        }
+
+        AllocationCheck check = new AllocationCheck((com.sun.management.ThreadMXBean) bean);
+        check.checkMove(n);
+        check.checkMoveParticipants(n);
+        check.checkStep();
+        if (check.sink == 42)
+        {
+            System.out.println();
+        }
+        if (!check.passed)
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Creates a check that counts allocations with the bean.
+     */
+    private AllocationCheck (com.sun.management.ThreadMXBean threads)
+    {
+        this.threads = threads;
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * Checks Participant.move on every participant of a world, looking up a point on each as the ship looks up its
+     * nose.
+     */
+    private void checkMove (int n)
+    {
+        Body[] bodies = world(n);
+        Point2D.Double point = new Point2D.Double();
+        check("Participant.move", () ->
+        {
+            for (Body b : bodies)
+            {
+                b.move();
+                point.setLocation(20, 0);
+                b.transformPoint(point);
+                sink += point.x + point.y;
+            }
+        });
+    }
+
+    /**
+     * Checks whole ticks of ParticipantState.moveParticipants over a world.
+     */
+    private void checkMoveParticipants (int n)
+    {
+        ParticipantState state = new ParticipantState();
+        for (Body b : world(n))
+        {
+            state.addParticipant(b);
+        }
+        check("ParticipantState.moveParticipants", state::moveParticipants);
+    }
+
+    /**
+     * Checks whole steps of a SimulationEngine playing a game by itself.
+     */
+    private void checkStep ()
+    {
+        SimulationEngine engine = new SimulationEngine(false, SEED, RenderSink.NONE, AudioSink.NONE,
+                AllocationCheck::autopilot);
+        for (int t = 0; t < WARMUP_TICKS; t++)
+        {
+            engine.step();
+        }
+
+        long id = Thread.currentThread().getId();
+        int allocating = 0;
+        for (int t = 0; t < MEASURED_TICKS; t++)
+        {
+            long before = threads.getThreadAllocatedBytes(id);
+            engine.step();
+            if (threads.getThreadAllocatedBytes(id) > before)
+            {
+                allocating++;
+            }
+        }
+
+        boolean ok = allocating <= MEASURED_TICKS / EVENT_TICKS;
+        passed &= ok;
+        System.out.printf("%-36s %10d ticks allocated  %s%n", "SimulationEngine.step", allocating,
+                ok ? "ok" : "FAILED");
+    }
+
+    /**
+     * Plays the game: starts a new one when there are no lives left, and otherwise turns and fires.
+     */
+    private static void autopilot (SimulationEngine engine)
+    {
+        if (engine.shipLives() == 0)
+        {
+            engine.startGame();
+        }
+        engine.setTurn(turnDirection.LEFT);
+        engine.setFiring(true);
+    }
+
+    /**
+     * Warms up the tick, then counts what it allocates, and reports whether it passed.
+     */
+    private void check (String name, Runnable tick)
+    {
+        for (int t = 0; t < WARMUP_TICKS; t++)
+        {
+            tick.run();
+        }
+
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int t = 0; t < MEASURED_TICKS; t++)
+        {
+            tick.run();
+        }
+        long bytes = threads.getThreadAllocatedBytes(id) - before;
+
+        boolean ok = bytes < MEASURED_TICKS;
+        passed &= ok;
+        System.out.printf("%-36s %10.2f B/tick  %s%n", name, (double) bytes / MEASURED_TICKS, ok ? "ok" : "FAILED");
+    }
+
+    /**
+     * Returns n participants scattered over the screen by the seed, moving and turning in every direction.
+     */
+    private static Body[] world (int n)
+    {
+        Random random = new Random(SEED);
+        Body[] bodies = new Body[n];
+        for (int i = 0; i < n; i++)
+        {
+            Body b = new Body(OUTLINES[random.nextInt(OUTLINES.length)], (random.nextDouble() - 0.5) * 0.2);
+            b.setPosition(random.nextDouble() * SIZE, random.nextDouble() * SIZE);
+            b.setVelocity(random.nextDouble() * 6, random.nextDouble() * 2 * Math.PI);
+            b.setRotation(random.nextDouble() * 2 * Math.PI);
+            bodies[i] = b;
+        }
+        return bodies;
+    }
+
+    /**
+     * Returns a closed, star-shaped outline with the given radius and number of points, alternately near the radius
+     * and halfway in, so that all but the smallest are concave.
+     */
+    private static Shape polygon (double radius, int points)
+    {
+        Path2D.Double poly = new Path2D.Double();
+        for (int i = 0; i < points; i++)
+        {
+            double r = (points > 4 && i % 2 == 1) ? radius / 2 : radius;
+            double angle = 2 * Math.PI * i / points;
+            if (i == 0)
+            {
+                poly.moveTo(r * Math.cos(angle), r * Math.sin(angle));
+            }
+            else
+            {
+                poly.lineTo(r * Math.cos(angle), r * Math.sin(angle));
+            }
+        }
+        poly.closePath();
+        return poly;
+    }
+
+    /**
+     * Returns an open outline that is a single segment of the given length, like a piece of debris.
+     */
+    private static Shape segment (double length)
+    {
+        Path2D.Double poly = new Path2D.Double();
+        poly.moveTo(-length / 2, 0);
+        poly.lineTo(length / 2, 0);
+        return poly;
+    }
+
+    /**
+     * A participant that turns as it moves, and ignores its collisions.
+     */
+    private static class Body extends Participant
+    {
+        /** The outline */
+        private final Shape outline;
+
+        /** How far it turns each tick */
+        private final double spin;
+
+        Body (Shape outline, double spin)
+        {
+            this.outline = outline;
+            this.spin = spin;
+        }
+
+        @Override
+        protected Shape getOutline ()
+        {
+            return outline;
+        }
+
+        @Override
+        public void move ()
+        {
+            rotate(spin);
+            super.move();
+        }
+
+        @Override
+        public void collidedWith (Participant p)
+        {
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package asteroids.game;
+
+/**
+ * One of the hot paths measured by BenchmarkRunner. The runner calls setUp once for each number of participants, then
+ * repeatedly calls setUpIteration (untimed) followed by getOpsPerIteration calls of operation (timed). A benchmark that
+ * changes the game as it runs, such as moving the participants, should keep its iterations short enough that the
+ * world doesn't drift far from the one it set up.
+ */
+abstract class Benchmark
+{
+    /** The name reported in the results */
+    private final String name;
+
+    /**
+     * Creates a benchmark with the given name.
+     */
+    Benchmark (String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name reported in the results.
+     */
+    String getName ()
+    {
+        return name;
+    }
+
+    /**
+     * Prepares to run with the given number of participants.
+     */
+    void setUp (int participants)
+    {
+    }
+
+    /**
+     * Prepares for an iteration. This isn't timed.
+     */
+    void setUpIteration ()
+    {
+    }
+
+    /**
+     * Returns the number of operations timed in each iteration.
+     */
+    int getOpsPerIteration ()
+    {
+        return 10;
+    }
+
+    /**
+     * Performs the operation being measured once.
+     */
+    abstract void operation ();
+
+    /**
+     * Returns a value that depends on everything the operations computed, so that none of their work can be optimized
+     * away. The runner prints it where no one will look at it.
+     */
+    long getSink ()
+    {
+        return 0;
+    }
+}
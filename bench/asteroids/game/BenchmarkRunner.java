@@ -0,0 +1,293 @@
+package asteroids.game;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the benchmarks of the hot paths (see HotPathBenchmarks) at 10, 100, 1,000, and 10,000 participants, and prints
+ * the average time of an operation and the error of that average (the half-width of its 99.9% confidence interval,
+ * from the spread of the iterations). Each benchmark is warmed up before it is measured, so the times are those of
+ * compiled code. The benchmarks of a tick and of collision checking are run on both backends of ParticipantState, and
+ * collision checking both with the spatial hash and by comparing every pair.
+ *
+ * Options:
+ *
+ * -sizes 10,100 (the numbers of participants), -only name (run the benchmarks whose names contain it), -warmup ms and
+ * -measure ms (how long to warm up and to measure each benchmark at each size), -prof gc (also report the bytes
+ * allocated per operation and the garbage collections during measurement), -save file (record the results as a
+ * baseline), and -baseline file (compare the results with a recorded baseline).
+ *
+ * The allocation figures need a JVM that can count the bytes each thread allocates, as HotSpot can.
+ */
+public class BenchmarkRunner
+{
+    /** Fewest iterations measured, however long they take */
+    private final static int MIN_ITERATIONS = 5;
+
+    /** The numbers of participants */
+    private int[] sizes = { 10, 100, 1_000, 10_000 };
+
+    /** Only benchmarks whose names contain this are run */
+    private String only = "";
+
+    /** Milliseconds to warm up and to measure each benchmark at each size */
+    private long warmupMillis = 1000, measureMillis = 2000;
+
+    /** Whether to report allocations and garbage collections */
+    private boolean gcProfiler;
+
+    /** Where to save the results, or null */
+    private String saveFile;
+
+    /** Nanoseconds per operation of the baseline, by benchmark and size, or null */
+    private Map<String, Double> baseline;
+
+    /** Results to be saved, one line each */
+    private final List<String> results = new ArrayList<>();
+
+    /** Counts the bytes allocated by this thread, or null if that isn't possible */
+    private final com.sun.management.ThreadMXBean threads;
+
+    /** Bytes allocated by the operations of the most recent iteration */
+    private long iterationBytes;
+
+    /** Keeps the benchmarks' results from being optimized away */
+    private long sink;
+
+    /**
+     * Runs the benchmarks as the arguments say.
+     */
+    public static void main (String[] args) throws IOException
+    {
+        System.setProperty("java.awt.headless", "true");
+        new BenchmarkRunner(args).run();
+    }
+
+    /**
+     * Reads the options.
+     */
+    private BenchmarkRunner (String[] args) throws IOException
+    {
+        for (int i = 0; i + 1 < args.length; i += 2)
+        {
+            String value = args[i + 1];
+            switch (args[i])
+            {
+                case "-sizes":
+                    String[] list = value.split(",");
+                    sizes = new int[list.length];
+                    for (int s = 0; s < list.length; s++)
+                    {
+                        sizes[s] = Integer.parseInt(list[s].trim());
+                    }
+                    break;
+                case "-only":
+                    only = value;
+                    break;
+                case "-warmup":
+                    warmupMillis = Long.parseLong(value);
+                    break;
+                case "-measure":
+                    measureMillis = Long.parseLong(value);
+                    break;
+                case "-prof":
+                    if (!value.equals("gc"))
+                    {
+                        throw new IllegalArgumentException("Unknown profiler: " + value);
+                    }
+                    gcProfiler = true;
+                    break;
+                case "-save":
+                    saveFile = value;
+                    break;
+                case "-baseline":
+                    baseline = load(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+        {
+            threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        else
+        {
+            threads = null;
+        }
+    }
+
+    /**
+     * Reads a baseline saved by -save.
+     */
+    private static Map<String, Double> load (String file) throws IOException
+    {
+        Map<String, Double> times = new HashMap<>();
+        for (String line : Files.readAllLines(Paths.get(file)))
+        {
+            String[] fields = line.split("\t");
+            if (fields.length >= 3 && !line.startsWith("#"))
+            {
+                times.put(fields[0] + "@" + fields[1], Double.parseDouble(fields[2]));
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Runs the benchmarks and reports the results.
+     */
+    private void run () throws IOException
+    {
+        System.out.printf("%-56s %6s %14s %12s %14s", "Benchmark", "Size", "ns/op", "+/- error", "ns/participant");
+        if (gcProfiler)
+        {
+            System.out.printf(" %12s %9s %8s", "B/op", "gc.count", "gc.ms");
+        }
+        if (baseline != null)
+        {
+            System.out.printf(" %9s", "baseline");
+        }
+        System.out.println();
+
+        for (Benchmark benchmark : HotPathBenchmarks.all())
+        {
+            if (benchmark.getName().contains(only))
+            {
+                for (int size : sizes)
+                {
+                    measure(benchmark, size);
+                }
+            }
+        }
+
+        if (saveFile != null)
+        {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(saveFile))))
+            {
+                out.println("# benchmark\tsize\tns/op\tB/op");
+                results.forEach(out::println);
+            }
+        }
+        if (sink == 42)
+        {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Warms up and measures the benchmark at one size, and reports the result.
+     */
+    private void measure (Benchmark benchmark, int size)
+    {
+        benchmark.setUp(size);
+
+        // Warm up
+        long end = System.nanoTime() + warmupMillis * 1_000_000L;
+        while (System.nanoTime() < end)
+        {
+            iterate(benchmark);
+        }
+
+        // Measure, counting the allocations of the operations only (the collections may be of garbage from setting up)
+        long gcCount = -gcCount(), gcMillis = -gcMillis();
+        long bytes = 0, ops = 0;
+        double sum = 0, sumOfSquares = 0;
+        int iterations = 0;
+        end = System.nanoTime() + measureMillis * 1_000_000L;
+        while (iterations < MIN_ITERATIONS || System.nanoTime() < end)
+        {
+            double nanosPerOp = iterate(benchmark);
+            bytes += iterationBytes;
+            ops += benchmark.getOpsPerIteration();
+            sum += nanosPerOp;
+            sumOfSquares += nanosPerOp * nanosPerOp;
+            iterations++;
+        }
+        gcCount += gcCount();
+        gcMillis += gcMillis();
+        sink += benchmark.getSink();
+
+        double mean = sum / iterations;
+        double sd = Math.sqrt(Math.max(0, sumOfSquares / iterations - mean * mean));
+        double error = 3.29 * sd / Math.sqrt(iterations);
+        double bytesPerOp = (double) bytes / ops;
+        System.out.printf("%-56s %6d %14.1f %12.1f %14.2f", benchmark.getName(), size, mean, error, mean / size);
+        if (gcProfiler)
+        {
+            System.out.printf(" %12.1f %9d %8d", (threads != null) ? bytesPerOp : Double.NaN, gcCount, gcMillis);
+        }
+        if (baseline != null)
+        {
+            Double before = baseline.get(benchmark.getName() + "@" + size);
+            System.out.print(
+                    (before != null) ? String.format(" %+8.1f%%", 100 * (mean - before) / before) : "         -");
+        }
+        System.out.println();
+        results.add(benchmark.getName() + "\t" + size + "\t" + mean + "\t" + bytesPerOp);
+    }
+
+    /**
+     * Sets up and runs one iteration of the benchmark, and returns the average nanoseconds per operation.
+     */
+    private double iterate (Benchmark benchmark)
+    {
+        benchmark.setUpIteration();
+        int ops = benchmark.getOpsPerIteration();
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++)
+        {
+            benchmark.operation();
+        }
+        long nanos = System.nanoTime() - start;
+        iterationBytes = allocatedBytes() - allocated;
+        return (double) nanos / ops;
+    }
+
+    /**
+     * Returns the number of bytes this thread has allocated, or 0 if that can't be counted.
+     */
+    private long allocatedBytes ()
+    {
+        return (threads != null) ? threads.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    /**
+     * Returns the number of garbage collections so far.
+     */
+    private static long gcCount ()
+    {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of milliseconds spent on garbage collection so far.
+     */
+    private static long gcMillis ()
+    {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+}
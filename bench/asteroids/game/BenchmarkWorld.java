@@ -0,0 +1,95 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import asteroids.participants.Asteroid;
+import asteroids.participants.Bullet;
+import asteroids.participants.Debris;
+
+/**
+ * A game with a given number of participants scattered across the screen for the benchmarks to work on: half of them
+ * asteroids of all sizes, three tenths bullets, and the rest debris, which is about the mix of a busy game. The same
+ * seed always makes the same world, on either backend of ParticipantState. The participants are made active and
+ * placed where they start without moving them or checking for collisions, so a world holds exactly the participants
+ * it was made with, in that mix, however crowded it is. Beyond a hundred or so participants many of them overlap, and
+ * the first tick that is run deals with those collisions.
+ */
+final class BenchmarkWorld
+{
+    /** The seed of the worlds the benchmarks use */
+    final static long SEED = 1410;
+
+    /** The fraction of the participants that are asteroids, and that are bullets */
+    private final static double ASTEROIDS = 0.5, BULLETS = 0.3;
+
+    /** The engine whose rules the participants follow */
+    private final SimulationEngine engine;
+
+    /** The participants */
+    private final ParticipantState state;
+
+    /**
+     * Creates a world with the given number of participants, placed according to the seed, whose participants are
+     * packed or not.
+     */
+    BenchmarkWorld (int participants, long seed, boolean packed)
+    {
+        engine = new SimulationEngine(false, seed, RenderSink.NONE, AudioSink.NONE, InputSource.NONE, packed);
+        state = EngineAccess.getState(engine);
+        state.clear();
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < participants; i++)
+        {
+            double x = random.nextDouble() * SIZE;
+            double y = random.nextDouble() * SIZE;
+            double direction = random.nextDouble() * 2 * Math.PI;
+            double kind = random.nextDouble();
+            if (kind < ASTEROIDS)
+            {
+                int size = random.nextInt(3);
+                int maxSpeed = (size == 0) ? MAXIMUM_SMALL_ASTEROID_SPEED
+                        : (size == 1) ? MAXIMUM_MEDIUM_ASTEROID_SPEED : MAXIMUM_LARGE_ASTEROID_SPEED;
+                state.addParticipant(
+                        Asteroid.create(random.nextInt(4), size, x, y, 1 + random.nextInt(maxSpeed), engine));
+            }
+            else if (kind < ASTEROIDS + BULLETS)
+            {
+                state.addParticipant(Bullet.create(x, y, direction, engine));
+            }
+            else
+            {
+                state.addParticipant(
+                        Debris.create(random.nextBoolean(), random.nextBoolean(), x, y, direction, engine));
+            }
+        }
+        EngineAccess.placeParticipants(state);
+    }
+
+    /**
+     * Returns the engine whose rules the participants follow.
+     */
+    SimulationEngine getEngine ()
+    {
+        return engine;
+    }
+
+    /**
+     * Returns the participants.
+     */
+    ParticipantState getState ()
+    {
+        return state;
+    }
+
+    /**
+     * Returns the active participants in an array of their own.
+     */
+    Participant[] toArray ()
+    {
+        ArrayList<Participant> list = new ArrayList<>();
+        state.forEach(Participant.class, list::add);
+        return list.toArray(new Participant[list.size()]);
+    }
+}
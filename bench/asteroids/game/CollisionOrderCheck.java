@@ -0,0 +1,251 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks that the spatial hash finds exactly the collisions that comparing every pair of participants finds, and
+ * reports them in the same order, as ParticipantState.setSpatialHashing promises. Two copies of the same world, made
+ * from a seed, are run side by side for TICKS ticks, one with the spatial hash and one without. Every call to
+ * collidedWith in either world is recorded as the tick and the numbers of the two participants, and the two records
+ * must be identical. This is done for both backends of ParticipantState, the plain one and the packed one, each of
+ * which has an order of its own.
+ *
+ * The worlds are crowded with participants of many sizes, some larger than a cell of the hash, moving and turning in
+ * every direction and wrapping around the edges of the screen. Some collisions make a participant expire, chosen by
+ * the numbers of the pair so that it happens the same way in both worlds, so a participant that expires partway through
+ * its pairs is covered too.
+ *
+ * The check prints how many collisions each world had, and exits with status 1 at the first world whose records differ,
+ * after printing where they first differ.
+ *
+ * Usage: CollisionOrderCheck [worlds [seed]]
+ */
+public class CollisionOrderCheck
+{
+    /** Number of worlds checked if none is given */
+    private final static int DEFAULT_WORLDS = 10;
+
+    /** Seed of the first world if none is given; the others follow it */
+    private final static long DEFAULT_SEED = 1410;
+
+    /** Number of participants in each world */
+    private final static int PARTICIPANTS = 300;
+
+    /** Number of ticks each world is run */
+    private final static int TICKS = 200;
+
+    /** One collision in this many makes the first participant of the pair expire */
+    private final static int EXPIRY = 7;
+
+    /** The outlines the participants are given: specks, ships, rocks, segments, and rocks larger than a cell */
+    private final static Shape[] OUTLINES = { polygon(1, 4), polygon(12, 3), polygon(25, 9), segment(12),
+            polygon(2 * COLLISION_CELL_SIZE / 3, 11) };
+
+    /**
+     * Checks the number of worlds given by the first argument, starting from the seed given by the second.
+     */
+    public static void main (String[] args)
+    {
+        int worlds = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_WORLDS;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : DEFAULT_SEED;
+
+        for (int w = 0; w < worlds; w++)
+        {
+            for (boolean packed : new boolean[] { false, true })
+            {
+                String backend = packed ? "packed" : "plain";
+                Record hashed = run(seed + w, packed, true);
+                Record allPairs = run(seed + w, packed, false);
+                int difference = hashed.firstDifference(allPairs);
+                if (difference >= 0)
+                {
+                    System.out.printf("Seed %d, %s: the records differ at collision %d: hashed %s, all pairs %s%n",
+                            seed + w, backend, difference, hashed.describe(difference), allPairs.describe(difference));
+                    System.exit(1);
+                }
+                System.out.printf("Seed %d, %s: %d collisions, the same both ways%n", seed + w, backend, hashed.size);
+            }
+        }
+    }
+
+    /**
+     * Runs the world made from the seed, packed or not and with or without the spatial hash, and returns its record of
+     * collisions.
+     */
+    private static Record run (long seed, boolean packed, boolean spatialHashing)
+    {
+        Record record = new Record();
+        ParticipantState state = new ParticipantState(packed);
+        state.setSpatialHashing(spatialHashing);
+        Random random = new Random(seed);
+        for (int i = 0; i < PARTICIPANTS; i++)
+        {
+            Body body = new Body(i, OUTLINES[random.nextInt(OUTLINES.length)], record);
+            body.setPosition(random.nextDouble() * SIZE, random.nextDouble() * SIZE);
+            body.setVelocity(random.nextDouble() * 6, random.nextDouble() * 2 * Math.PI);
+            body.setRotation(random.nextDouble() * 2 * Math.PI);
+            body.spin = (random.nextDouble() - 0.5) * 0.2;
+            state.addParticipant(body);
+        }
+        for (record.tick = 0; record.tick < TICKS; record.tick++)
+        {
+            state.moveParticipants();
+        }
+        return record;
+    }
+
+    /**
+     * Returns a closed, star-shaped outline with the given radius and number of points, alternately near the radius
+     * and halfway in, so that all but the smallest are concave.
+     */
+    private static Shape polygon (double radius, int points)
+    {
+        Path2D.Double poly = new Path2D.Double();
+        for (int i = 0; i < points; i++)
+        {
+            double r = (points > 4 && i % 2 == 1) ? radius / 2 : radius;
+            double angle = 2 * Math.PI * i / points;
+            if (i == 0)
+            {
+                poly.moveTo(r * Math.cos(angle), r * Math.sin(angle));
+            }
+            else
+            {
+                poly.lineTo(r * Math.cos(angle), r * Math.sin(angle));
+            }
+        }
+        poly.closePath();
+        return poly;
+    }
+
+    /**
+     * Returns an open outline that is a single segment of the given length, like a piece of debris.
+     */
+    private static Shape segment (double length)
+    {
+        Path2D.Double poly = new Path2D.Double();
+        poly.moveTo(-length / 2, 0);
+        poly.lineTo(length / 2, 0);
+        return poly;
+    }
+
+    /**
+     * The collisions of one world, in the order collidedWith was called.
+     */
+    private static class Record
+    {
+        /** The tick being run */
+        int tick;
+
+        /** Each collision, as the tick and the numbers of the participant told and the one it collided with */
+        long[] collisions = new long[1024];
+
+        /** Number of collisions */
+        int size;
+
+        /**
+         * Records that participant a was told it collided with participant b.
+         */
+        void add (int a, int b)
+        {
+            if (size == collisions.length)
+            {
+                collisions = Arrays.copyOf(collisions, 2 * size);
+            }
+            collisions[size++] = ((long) tick << 40) | ((long) a << 20) | b;
+        }
+
+        /**
+         * Returns the index of the first collision in which this record differs from the other, or -1 if they are
+         * identical.
+         */
+        int firstDifference (Record other)
+        {
+            int n = Math.min(size, other.size);
+            for (int i = 0; i < n; i++)
+            {
+                if (collisions[i] != other.collisions[i])
+                {
+                    return i;
+                }
+            }
+            return (size == other.size) ? -1 : n;
+        }
+
+        /**
+         * Describes collision i, or its absence.
+         */
+        String describe (int i)
+        {
+            if (i >= size)
+            {
+                return "none";
+            }
+            long c = collisions[i];
+            return String.format("tick %d, %d with %d", c >>> 40, (c >>> 20) & 0xFFFFF, c & 0xFFFFF);
+        }
+    }
+
+    /**
+     * A participant that records its collisions, and expires on some of them.
+     */
+    private static class Body extends Participant
+    {
+        /** Which participant of the world this is */
+        private final int number;
+
+        /** The outline */
+        private final Shape outline;
+
+        /** Where the collisions are recorded */
+        private final Record record;
+
+        /** How far it turns each tick */
+        private double spin;
+
+        Body (int number, Shape outline, Record record)
+        {
+            this.number = number;
+            this.outline = outline;
+            this.record = record;
+        }
+
+        @Override
+        protected Shape getOutline ()
+        {
+            return outline;
+        }
+
+        @Override
+        public void move ()
+        {
+            rotate(spin);
+            super.move();
+        }
+
+        /**
+         * Returns the number, so that any hashed collection of participants lists them in the same order in both
+         * worlds, as their identity hash codes would not.
+         */
+        @Override
+        public int hashCode ()
+        {
+            return number;
+        }
+
+        @Override
+        public void collidedWith (Participant p)
+        {
+            int other = ((Body) p).number;
+            record.add(number, other);
+            if ((number * 31 + other) % EXPIRY == 0)
+            {
+                Participant.expire(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package asteroids.game;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Reaches the parts of the game that the benchmarks drive directly but that the game keeps to itself: the
+ * ParticipantState and the level of a SimulationEngine, the steps of a tick that ParticipantState only runs as part of
+ * moveParticipants, and the tier of a QualityGovernor. They are reached by reflection, so that the game needn't grow
+ * methods that only the benchmarks call. Any failure to reach them means the game has changed under the benchmarks,
+ * and is reported as an IllegalStateException.
+ */
+final class EngineAccess
+{
+    /** The fields and methods reached */
+    private final static Field STATE = field(SimulationEngine.class, "pstate");
+    private final static Field LEVEL = field(SimulationEngine.class, "level");
+    private final static Field TIER = field(QualityGovernor.class, "tier");
+    private final static Method CHECK_FOR_COLLISIONS = method(ParticipantState.class, "checkForCollisions");
+    private final static Method COMPLETE_ADDS_AND_REMOVES = method(ParticipantState.class, "completeAddsAndRemoves");
+
+    /**
+     * Not to be instantiated.
+     */
+    private EngineAccess ()
+    {
+    }
+
+    /**
+     * Returns the state of the participants of the engine.
+     */
+    static ParticipantState getState (SimulationEngine engine)
+    {
+        return (ParticipantState) get(STATE, engine);
+    }
+
+    /**
+     * Jumps the game of the engine to the given level, as the stress scenarios of the late game do. The participants
+     * already in play stay.
+     */
+    static void setLevel (SimulationEngine engine, int level)
+    {
+        set(LEVEL, engine, level);
+    }
+
+    /**
+     * Finds the collisions among the participants of the state and tells them, as one step of moveParticipants does.
+     */
+    static void checkForCollisions (ParticipantState state)
+    {
+        invoke(CHECK_FOR_COLLISIONS, state);
+    }
+
+    /**
+     * Makes the participants that are waiting to be added active, and places every active participant where it is,
+     * without moving anything or checking for collisions. A world set up this way holds exactly the participants it
+     * was made with, however many of them overlap.
+     */
+    static void placeParticipants (ParticipantState state)
+    {
+        invoke(COMPLETE_ADDS_AND_REMOVES, state);
+        state.forEach(Participant.class, p -> p.place(p.getOutline()));
+    }
+
+    /**
+     * Sets the tier of the governor. The governor chooses it again when it is next told how a frame went, so this is
+     * to be done after GameRenderer.prepare and before painting.
+     */
+    static void setTier (QualityGovernor governor, QualityGovernor.Tier tier)
+    {
+        set(TIER, governor, tier);
+    }
+
+    /**
+     * Returns the named field of the class, made accessible.
+     */
+    private static Field field (Class<?> type, String name)
+    {
+        try
+        {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        }
+        catch (NoSuchFieldException e)
+        {
+            throw new IllegalStateException(type.getSimpleName() + " has no field " + name, e);
+        }
+    }
+
+    /**
+     * Returns the named method of the class that takes no arguments, made accessible.
+     */
+    private static Method method (Class<?> type, String name)
+    {
+        try
+        {
+            Method method = type.getDeclaredMethod(name);
+            method.setAccessible(true);
+            return method;
+        }
+        catch (NoSuchMethodException e)
+        {
+            throw new IllegalStateException(type.getSimpleName() + " has no method " + name, e);
+        }
+    }
+
+    /**
+     * Returns the value of the field of the target.
+     */
+    private static Object get (Field field, Object target)
+    {
+        try
+        {
+            return field.get(target);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Sets the field of the target to the value.
+     */
+    private static void set (Field field, Object target, Object value)
+    {
+        try
+        {
+            field.set(target, value);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Calls the method, which takes no arguments, on the target. Anything it throws is thrown on.
+     */
+    private static void invoke (Method method, Object target)
+    {
+        try
+        {
+            method.invoke(target);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalStateException(e);
+        }
+        catch (InvocationTargetException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The distributions of the results of many games: the level each reached, its score, how many ticks the player
+ * survived, and how many asteroids of each size and alien ships were destroyed. Games running on any number of threads
+ * record their results here at the same time. Nothing is locked; every count is a LongAdder, which spreads the updates
+ * of different threads over different cells, so recording costs about the same however many threads there are.
+ */
+final class GameStatistics
+{
+    /** The level reached */
+    final Distribution level = new Distribution("level", 1, 64);
+
+    /** The score */
+    final Distribution score = new Distribution("score", 100, 2000);
+
+    /** The ticks survived, in buckets of a second */
+    final Distribution survivalTicks = new Distribution("survivalTicks", 1000 / FRAME_INTERVAL, 3600);
+
+    /** The asteroids destroyed, by size (0 small, 1 medium, 2 large) */
+    final Distribution[] asteroidKills = { new Distribution("smallAsteroidKills", 1, 1024),
+            new Distribution("mediumAsteroidKills", 1, 1024), new Distribution("largeAsteroidKills", 1, 1024) };
+
+    /** The alien ships destroyed */
+    final Distribution alienKills = new Distribution("alienKills", 1, 1024);
+
+    /** Games that were still going when they ran out of ticks */
+    final LongAdder unfinished = new LongAdder();
+
+    /** Ticks run, over all the games */
+    final LongAdder ticks = new LongAdder();
+
+    /**
+     * Records the results of the game the engine has been playing, which lasted the given number of ticks and either
+     * ended or was stopped.
+     */
+    void record (SimulationEngine engine, long survived, boolean ended)
+    {
+        level.record(engine.currentLevel());
+        score.record(engine.numPoints());
+        survivalTicks.record(survived);
+        for (int size = 0; size < asteroidKills.length; size++)
+        {
+            asteroidKills[size].record(engine.getAsteroidKills(size));
+        }
+        alienKills.record(engine.getAlienKills());
+        ticks.add(survived);
+        if (!ended)
+        {
+            unfinished.increment();
+        }
+    }
+
+    /**
+     * Returns all of the distributions.
+     */
+    Distribution[] all ()
+    {
+        return new Distribution[] { level, score, survivalTicks, asteroidKills[0], asteroidKills[1], asteroidKills[2],
+                alienKills };
+    }
+
+    /**
+     * The distribution of one statistic, as counts in buckets of equal width starting at 0, along with its exact
+     * count, sum, minimum, and maximum. Values beyond the last bucket are counted in the last bucket.
+     */
+    static final class Distribution
+    {
+        /** What the statistic is called */
+        private final String name;
+
+        /** The width of each bucket */
+        private final long width;
+
+        /** The number of values in each bucket */
+        private final LongAdder[] buckets;
+
+        /** The number of values, and their sum */
+        private final LongAdder count, sum;
+
+        /** The smallest and largest values */
+        private final LongAccumulator min, max;
+
+        /**
+         * Creates an empty distribution with the given number of buckets of the given width.
+         */
+        Distribution (String name, long width, int buckets)
+        {
+            this.name = name;
+            this.width = width;
+            this.buckets = new LongAdder[buckets];
+            for (int i = 0; i < buckets; i++)
+            {
+                this.buckets[i] = new LongAdder();
+            }
+            count = new LongAdder();
+            sum = new LongAdder();
+            min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+            max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        }
+
+        /**
+         * Records a value, which must not be negative.
+         */
+        void record (long value)
+        {
+            buckets[(int) Math.min(value / width, buckets.length - 1)].increment();
+            count.increment();
+            sum.add(value);
+            min.accumulate(value);
+            max.accumulate(value);
+        }
+
+        /**
+         * Returns the name of the statistic.
+         */
+        String getName ()
+        {
+            return name;
+        }
+
+        /**
+         * Returns the mean of the values, or NaN if there are none.
+         */
+        double mean ()
+        {
+            long n = count.sum();
+            return (n == 0) ? Double.NaN : (double) sum.sum() / n;
+        }
+
+        /**
+         * Returns the value below which the given fraction of the values fall, to the nearest bucket: the start of the
+         * bucket holding that value, or of the last bucket if the value is beyond it. Returns 0 if there are no values.
+         */
+        long percentile (double fraction)
+        {
+            long rank = (long) Math.ceil(fraction * count.sum());
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++)
+            {
+                seen += buckets[i].sum();
+                if (seen >= rank && seen > 0)
+                {
+                    return i * width;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns a line summarizing the distribution: its mean, minimum, maximum, and percentiles.
+         */
+        String summary ()
+        {
+            if (count.sum() == 0)
+            {
+                return String.format("%-20s no games", name);
+            }
+            return String.format(Locale.ROOT, "%-20s %10.1f %8d %8d %8d %8d %8d %8d %8d", name, mean(), min.get(),
+                    percentile(0.1), percentile(0.25), percentile(0.5), percentile(0.75), percentile(0.9), max.get());
+        }
+
+        /**
+         * Writes the buckets that have values in them, one per line, as the name, the start of the bucket, and the
+         * number of values, separated by commas.
+         */
+        void writeBuckets (PrintWriter out)
+        {
+            for (int i = 0; i < buckets.length; i++)
+            {
+                long n = buckets[i].sum();
+                if (n > 0)
+                {
+                    out.println(name + "," + (i * width) + "," + n);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The benchmarks of the simulation's and the screen's hot paths.
+ */
+final class HotPathBenchmarks
+{
+    /**
+     * Not to be instantiated.
+     */
+    private HotPathBenchmarks ()
+    {
+    }
+
+    /**
+     * Returns all of the benchmarks.
+     */
+    static List<Benchmark> all ()
+    {
+        return Arrays.asList(new Move(), new MoveParticipants(false), new MoveParticipants(true),
+                new CheckForCollisions(false, true), new CheckForCollisions(false, false),
+                new CheckForCollisions(true, true), new CheckForCollisions(true, false), new Overlaps(), new Paint());
+    }
+
+    /**
+     * Participant.move on every participant, without the collisions and countdowns of a full tick. The participants
+     * are plain, since packed ones are moved all at once by their ParticipantState.
+     */
+    private static class Move extends Benchmark
+    {
+        /** The participants */
+        private Participant[] participants;
+
+        Move ()
+        {
+            super("Participant.move");
+        }
+
+        @Override
+        void setUp (int n)
+        {
+            participants = new BenchmarkWorld(n, BenchmarkWorld.SEED, false).toArray();
+        }
+
+        @Override
+        void operation ()
+        {
+            for (Participant p : participants)
+            {
+                p.move();
+            }
+        }
+
+        @Override
+        long getSink ()
+        {
+            return participants.length > 0 ? (long) participants[0].getX() : 0;
+        }
+    }
+
+    /**
+     * A whole tick of ParticipantState.moveParticipants: moves, collisions, countdowns, and adds and removes, on either
+     * backend. The world is made afresh for each iteration, since bullets and debris expire as it runs.
+     */
+    private static class MoveParticipants extends Benchmark
+    {
+        /** Whether the participants are packed */
+        private final boolean packed;
+
+        /** The number of participants */
+        private int n;
+
+        /** The participants */
+        private ParticipantState state;
+
+        MoveParticipants (boolean packed)
+        {
+            super("ParticipantState.moveParticipants" + (packed ? " (packed)" : " (plain)"));
+            this.packed = packed;
+        }
+
+        @Override
+        void setUp (int n)
+        {
+            this.n = n;
+        }
+
+        @Override
+        void setUpIteration ()
+        {
+            state = new BenchmarkWorld(n, BenchmarkWorld.SEED, packed).getState();
+        }
+
+        @Override
+        void operation ()
+        {
+            state.moveParticipants();
+        }
+
+        @Override
+        long getSink ()
+        {
+            return state.getTick();
+        }
+    }
+
+    /**
+     * ParticipantState.checkForCollisions on its own, on either backend, with the spatial hash or comparing every pair.
+     * The world is made afresh for each iteration and checked once, since the collisions that are found change it.
+     */
+    private static class CheckForCollisions extends Benchmark
+    {
+        /** Whether the participants are packed, and whether collisions are found with the spatial hash */
+        private final boolean packed, hashed;
+
+        /** The number of participants */
+        private int n;
+
+        /** The participants */
+        private ParticipantState state;
+
+        CheckForCollisions (boolean packed, boolean hashed)
+        {
+            super("ParticipantState.checkForCollisions" + (packed ? " (packed, " : " (plain, ")
+                    + (hashed ? "hashed)" : "all pairs)"));
+            this.packed = packed;
+            this.hashed = hashed;
+        }
+
+        @Override
+        void setUp (int n)
+        {
+            this.n = n;
+        }
+
+        @Override
+        void setUpIteration ()
+        {
+            state = new BenchmarkWorld(n, BenchmarkWorld.SEED, packed).getState();
+            state.setSpatialHashing(hashed);
+        }
+
+        @Override
+        int getOpsPerIteration ()
+        {
+            return 1;
+        }
+
+        @Override
+        void operation ()
+        {
+            EngineAccess.checkForCollisions(state);
+        }
+
+        @Override
+        long getSink ()
+        {
+            return state.countAsteroids();
+        }
+    }
+
+    /**
+     * Participant.overlaps between each participant and the nearest participant it can collide with, which is the
+     * kind of pair the spatial hash hands to the narrow phase: some hits and many near misses.
+     */
+    private static class Overlaps extends Benchmark
+    {
+        /** The pairs to test */
+        private Participant[] first, second;
+
+        /** The number of pairs found to overlap */
+        private long hits;
+
+        Overlaps ()
+        {
+            super("Participant.overlaps");
+        }
+
+        @Override
+        void setUp (int n)
+        {
+            Participant[] participants = new BenchmarkWorld(n, BenchmarkWorld.SEED, false).toArray();
+            first = new Participant[participants.length];
+            second = new Participant[participants.length];
+            int pairs = 0;
+            for (Participant p : participants)
+            {
+                Participant nearest = nearest(p, participants);
+                if (nearest != null)
+                {
+                    first[pairs] = p;
+                    second[pairs] = nearest;
+                    pairs++;
+                }
+            }
+            first = Arrays.copyOf(first, pairs);
+            second = Arrays.copyOf(second, pairs);
+        }
+
+        /**
+         * Returns the participant nearest p that p can collide with, or null if there are none.
+         */
+        private static Participant nearest (Participant p, Participant[] participants)
+        {
+            Participant nearest = null;
+            double best = Double.MAX_VALUE;
+            Rectangle2D b1 = p.getBounds();
+            for (Participant q : participants)
+            {
+                Rectangle2D b2 = q.getBounds();
+                if (q != p && b1 != null && b2 != null
+                        && InteractionTable.interacts(p.getInteractionType(), q.getInteractionType()))
+                {
+                    double d = Math.hypot(b1.getCenterX() - b2.getCenterX(), b1.getCenterY() - b2.getCenterY());
+                    if (d < best)
+                    {
+                        nearest = q;
+                        best = d;
+                    }
+                }
+            }
+            return nearest;
+        }
+
+        @Override
+        void operation ()
+        {
+            for (int i = 0; i < first.length; i++)
+            {
+                if (first[i].overlaps(second[i]))
+                {
+                    hits++;
+                }
+            }
+        }
+
+        @Override
+        long getSink ()
+        {
+            return hits;
+        }
+    }
+
+    /**
+     * A whole frame of GameRenderer, as Screen.paintComponent draws it when the whole screen is repainted, into an
+     * offscreen image at full quality: preparing the frame, then clearing the image and painting everything.
+     */
+    private static class Paint extends Benchmark
+    {
+        /** The image painted into, and its graphics */
+        private final BufferedImage image;
+        private final Graphics2D g;
+
+        /** The frame painted */
+        private RenderSnapshot snapshot;
+
+        /** Paints the frame */
+        private GameRenderer renderer;
+
+        /** The whole image */
+        private final Rectangle screen;
+
+        Paint ()
+        {
+            super("GameRenderer.paint");
+            image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+            g = image.createGraphics();
+            screen = new Rectangle(0, 0, SIZE, SIZE);
+        }
+
+        @Override
+        void setUp (int n)
+        {
+            BenchmarkWorld world = new BenchmarkWorld(n, BenchmarkWorld.SEED, false);
+            snapshot = new RenderSnapshot();
+            world.getEngine().capture(snapshot, System.nanoTime(), FRAME_INTERVAL * 1_000_000L);
+            renderer = new GameRenderer();
+        }
+
+        @Override
+        void operation ()
+        {
+            renderer.prepare(snapshot, System.nanoTime());
+            EngineAccess.setTier(renderer.getQualityGovernor(), QualityGovernor.Tier.FULL);
+            g.setColor(Color.black);
+            g.fill(screen);
+            renderer.paint(g, screen);
+        }
+
+        @Override
+        long getSink ()
+        {
+            return image.getRGB(SIZE / 2, SIZE / 2);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plays many complete games with no screen, no sound, and no player, spread across all of the cores, and reports the
+ * distributions of their results (see GameStatistics). This is for balancing the game: change a constant such as
+ * ASTEROID_SCORE, ALIENSHIP_SCORE, ALIEN_DELAY, or BULLET_LIMIT, play tens of thousands of games, and see what it does
+ * to the levels reached, the scores, and how long players last.
+ *
+ * Every game is a SimulationEngine of its own, with its own participants and its own seed, so the games share nothing
+ * but the statistics, which they record without locking. The games are dealt out to the threads of a ForkJoinPool in
+ * shards that are split in half until they are small, and threads that finish early steal shards from the others, so
+ * long games and short ones even out and the throughput grows with the number of cores.
+ *
+ * The seed of each game comes from the seed of the run and the game's number, whatever thread plays it, so a run can
+ * be repeated exactly, on any number of threads.
+ *
+ * Options:
+ *
+ * -games n (how many games, 10,000), -threads n (how many threads, one per core), -seed s (the seed of the run, a new
+ * one), -policy scripted|random (how the ship is flown, scripted), -mode classic|enhanced (classic), -max-ticks n (the
+ * longest a game may last before it is stopped, an hour of play), and -out file (write every bucket of the
+ * distributions as comma-separated values).
+ */
+public class MonteCarloRunner
+{
+    /** Shards of this many games or fewer are played by one thread rather than split */
+    private final static int SHARD_SIZE = 8;
+
+    /** The random policy holds its controls for this many ticks before choosing again */
+    private final static int POLICY_TICKS = 15;
+
+    /** The ways the random policy can turn */
+    private final static turnDirection[] TURNS = { turnDirection.NONE, turnDirection.LEFT, turnDirection.RIGHT };
+
+    /** How many games */
+    private int games = 10_000;
+
+    /** How many threads */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** The seed of the run */
+    private long seed = GameRandom.newSeed();
+
+    /** Whether the ship is flown at random rather than by script */
+    private boolean randomPolicy;
+
+    /** Whether the games are enhanced */
+    private boolean enhanced;
+
+    /** The most ticks a game may last */
+    private long maxTicks = 3600 * 1000 / FRAME_INTERVAL;
+
+    /** Where to write the buckets, or null */
+    private String outFile;
+
+    /** The seed of each game */
+    private long[] seeds;
+
+    /** The results */
+    private final GameStatistics statistics = new GameStatistics();
+
+    /**
+     * Plays the games as the arguments say.
+     */
+    public static void main (String[] args) throws IOException
+    {
+        System.setProperty("java.awt.headless", "true");
+        new MonteCarloRunner(args).run();
+    }
+
+    /**
+     * Reads the options.
+     */
+    private MonteCarloRunner (String[] args)
+    {
+        for (int i = 0; i + 1 < args.length; i += 2)
+        {
+            String value = args[i + 1];
+            switch (args[i])
+            {
+                case "-games":
+                    games = Integer.parseInt(value);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "-policy":
+                    if (!value.equals("scripted") && !value.equals("random"))
+                    {
+                        throw new IllegalArgumentException("Unknown policy: " + value);
+                    }
+                    randomPolicy = value.equals("random");
+                    break;
+                case "-mode":
+                    if (!value.equals("classic") && !value.equals("enhanced"))
+                    {
+                        throw new IllegalArgumentException("Unknown mode: " + value);
+                    }
+                    enhanced = value.equals("enhanced");
+                    break;
+                case "-max-ticks":
+                    maxTicks = Long.parseLong(value);
+                    break;
+                case "-out":
+                    outFile = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+    }
+
+    /**
+     * Plays the games and reports the results.
+     */
+    private void run () throws IOException
+    {
+        seeds = new long[games];
+        SplittableRandom run = new SplittableRandom(seed);
+        for (int i = 0; i < games; i++)
+        {
+            seeds[i] = run.nextLong();
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        pool.invoke(new Shard(0, games));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        long ticks = statistics.ticks.sum();
+        System.out.printf("%d %s games (%s policy, seed %d) on %d threads in %.3f s%n", games,
+                enhanced ? "enhanced" : "classic", randomPolicy ? "random" : "scripted", seed, threads, seconds);
+        System.out.printf("%.1f games/s, %.0f ticks/s, %d stopped after %d ticks%n", games / seconds, ticks / seconds,
+                statistics.unfinished.sum(), maxTicks);
+        System.out.println();
+        System.out.printf("%-20s %10s %8s %8s %8s %8s %8s %8s %8s%n", "Statistic", "mean", "min", "p10", "p25", "p50",
+                "p75", "p90", "max");
+        for (GameStatistics.Distribution d : statistics.all())
+        {
+            System.out.println(d.summary());
+        }
+
+        if (outFile != null)
+        {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(outFile))))
+            {
+                out.println("statistic,bucket,games");
+                for (GameStatistics.Distribution d : statistics.all())
+                {
+                    d.writeBuckets(out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays game i from start to finish and records its results.
+     */
+    private void play (int i)
+    {
+        SplittableRandom game = new SplittableRandom(seeds[i]);
+        long engineSeed = game.nextLong();
+        InputSource policy = randomPolicy ? new RandomPolicy(game.split()) : MonteCarloRunner::scripted;
+        SimulationEngine engine = new SimulationEngine(enhanced, engineSeed, RenderSink.NONE, AudioSink.NONE, policy);
+
+        engine.startGame();
+        long start = engine.getTick();
+        while (engine.shipLives() > 0 && engine.getTick() - start < maxTicks)
+        {
+            engine.step();
+        }
+        statistics.record(engine, engine.getTick() - start, engine.shipLives() == 0);
+    }
+
+    /**
+     * Flies the ship by script: keeps it turning and firing.
+     */
+    private static void scripted (SimulationEngine engine)
+    {
+        engine.setTurn(turnDirection.LEFT);
+        engine.setFiring(true);
+    }
+
+    /**
+     * Flies the ship at random: every so often it chooses afresh whether to turn and which way, whether to thrust, and
+     * whether to fire.
+     */
+    private static class RandomPolicy implements InputSource
+    {
+        /** Where the choices come from */
+        private final SplittableRandom random;
+
+        /** Ticks until the next choice */
+        private int countdown;
+
+        RandomPolicy (SplittableRandom random)
+        {
+            this.random = random;
+        }
+
+        @Override
+        public void poll (SimulationEngine engine)
+        {
+            if (--countdown <= 0)
+            {
+                countdown = POLICY_TICKS;
+                engine.setTurn(TURNS[random.nextInt(TURNS.length)]);
+                engine.setThrust(random.nextInt(4) == 0);
+                engine.setFiring(random.nextInt(4) != 0);
+            }
+        }
+    }
+
+    /**
+     * Plays the games numbered from lo up to but not including hi, splitting them in half until there are few enough
+     * for one thread.
+     */
+    private class Shard extends RecursiveAction
+    {
+        /** Shards are never serialized, but RecursiveAction is Serializable */
+        private final static long serialVersionUID = 1L;
+
+        /** The games */
+        private final int lo, hi;
+
+        Shard (int lo, int hi)
+        {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute ()
+        {
+            if (hi - lo <= SHARD_SIZE)
+            {
+                for (int i = lo; i < hi; i++)
+                {
+                    play(i);
+                }
+            }
+            else
+            {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Shard(lo, mid), new Shard(mid, hi));
+            }
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.SplittableRandom;
+
+/**
+ * Checks NarrowPhase.overlaps against Participant.overlapsByArea, which intersects java.awt.geom.Area objects and is
+ * the reference it must agree with. Pairs of participants, each with one of the outlines of the game, are placed near
+ * one another at random positions and rotations chosen from a seed, and each pair is tested both ways. Half of the
+ * pairs are snapped to whole pixels and to quarter turns, where edges line up and outlines touch far more often than at
+ * random.
+ *
+ * The outlines are copied from the participants: the ship with and without its flame, the alien ship, the missile with
+ * and without its flame, the bullet, the three pieces of debris (the open two-point segments among them), and the four
+ * concave varieties of asteroid at each of the three sizes. The check doesn't construct the participants themselves,
+ * since they need a running game.
+ *
+ * The two tests are allowed to disagree in two ways, which the class comment of NarrowPhase describes:
+ *
+ * touching: the outlines only meet along an edge or at a vertex, so that moving one of them by NUDGE pixels changes
+ * the answer of one of the tests.
+ *
+ * sliver: Area finds an overlap, but the intersection it finds encloses less than SLIVER_AREA square pixels.
+ *
+ * Any other disagreement is a bug in the narrow phase. The check prints the pairs that disagree unexpectedly and how
+ * many of each kind there were, and exits with status 1 if there were any unexpected ones, so that it can be run after
+ * every change to the narrow phase.
+ *
+ * Usage: NarrowPhaseCheck [pairs [seed]]
+ */
+public class NarrowPhaseCheck
+{
+    /** Number of pairs checked if none is given */
+    private final static int DEFAULT_PAIRS = 200_000;
+
+    /** Seed used if none is given */
+    private final static long DEFAULT_SEED = 1410;
+
+    /** How far a participant is moved to see whether it is only touching the other */
+    private final static double NUDGE = 1e-6;
+
+    /** Intersections that Area finds enclosing less than this many square pixels are rounding slivers */
+    private final static double SLIVER_AREA = 1e-6;
+
+    /** Stop printing unexpected disagreements after this many */
+    private final static int MAX_REPORTED = 20;
+
+    /** The outlines of the game, and what they are called */
+    private final static Shape[] OUTLINES;
+    private final static String[] NAMES;
+
+    static
+    {
+        double[] ship = { 21, 0, -21, 12, -14, 10, -14, -10, -21, -12 };
+        double[] flame = { -14, -5, -14, 5, -25, 0 };
+        double[] missile = { 25, 0, 18, -7, 0, -7, 0, 7, 18, 7, 25, 0 };
+        double[] exhaust = { 0, -5, 0, 5, -10, 0 };
+        double[][] asteroids = { { 0, -30, 28, -15, 20, 20, 4, 8, -1, 30, -12, 15, -5, 2, -25, 7, -10, -25 },
+                { 10, -28, 7, -16, 30, -9, 30, 9, 10, 13, 5, 30, -8, 28, -6, 6, -27, 12, -30, -11, -6, -15, -6, -28 },
+                { 10, -30, 30, 0, 15, 30, 0, 15, -15, 30, -30, 0, -10, -30 },
+                { 30, -18, 5, 5, 30, 15, 15, 30, 0, 25, -15, 30, -25, 8, -10, -25, 0, -30, 10, -30 } };
+
+        OUTLINES = new Shape[9 + asteroids.length * ASTEROID_SCALE.length];
+        NAMES = new String[OUTLINES.length];
+        int n = 0;
+        NAMES[n] = "ship";
+        OUTLINES[n++] = outline(1, true, ship);
+        NAMES[n] = "ship with flame";
+        OUTLINES[n++] = outline(1, true, ship, flame);
+        NAMES[n] = "alien ship";
+        OUTLINES[n++] = outline(1, true, new double[] { 10, 8, -10, 8, -20, 0, 20, 0 },
+                new double[] { 20, 0, 10, -8, -10, -8, -20, 0 }, new double[] { 10, -8, 6, -15, -6, -15, -10, -8 });
+        NAMES[n] = "missile";
+        OUTLINES[n++] = outline(1, true, missile);
+        NAMES[n] = "missile with flame";
+        OUTLINES[n++] = outline(1, true, missile, exhaust);
+        NAMES[n] = "bullet";
+        OUTLINES[n++] = outline(1, true, new double[] { 0, -1, -1, 0, 0, 1, 1, 0 });
+        NAMES[n] = "asteroid debris";
+        OUTLINES[n++] = outline(0.5, true, new double[] { 0, -1, -1, 0, 0, 1, 1, 0 });
+        NAMES[n] = "long ship debris";
+        OUTLINES[n++] = outline(1, false, new double[] { 12, 0, 0, 12 });
+        NAMES[n] = "short ship debris";
+        OUTLINES[n++] = outline(1, false, new double[] { 3, 0, -3, 0 });
+        for (int variety = 0; variety < asteroids.length; variety++)
+        {
+            for (int size = 0; size < ASTEROID_SCALE.length; size++)
+            {
+                NAMES[n] = "asteroid " + variety + " of size " + size;
+                OUTLINES[n++] = outline(ASTEROID_SCALE[size], true, asteroids[variety]);
+            }
+        }
+    }
+
+    /** Where everything random comes from */
+    private final SplittableRandom random;
+
+    /** Number of pairs on which the tests agreed, and that overlapped */
+    private long agreed, overlapping;
+
+    /** Number of pairs on which the tests disagreed in each of the accepted ways, and otherwise */
+    private long touching, slivers, unexpected;
+
+    /**
+     * Checks the number of pairs given by the first argument, chosen by the seed given by the second.
+     */
+    public static void main (String[] args)
+    {
+        int pairs = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PAIRS;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : DEFAULT_SEED;
+
+        NarrowPhaseCheck check = new NarrowPhaseCheck(seed);
+        for (int i = 0; i < pairs; i++)
+        {
+            check.checkPair(i, i % 2 == 1);
+        }
+
+        System.out.printf("%d pairs (seed %d): %d agreed (%d overlapping), %d touching, %d slivers, %d unexpected%n",
+                pairs, seed, check.agreed, check.overlapping, check.touching, check.slivers, check.unexpected);
+        if (check.unexpected > 0)
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Creates a check whose pairs are chosen by the seed.
+     */
+    private NarrowPhaseCheck (long seed)
+    {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Places a pair of participants near one another, snapped to whole pixels and quarter turns or not, and compares
+     * the tests on them.
+     */
+    private void checkPair (int number, boolean snapped)
+    {
+        Piece a = new Piece(random.nextInt(OUTLINES.length));
+        Piece b = new Piece(random.nextInt(OUTLINES.length));
+        place(a, SIZE / 2, SIZE / 2, rotation(snapped));
+
+        // Put b where its bounding circle reaches a's, give or take a little
+        double reach = (a.getRadius() + b.getRadius()) * 1.1;
+        double angle = random.nextDouble() * 2 * Math.PI;
+        double distance = random.nextDouble() * reach;
+        double x = SIZE / 2 + distance * Math.cos(angle);
+        double y = SIZE / 2 + distance * Math.sin(angle);
+        if (snapped)
+        {
+            x = Math.rint(x);
+            y = Math.rint(y);
+        }
+        double rotation = rotation(snapped);
+        place(b, x, y, rotation);
+
+        boolean fast = a.overlaps(b);
+        boolean reference = a.overlapsByArea(b);
+        if (fast == reference)
+        {
+            agreed++;
+            if (fast)
+            {
+                overlapping++;
+            }
+        }
+        else if (isTouching(a, b, x, y, rotation))
+        {
+            touching++;
+        }
+        else if (reference && area(a.intersectionByArea(b)) < SLIVER_AREA)
+        {
+            slivers++;
+        }
+        else
+        {
+            unexpected++;
+            if (unexpected <= MAX_REPORTED)
+            {
+                System.out.printf("Pair %d: %s at (%.1f, %.1f) rotated %.6f and %s at (%.6f, %.6f) rotated %.6f: "
+                        + "overlaps %b, overlapsByArea %b%n", number, a, a.getX(), a.getY(), a.getRotation(), b, x, y,
+                        rotation, fast, reference);
+            }
+        }
+    }
+
+    /**
+     * Returns a rotation chosen at random, a quarter turn or not.
+     */
+    private double rotation (boolean snapped)
+    {
+        return snapped ? random.nextInt(4) * Math.PI / 2 : random.nextDouble() * 2 * Math.PI;
+    }
+
+    /**
+     * Places the participant at (x, y), rotated by the given angle. It has no velocity, so moving it just places it.
+     */
+    private static void place (Participant p, double x, double y, double rotation)
+    {
+        p.setPosition(x, y);
+        p.setRotation(rotation);
+        p.move();
+    }
+
+    /**
+     * Reports whether a and b, with b at (x, y), only touch: whether nudging b in any direction changes the answer of
+     * either test. Leaves b where it was.
+     */
+    private static boolean isTouching (Participant a, Participant b, double x, double y, double rotation)
+    {
+        boolean fast = a.overlaps(b);
+        boolean reference = a.overlapsByArea(b);
+        boolean changed = false;
+        for (int d = 0; d < 4 && !changed; d++)
+        {
+            double angle = d * Math.PI / 2;
+            place(b, x + NUDGE * Math.cos(angle), y + NUDGE * Math.sin(angle), rotation);
+            changed = a.overlaps(b) != fast || a.overlapsByArea(b) != reference;
+        }
+        place(b, x, y, rotation);
+        return changed;
+    }
+
+    /**
+     * Returns the number of square pixels enclosed by the area, whose boundary is made of straight lines.
+     */
+    private static double area (Area area)
+    {
+        double sum = 0;
+        double[] coords = new double[6];
+        double startX = 0, startY = 0, lastX = 0, lastY = 0;
+        for (PathIterator i = area.getPathIterator(null); !i.isDone(); i.next())
+        {
+            switch (i.currentSegment(coords))
+            {
+                case PathIterator.SEG_MOVETO:
+                    startX = lastX = coords[0];
+                    startY = lastY = coords[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    sum += lastX * coords[1] - coords[0] * lastY;
+                    lastX = coords[0];
+                    lastY = coords[1];
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    sum += lastX * startY - startX * lastY;
+                    lastX = startX;
+                    lastY = startY;
+                    break;
+            }
+        }
+        return Math.abs(sum) / 2;
+    }
+
+    /**
+     * Returns an outline made of the given polylines, each a list of x and y coordinates, scaled by the given factor
+     * and closed or left open.
+     */
+    private static Shape outline (double scale, boolean closed, double[]... polylines)
+    {
+        Path2D.Double poly = new Path2D.Double();
+        for (double[] xy : polylines)
+        {
+            poly.moveTo(scale * xy[0], scale * xy[1]);
+            for (int i = 2; i < xy.length; i += 2)
+            {
+                poly.lineTo(scale * xy[i], scale * xy[i + 1]);
+            }
+            if (closed)
+            {
+                poly.closePath();
+            }
+        }
+        return poly;
+    }
+
+    /**
+     * A participant with one of the outlines of the game, which ignores its collisions.
+     */
+    private static class Piece extends Participant
+    {
+        /** Which of the outlines it has */
+        private final int kind;
+
+        Piece (int kind)
+        {
+            this.kind = kind;
+        }
+
+        /**
+         * Returns the radius of the circle about the origin that encloses the outline.
+         */
+        double getRadius ()
+        {
+            return OutlineVertices.of(OUTLINES[kind]).getRadius();
+        }
+
+        @Override
+        protected Shape getOutline ()
+        {
+            return OUTLINES[kind];
+        }
+
+        @Override
+        public void collidedWith (Participant p)
+        {
+        }
+
+        @Override
+        public String toString ()
+        {
+            return NAMES[kind];
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * A load to put the game under, for StressHarness. A scenario is written as a properties file, with these keys, all of
+ * them optional (the defaults are in parentheses):
+ *
+ * <pre>
+ * name              what the results are reported as (the name of the file)
+ * seed              seeds everything random, so that a run can be repeated (1)
+ * level             the level the game is played at (1)
+ * warmup            ticks run before the measurements begin (300)
+ * ticks             ticks measured (1800)
+ * asteroids         asteroids placed at the start, besides those of the level (0)
+ * asteroid.size     size of the asteroids placed and spawned: 0 small, 1 medium, 2 large (2)
+ * bullets           bullets placed at the start (0)
+ * debris            debris placed at the start (0)
+ * spawn.asteroids   asteroids added per tick, at random places (0)
+ * spawn.bullets     bullets fired per tick, from random places in random directions (0)
+ * spawn.debris      debris added per tick (0)
+ * autopilot         whether the ship keeps turning and firing as fast as the game allows (true)
+ * render            none, or offscreen to paint every tick into an image as the screen does (none)
+ * quality           the QualityGovernor tier painted at, or adaptive to let the governor choose (FULL)
+ * packed            whether the participants are kept in parallel arrays (PACKED_PARTICIPANTS)
+ * </pre>
+ *
+ * Rates per tick may be fractions; a rate of 0.25 adds one participant every fourth tick.
+ */
+final class Scenario
+{
+    /** What the results are reported as */
+    final String name;
+
+    /** Seeds everything random */
+    final long seed;
+
+    /** The level the game is played at */
+    final int level;
+
+    /** Ticks run before, and during, the measurements */
+    final int warmup, ticks;
+
+    /** Participants placed at the start */
+    final int asteroids, bullets, debris;
+
+    /** Size of the asteroids placed */
+    final int asteroidSize;
+
+    /** Participants added per tick */
+    final double spawnAsteroids, spawnBullets, spawnDebris;
+
+    /** Whether the ship keeps turning and firing */
+    final boolean autopilot;
+
+    /** Whether every tick is painted */
+    final boolean render;
+
+    /** The quality painted at, or null to let the governor choose */
+    final QualityGovernor.Tier quality;
+
+    /** Whether the participants are packed */
+    final boolean packed;
+
+    /**
+     * Reads a scenario from its properties.
+     */
+    private Scenario (String defaultName, Properties p)
+    {
+        name = p.getProperty("name", defaultName);
+        seed = Long.parseLong(p.getProperty("seed", "1"));
+        level = Integer.parseInt(p.getProperty("level", "1"));
+        warmup = Integer.parseInt(p.getProperty("warmup", "300"));
+        ticks = Integer.parseInt(p.getProperty("ticks", "1800"));
+        asteroids = Integer.parseInt(p.getProperty("asteroids", "0"));
+        asteroidSize = Integer.parseInt(p.getProperty("asteroid.size", "2"));
+        bullets = Integer.parseInt(p.getProperty("bullets", "0"));
+        debris = Integer.parseInt(p.getProperty("debris", "0"));
+        spawnAsteroids = Double.parseDouble(p.getProperty("spawn.asteroids", "0"));
+        spawnBullets = Double.parseDouble(p.getProperty("spawn.bullets", "0"));
+        spawnDebris = Double.parseDouble(p.getProperty("spawn.debris", "0"));
+        autopilot = Boolean.parseBoolean(p.getProperty("autopilot", "true"));
+        packed = Boolean.parseBoolean(p.getProperty("packed", Boolean.toString(PACKED_PARTICIPANTS)));
+
+        String render = p.getProperty("render", "none");
+        if (!render.equals("none") && !render.equals("offscreen"))
+        {
+            throw new IllegalArgumentException(name + ": render must be none or offscreen, not " + render);
+        }
+        this.render = render.equals("offscreen");
+
+        String quality = p.getProperty("quality", "FULL");
+        this.quality = quality.equals("adaptive") ? null : QualityGovernor.Tier.valueOf(quality);
+        if (asteroidSize < 0 || asteroidSize > 2)
+        {
+            throw new IllegalArgumentException(name + ": asteroid.size must be 0, 1, or 2");
+        }
+    }
+
+    /**
+     * Loads a scenario from a file or, if there is no such file, from one of the scenarios that come with the harness
+     * (in the scenarios folder next to the benchmarks), by name.
+     */
+    static Scenario load (String source) throws IOException
+    {
+        Properties properties = new Properties();
+        Path path = Paths.get(source);
+        if (Files.isRegularFile(path))
+        {
+            try (InputStream in = Files.newInputStream(path))
+            {
+                properties.load(in);
+            }
+            return new Scenario(path.getFileName().toString().replaceFirst("\\.properties$", ""), properties);
+        }
+
+        try (InputStream in = Scenario.class.getResourceAsStream("/scenarios/" + source + ".properties"))
+        {
+            if (in == null)
+            {
+                throw new IOException("No scenario named " + source);
+            }
+            properties.load(in);
+        }
+        return new Scenario(source, properties);
+    }
+}
@@ -0,0 +1,336 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import asteroids.participants.Asteroid;
+import asteroids.participants.Bullet;
+import asteroids.participants.Debris;
+
+/**
+ * Puts the game under the loads described by scenarios (see Scenario) and measures how it holds up: the ticks per
+ * second, the 50th, 99th, and 99.9th percentiles of the time taken by a tick and by painting a frame, and the rate of
+ * allocation. The game runs headless in a SimulationEngine. If the scenario renders, every tick is also painted into
+ * an offscreen image by a GameRenderer, which is what draws the real screen, redrawing only the damaged regions as the
+ * screen does.
+ *
+ * Each scenario's results are printed as one line of JSON, so that runs can be compared by machine.
+ *
+ * Usage: StressHarness [-out file] [-backend plain|packed|both] scenario... where each scenario is a properties file or
+ * the name of one of the scenarios that come with the harness (late-game, bullet-limit, chain-explosions). The
+ * scenarios are run on the backend of ParticipantState that each one asks for, unless -backend says otherwise; with
+ * both, each scenario is run once on the plain backend and once on the packed one.
+ */
+public class StressHarness
+{
+    /** The scenario being run */
+    private final Scenario scenario;
+
+    /** Whether the participants are packed */
+    private final boolean packed;
+
+    /** Chooses where the scenario's participants go */
+    private final SplittableRandom random;
+
+    /** The game */
+    private final SimulationEngine engine;
+
+    /** The participants added per tick that are still owed, as fractions build up */
+    private double owedAsteroids, owedBullets, owedDebris;
+
+    /** The frame captured at the end of each tick, and what paints it, if the scenario renders */
+    private final RenderSnapshot snapshot;
+    private final GameRenderer renderer;
+
+    /** The image painted into, and its graphics */
+    private final BufferedImage image;
+    private final Graphics2D g;
+
+    /** Each region of the image that is redrawn */
+    private final Rectangle region;
+
+    /** Nanoseconds taken by each measured tick, and by painting each measured frame */
+    private final long[] tickNanos, paintNanos;
+
+    /** The most participants, and the most debris, at the end of any tick */
+    private int peakParticipants, peakDebris;
+
+    /**
+     * Runs the scenarios named by the arguments.
+     */
+    public static void main (String[] args) throws IOException
+    {
+        System.setProperty("java.awt.headless", "true");
+        PrintWriter out = null;
+        String backend = null;
+        int first = 0;
+        while (first + 1 < args.length && args[first].startsWith("-"))
+        {
+            if (args[first].equals("-out"))
+            {
+                out = new PrintWriter(Files.newBufferedWriter(Paths.get(args[first + 1])));
+            }
+            else if (args[first].equals("-backend") && args[first + 1].matches("plain|packed|both"))
+            {
+                backend = args[first + 1];
+            }
+            else
+            {
+                throw new IllegalArgumentException("Unknown option: " + args[first] + " " + args[first + 1]);
+            }
+            first += 2;
+        }
+        if (first == args.length)
+        {
+            System.err.println("Usage: StressHarness [-out file] [-backend plain|packed|both] scenario...");
+            return;
+        }
+
+        for (int i = first; i < args.length; i++)
+        {
+            Scenario scenario = Scenario.load(args[i]);
+            boolean[] backends = (backend == null) ? new boolean[] { scenario.packed }
+                    : backend.equals("both") ? new boolean[] { false, true }
+                            : new boolean[] { backend.equals("packed") };
+            for (boolean packed : backends)
+            {
+                String json = new StressHarness(scenario, packed).run();
+                System.out.println(json);
+                if (out != null)
+                {
+                    out.println(json);
+                }
+            }
+        }
+        if (out != null)
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * Sets up the scenario on the given backend: starts a game at its level and places its participants.
+     */
+    private StressHarness (Scenario scenario, boolean packed)
+    {
+        this.scenario = scenario;
+        this.packed = packed;
+        random = new SplittableRandom(scenario.seed);
+        tickNanos = new long[scenario.ticks];
+        paintNanos = new long[scenario.render ? scenario.ticks : 0];
+        region = new Rectangle();
+
+        if (scenario.render)
+        {
+            snapshot = new RenderSnapshot();
+            renderer = new GameRenderer();
+            image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+            g = image.createGraphics();
+            RenderSink capture = e -> e.capture(snapshot, System.nanoTime(), FRAME_INTERVAL * 1_000_000L);
+            engine = new SimulationEngine(false, scenario.seed, capture, AudioSink.NONE, this::play, packed);
+        }
+        else
+        {
+            snapshot = null;
+            renderer = null;
+            image = null;
+            g = null;
+            engine = new SimulationEngine(false, scenario.seed, RenderSink.NONE, AudioSink.NONE, this::play, packed);
+        }
+
+        engine.startGame();
+        EngineAccess.setLevel(engine, scenario.level);
+        for (int i = 0; i < scenario.asteroids; i++)
+        {
+            addAsteroid();
+        }
+        for (int i = 0; i < scenario.bullets; i++)
+        {
+            addBullet();
+        }
+        for (int i = 0; i < scenario.debris; i++)
+        {
+            addDebris();
+        }
+    }
+
+    /**
+     * Adds the participants the scenario spawns this tick, and flies the ship if the autopilot is on. This is the
+     * engine's input, so it is part of the tick.
+     */
+    private void play (SimulationEngine engine)
+    {
+        for (owedAsteroids += scenario.spawnAsteroids; owedAsteroids >= 1; owedAsteroids--)
+        {
+            addAsteroid();
+        }
+        for (owedBullets += scenario.spawnBullets; owedBullets >= 1; owedBullets--)
+        {
+            addBullet();
+        }
+        for (owedDebris += scenario.spawnDebris; owedDebris >= 1; owedDebris--)
+        {
+            addDebris();
+        }
+        if (scenario.autopilot)
+        {
+            engine.setTurn(turnDirection.LEFT);
+            engine.setFiring(true);
+        }
+    }
+
+    /**
+     * Adds an asteroid of the scenario's size at a random place.
+     */
+    private void addAsteroid ()
+    {
+        int size = scenario.asteroidSize;
+        int maxSpeed = (size == 0) ? MAXIMUM_SMALL_ASTEROID_SPEED
+                : (size == 1) ? MAXIMUM_MEDIUM_ASTEROID_SPEED : MAXIMUM_LARGE_ASTEROID_SPEED;
+        engine.addParticipant(Asteroid.create(random.nextInt(4), size, random.nextDouble() * SIZE,
+                random.nextDouble() * SIZE, 1 + random.nextInt(maxSpeed), engine));
+    }
+
+    /**
+     * Fires a bullet from a random place in a random direction.
+     */
+    private void addBullet ()
+    {
+        engine.addParticipant(Bullet.create(random.nextDouble() * SIZE, random.nextDouble() * SIZE,
+                random.nextDouble() * 2 * Math.PI, engine));
+    }
+
+    /**
+     * Adds debris at a random place.
+     */
+    private void addDebris ()
+    {
+        engine.addParticipant(Debris.create(random.nextBoolean(), random.nextBoolean(), random.nextDouble() * SIZE,
+                random.nextDouble() * SIZE, random.nextDouble() * 2 * Math.PI, engine));
+    }
+
+    /**
+     * Runs the scenario and returns its results as JSON.
+     */
+    private String run ()
+    {
+        for (int t = 0; t < scenario.warmup; t++)
+        {
+            tick(-1);
+        }
+
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int t = 0; t < scenario.ticks; t++)
+        {
+            tick(t);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        allocated = allocatedBytes() - allocated;
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\"scenario\":\"").append(scenario.name.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        json.append(",\"seed\":").append(scenario.seed);
+        json.append(",\"packed\":").append(packed);
+        json.append(",\"ticks\":").append(scenario.ticks);
+        json.append(",\"render\":").append(scenario.render);
+        json.append(String.format(Locale.ROOT, ",\"ticksPerSecond\":%.1f", scenario.ticks / seconds));
+        json.append(",\"tickNanos\":").append(percentiles(tickNanos));
+        json.append(",\"paintNanos\":").append(scenario.render ? percentiles(paintNanos) : "null");
+        json.append(String.format(Locale.ROOT, ",\"allocatedBytesPerSecond\":%.0f", allocated / seconds));
+        json.append(",\"allocatedBytesPerTick\":").append(allocated / scenario.ticks);
+        json.append(",\"peakParticipants\":").append(peakParticipants);
+        json.append(",\"peakDebris\":").append(peakDebris);
+        json.append(",\"level\":").append(engine.currentLevel());
+        json.append(",\"points\":").append(engine.numPoints());
+        if (scenario.render)
+        {
+            json.append(",\"quality\":\"").append(renderer.getQualityGovernor().getTier()).append('"');
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Runs a tick and paints its frame, recording how long each took as measurement t (unless t is negative).
+     */
+    private void tick (int t)
+    {
+        long start = System.nanoTime();
+        engine.step();
+        long stepped = System.nanoTime();
+
+        if (scenario.render)
+        {
+            renderer.prepare(snapshot, stepped);
+            if (scenario.quality != null)
+            {
+                EngineAccess.setTier(renderer.getQualityGovernor(), scenario.quality);
+            }
+            DirtyRegions damage = renderer.getDamage();
+            g.setColor(Color.black);
+            for (int i = 0; i < damage.size(); i++)
+            {
+                damage.getRegion(i, region);
+                g.setClip(region);
+                g.fill(region);
+                renderer.paint(g, region);
+                g.setColor(Color.black);
+            }
+        }
+
+        if (t >= 0)
+        {
+            tickNanos[t] = stepped - start;
+            if (scenario.render)
+            {
+                paintNanos[t] = System.nanoTime() - stepped;
+            }
+            ParticipantState state = EngineAccess.getState(engine);
+            peakParticipants = Math.max(peakParticipants, state.count(Participant.class));
+            peakDebris = Math.max(peakDebris, state.count(Debris.class));
+        }
+    }
+
+    /**
+     * Returns the 50th, 99th, and 99.9th percentiles and the maximum of the times, as a JSON object.
+     */
+    private static String percentiles (long[] nanos)
+    {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format(Locale.ROOT, "{\"p50\":%d,\"p99\":%d,\"p99.9\":%d,\"max\":%d}", rank(sorted, 0.5),
+                rank(sorted, 0.99), rank(sorted, 0.999), sorted[sorted.length - 1]);
+    }
+
+    /**
+     * Returns the value at the given fraction of the way through the sorted values, by the nearest-rank method.
+     */
+    private static long rank (long[] sorted, double fraction)
+    {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Returns the number of bytes this thread has allocated, or 0 if the JVM can't count them.
+     */
+    private static long allocatedBytes ()
+    {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean)
+        {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
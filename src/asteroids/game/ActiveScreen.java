@@ -0,0 +1,183 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.awt.*;
+import java.awt.BufferCapabilities.FlipContents;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The area of the display in which the game takes place, drawn by active rendering. Instead of asking Swing to repaint
+ * and waiting for it to get around to it, a render thread of its own draws the most recent RenderSnapshot into the
+ * back buffer of a BufferStrategy and shows it, once every RENDER_INTERVAL. If the contents of the buffers are lost
+ * (as can happen to accelerated memory when the display mode changes), the frame is drawn again.
+ *
+ * Only the parts of the back buffer that differ from the frame being drawn are redrawn. Since the back buffer holds the
+ * frame before last (or, if the strategy copies rather than flips, the last frame), those are the parts changed by
+ * this frame and by the one before it. If the strategy leaves nothing dependable in the back buffer, it is redrawn in
+ * full.
+ *
+ * Screen is the fallback, for when active rendering is turned off.
+ */
+@SuppressWarnings("serial")
+public class ActiveScreen extends Canvas
+{
+    /** Game controller */
+    private Controller controller;
+
+    /** Draws the snapshots */
+    private GameRenderer renderer;
+
+    /** The thread that draws and shows the frames, or null if there isn't one */
+    private volatile Thread renderThread;
+
+    /** The parts of the back buffer that have to be redrawn, and the parts the previous frame changed */
+    private DirtyRegions bufferDamage, previousDamage;
+
+    /** The part of the back buffer being redrawn */
+    private Rectangle region;
+
+    /**
+     * Creates an empty screen
+     */
+    public ActiveScreen (Controller controller)
+    {
+        this.controller = controller;
+        renderer = new GameRenderer();
+        bufferDamage = new DirtyRegions();
+        previousDamage = new DirtyRegions();
+        region = new Rectangle();
+        setPreferredSize(new Dimension(SIZE, SIZE));
+        setMinimumSize(new Dimension(SIZE, SIZE));
+        setBackground(Color.black);
+        setForeground(Color.white);
+        setFocusable(true);
+        setIgnoreRepaint(true);
+    }
+
+    /**
+     * Returns the renderer, which reports how fast and how well it is drawing
+     */
+    public GameRenderer getRenderer ()
+    {
+        return renderer;
+    }
+
+    /**
+     * Once the canvas can be drawn on, creates the buffers and starts the render thread.
+     */
+    @Override
+    public void addNotify ()
+    {
+        super.addNotify();
+        createBufferStrategy(2);
+        Thread thread = new Thread(this::render, "Asteroids renderer");
+        thread.setDaemon(true);
+        renderThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the render thread before the canvas goes away.
+     */
+    @Override
+    public void removeNotify ()
+    {
+        Thread thread = renderThread;
+        renderThread = null;
+        if (thread != null)
+        {
+            thread.interrupt();
+            try
+            {
+                thread.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+        super.removeNotify();
+    }
+
+    /**
+     * Redraws the damaged parts of the back buffer.
+     */
+    private void draw (BufferStrategy strategy)
+    {
+        Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+        try
+        {
+            g.setColor(getBackground());
+            for (int i = 0; i < bufferDamage.size(); i++)
+            {
+                bufferDamage.getRegion(i, region);
+                g.setClip(region);
+                g.fillRect(region.x, region.y, region.width, region.height);
+                renderer.paint(g, region);
+                g.setColor(getBackground());
+            }
+        }
+        finally
+        {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Draws and shows frames until the render thread is stopped.
+     */
+    private void render ()
+    {
+        BufferStrategy strategy = getBufferStrategy();
+        BufferCapabilities capabilities = strategy.getCapabilities();
+        FlipContents flip = capabilities.getFlipContents();
+        boolean keepsContents = !capabilities.isPageFlipping() || flip == FlipContents.PRIOR
+                || flip == FlipContents.COPIED;
+
+        long next = System.nanoTime();
+        while (renderThread == Thread.currentThread())
+        {
+            // Work out what has to be redrawn in the back buffer
+            renderer.prepare(controller.getSnapshot(), System.nanoTime());
+            bufferDamage.copy(renderer.getDamage());
+            bufferDamage.add(previousDamage);
+            previousDamage.copy(renderer.getDamage());
+            if (!keepsContents)
+            {
+                bufferDamage.addAll();
+            }
+
+            // Draw and show the frame, over again if the buffers are lost, in which case neither can be trusted
+            boolean lost;
+            do
+            {
+                boolean restored;
+                do
+                {
+                    draw(strategy);
+                    restored = strategy.contentsRestored();
+                    if (restored)
+                    {
+                        bufferDamage.addAll();
+                        previousDamage.addAll();
+                    }
+                }
+                while (restored);
+                strategy.show();
+                lost = strategy.contentsLost();
+                if (lost)
+                {
+                    bufferDamage.addAll();
+                    previousDamage.addAll();
+                }
+            }
+            while (lost);
+            Toolkit.getDefaultToolkit().sync();
+
+            // Wait for the next frame, without trying to make up for frames that are late
+            next = Math.max(next + RENDER_INTERVAL * 1_000_000L, System.nanoTime());
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+    }
+}
@@ -9,28 +9,30 @@ import javax.swing.SwingUtilities;
 public class Asteroids
 {
     /**
-     * Launches a dialog that lets the user choose between a classic and an enhanced game of Asteroids.
+     * Launches a dialog that lets the user choose between a classic and an enhanced game of Asteroids. If there is an
+     * argument, it is the seed of the game's random numbers.
      */
     public static void main (String[] args)
     {
-        SwingUtilities.invokeLater( () -> chooseVersion());
+        long seed = (args.length > 0) ? Long.parseLong(args[0]) : GameRandom.newSeed();
+        SwingUtilities.invokeLater( () -> chooseVersion(seed));
     }
 
     /**
      * Interacts with the user to determine whether to run classic Asteroids or enhanced Asteroids.
      */
-    private static void chooseVersion ()
+    private static void chooseVersion (long seed)
     {
         String[] options = { "Classic", "Enhanced" };
         int choice = JOptionPane.showOptionDialog(null, "Which version would you like to run?", "Choose a Version",
                 JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
         if (choice == 0)
         {
-            new Controller(false);
+            new Controller(false, seed);
         }
         else if (choice == 1)
         {
-            new Controller(true);
+            new Controller(true, seed);
         }
     }
 }
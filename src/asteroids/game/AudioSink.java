@@ -0,0 +1,51 @@
+package asteroids.game;
+
+/**
+ * Receives the sounds a SimulationEngine asks for. The engine only names the sounds; how (or whether) they are played
+ * is up to the sink.
+ */
+public interface AudioSink
+{
+    /**
+     * The sounds of the game.
+     */
+    public enum Sound
+    {
+        FIRE, THRUST, SMALL_SAUCER, BIG_SAUCER, BANG_ALIEN_SHIP, BANG_LARGE, BANG_MEDIUM, BANG_SMALL, BANG_SHIP, BEAT1,
+        BEAT2
+    }
+
+    /** A sink that plays nothing, for running without sound */
+    AudioSink NONE = new AudioSink()
+    {
+        @Override
+        public void play (Sound sound)
+        {
+        }
+
+        @Override
+        public void loop (Sound sound)
+        {
+        }
+
+        @Override
+        public void stop (Sound sound)
+        {
+        }
+    };
+
+    /**
+     * Plays the sound once, from the beginning, cutting off the sound if it is already playing.
+     */
+    void play (Sound sound);
+
+    /**
+     * Plays the sound over and over, from the beginning, until it is stopped.
+     */
+    void loop (Sound sound);
+
+    /**
+     * Stops the sound if it is playing.
+     */
+    void stop (Sound sound);
+}
@@ -0,0 +1,126 @@
+package asteroids.game;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Plays the sounds of the game through javax.sound Clips, one for each sound, which are opened once up front. Sounds
+ * whose clip couldn't be opened (on a machine without a sound card, say) are silently skipped.
+ */
+final class ClipAudioSink implements AudioSink
+{
+    /** The clip of each sound, if it could be opened */
+    private final EnumMap<Sound, Clip> clips;
+
+    /**
+     * Opens the clips of all the sounds.
+     */
+    ClipAudioSink ()
+    {
+        clips = new EnumMap<>(Sound.class);
+        open(Sound.FIRE, "/sounds/fire.wav");
+        open(Sound.THRUST, "/sounds/thrust.wav");
+        open(Sound.SMALL_SAUCER, "/sounds/saucerSmall.wav");
+        open(Sound.BIG_SAUCER, "/sounds/saucerBig.wav");
+        open(Sound.BANG_ALIEN_SHIP, "/sounds/bangAlienShip.wav");
+        open(Sound.BANG_LARGE, "/sounds/bangLarge.wav");
+        open(Sound.BANG_MEDIUM, "/sounds/bangMedium.wav");
+        open(Sound.BANG_SMALL, "/sounds/bangSmall.wav");
+        open(Sound.BANG_SHIP, "/sounds/bangShip.wav");
+        open(Sound.BEAT1, "/sounds/beat1.wav");
+        open(Sound.BEAT2, "/sounds/beat2.wav");
+    }
+
+    /**
+     * Opens the clip of the sound from a sound file.
+     */
+    private void open (Sound sound, String soundFile)
+    {
+        Clip clip = createClip(soundFile);
+        if (clip != null)
+        {
+            clips.put(sound, clip);
+        }
+    }
+
+    /**
+     * Creates an audio clip from a sound file.
+     */
+    private Clip createClip (String soundFile)
+    {
+        // Opening the sound file this way will work no matter how the
+        // project is exported. The only restriction is that the
+        // sound files must be stored in a package.
+        try (BufferedInputStream sound = new BufferedInputStream(getClass().getResourceAsStream(soundFile)))
+        {
+            // Create and return a Clip that will play a sound file. There are
+            // various reasons that the creation attempt could fail. If it
+            // fails, return null.
+            Clip clip = AudioSystem.getClip();
+            clip.open(AudioSystem.getAudioInputStream(sound));
+            return clip;
+        }
+        catch (LineUnavailableException e)
+        {
+            return null;
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+        catch (UnsupportedAudioFileException e)
+        {
+            return null;
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Thrown when there is no mixer that supports clips
+            return null;
+        }
+    }
+
+    @Override
+    public void play (Sound sound)
+    {
+        Clip clip = clips.get(sound);
+        if (clip != null)
+        {
+            if (clip.isRunning())
+            {
+                clip.stop();
+            }
+            clip.setFramePosition(0);
+            clip.start();
+        }
+    }
+
+    @Override
+    public void loop (Sound sound)
+    {
+        Clip clip = clips.get(sound);
+        if (clip != null)
+        {
+            if (clip.isRunning())
+            {
+                clip.stop();
+            }
+            clip.setFramePosition(0);
+            clip.loop(Clip.LOOP_CONTINUOUSLY);
+        }
+    }
+
+    @Override
+    public void stop (Sound sound)
+    {
+        Clip clip = clips.get(sound);
+        if (clip != null)
+        {
+            clip.stop();
+        }
+    }
+}
@@ -1,17 +1,10 @@
 package asteroids.game;
 
-import java.util.Random;
-
 /**
  * Provides constants that govern the game.
  */
 public class Constants
 {
-    /**
-     * A shared random number generator for general use.
-     */
-    public final static Random RANDOM = new Random();
-
     /**
      * The height and width of the game area.
      */
@@ -44,9 +37,105 @@ public class Constants
     public final static double SHIP_ACCELERATION = .65;
 
     /**
-     * The number of milliseconds between the beginnings of frame refreshes
+     * Preferred width and height, in pixels, of the cells used to find participants that might collide.
+     */
+    public final static int COLLISION_CELL_SIZE = 75;
+
+    /**
+     * Whether the game keeps the positions, velocities, rotations, and bounding boxes of its participants in parallel
+     * arrays (see KinematicsStore) rather than in the participants themselves.
+     */
+    public final static boolean PACKED_PARTICIPANTS = false;
+
+    /**
+     * Number of evenly spaced rotations (one full turn divided into steps of Pi/16) for which outlines are kept already
+     * rotated. The ship turns one step at a time.
+     */
+    public final static int ROTATION_STEPS = 32;
+
+    /**
+     * The number of milliseconds between simulation ticks. Speeds are in pixels per tick.
      */
     public final static int FRAME_INTERVAL = 33;
+
+    /**
+     * The number of milliseconds between the beginnings of screen refreshes, which are drawn between ticks.
+     */
+    public final static int RENDER_INTERVAL = 16;
+
+    /**
+     * Whether the screen is drawn by active rendering (see ActiveScreen) rather than repainted by Swing (see Screen).
+     */
+    public final static boolean ACTIVE_RENDERING = true;
+
+    /**
+     * Whether participants are drawn by copying pre-rasterized images of their outlines (see SpriteAtlas) rather than
+     * by drawing the outlines.
+     */
+    public final static boolean SPRITE_RENDERING = true;
+
+    /**
+     * Number of evenly spaced rotations for which each outline is rasterized. A multiple of ROTATION_STEPS, so that the
+     * ship always looks exactly as it is turned.
+     */
+    public final static int SPRITE_ROTATIONS = 2 * ROTATION_STEPS;
+
+    /**
+     * Most pixels the rasterized outlines may take up; beyond this the least recently used are thrown away.
+     */
+    public final static int SPRITE_CACHE_PIXELS = 1 << 21;
+
+    /**
+     * Most sprites rasterized in one frame. Participants whose sprites would be beyond this are drawn as outlines for
+     * that frame instead, so that a burst of new outlines and rotations is spread over several frames.
+     */
+    public final static int SPRITES_PER_FRAME = 16;
+
+    /**
+     * Whether only the parts of the screen that have changed are redrawn (see DirtyRegions).
+     */
+    public final static boolean DIRTY_REGIONS = true;
+
+    /**
+     * The most rectangles that the changed parts of the screen are kept as.
+     */
+    public final static int MAX_DIRTY_REGIONS = 8;
+
+    /**
+     * The fraction of the screen beyond which the changed parts aren't tracked and the whole screen is redrawn.
+     */
+    public final static double DIRTY_REGION_LIMIT = 0.5;
+
+    /**
+     * The number of milliseconds a frame may take to paint before quality is reduced (see QualityGovernor).
+     */
+    public final static int PAINT_BUDGET = RENDER_INTERVAL;
+
+    /**
+     * The number of frames in a row that must go over the paint budget before quality is reduced.
+     */
+    public final static int QUALITY_DOWNGRADE_FRAMES = 10;
+
+    /**
+     * The number of frames in a row that must be well within the paint budget before quality is raised again.
+     */
+    public final static int QUALITY_UPGRADE_FRAMES = 120;
+
+    /**
+     * The fraction of the paint budget that a frame must stay within to count as well within it.
+     */
+    public final static double QUALITY_HEADROOM = 0.5;
+
+    /**
+     * The most ticks that are run in one refresh to catch up after a late one; any more are dropped.
+     */
+    public final static int MAX_CATCH_UP_TICKS = 5;
+
+    /**
+     * Whether the statistics of the game loop are shown across the bottom of the screen from the start. F3 shows and
+     * hides them while the game is running.
+     */
+    public final static boolean SHOW_STATISTICS = false;
     
     /**
      * The number of milliseconds between beats, initially.
@@ -95,6 +184,26 @@ public class Constants
      */
     public final static int BULLET_LIMIT = 8;
 
+    /**
+     * Maximum number of expired bullets kept for reuse.
+     */
+    public final static int BULLET_POOL_SIZE = 16;
+
+    /**
+     * Maximum number of expired alien bullets kept for reuse.
+     */
+    public final static int ALIEN_BULLET_POOL_SIZE = 16;
+
+    /**
+     * Maximum number of expired pieces of debris kept for reuse.
+     */
+    public final static int DEBRIS_POOL_SIZE = 64;
+
+    /**
+     * Maximum number of expired asteroids kept for reuse.
+     */
+    public final static int ASTEROID_POOL_SIZE = 32;
+
     /**
      * Scaling factors used for asteroids of size 0, 1, and 2.
      */
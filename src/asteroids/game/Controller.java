@@ -2,756 +2,250 @@ package asteroids.game;
 
 import static asteroids.game.Constants.*;
 import java.awt.event.*;
-import java.io.BufferedInputStream;
-import java.io.IOException;
-import java.util.Iterator;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.LineUnavailableException;
-import javax.sound.sampled.UnsupportedAudioFileException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.swing.*;
-import asteroids.participants.Alien;
-import asteroids.participants.AlienBullet;
-import asteroids.participants.Asteroid;
-import asteroids.participants.Bullet;
-import asteroids.participants.Missles;
-import asteroids.participants.Ship;
 
 /**
- * Controls a game of Asteroids.
+ * Controls a game of Asteroids on the screen.
+ *
+ * The rules of the game are in a SimulationEngine, which the controller connects to Swing and to the sound card. The
+ * engine runs on its own simulation thread, which is the only thread that touches the participants and the rest of the
+ * game state. Key presses and the start button reach it through a queue of inputs, and at the end of every tick it
+ * publishes a RenderSnapshot, which is all the screen looks at when it paints on the Swing thread.
+ *
+ * F3 shows and hides statistics of how the game loop and the drawing are doing across the bottom of the screen, and
+ * they are logged when the window is closed.
  */
 public class Controller implements KeyListener, ActionListener
 {
-    /** The state of all the Participants */
-    private ParticipantState pstate;
+    /** Where the statistics and any problems are reported */
+    private final static Logger LOGGER = Logger.getLogger(Controller.class.getName());
 
-    /** The ship (if one is active) or null (otherwise) */
-    private Ship ship;
+    /** The simulation thread gives up after this many frames in a row have failed */
+    private final static int MAX_FAILURES = 10;
 
-    /** The alien (if one is active) or null otherwise */
-    private Alien alien;
-    
-    /** The missile (if one is active) or null otherwise */
-    private Missles missle;
+    /** The game itself */
+    private SimulationEngine engine;
 
     /** When this timer goes off, it is time to refresh the animation */
     private Timer refreshTimer;
 
-    /** Timer for alien ship */
-    private Timer alienTimer;
+    /** Runs the game's ticks at a fixed rate */
+    private GameLoop loop;
 
-    /** Timer for alien bullets */
-    private Timer alienBulletTimer;
+    /** The thread that runs the game */
+    private Thread simulation;
 
-    /** Timer for changing direction of alien ship */
-    private Timer alienDirectionTimer;
+    /** Inputs from the Swing thread, waiting to be handed to the engine at the start of the next tick */
+    private Queue<Runnable> inputs;
 
-    /** Timer for the beat sounds */
-    private Timer beatTimer;
+    /** Hands the state of each tick over to the screen */
+    private SnapshotExchange snapshots;
 
-    /** Timer for ship respawn */
-    private Timer shipSpawn;
-
-    /**
-     * The time at which a transition to a new stage of the game should be made. A transition is scheduled a few seconds
-     * in the future to give the user time to see what has happened before doing something like going to a new level or
-     * resetting the current level.
-     */
-    private long transitionTime;
-
-    /** Number of lives left */
-    private int lives;
-
-    /** The current Level */
-    private int level;
-
-    /** The current Number of Points */
-    private int points;
-
-    /** Whether there is a new level */
-    private boolean newLevel = false;
+    /** Whether the statistics are shown */
+    private boolean showStatistics;
 
     /** The game display */
     private Display display;
 
-    /** Tracks if one of the bullet keys is being held down. */
-    private boolean fireBullets;
-
-    /** Sound for shooting bullets */
-    private Clip fireClip;
-
-    /** A Clip that, when played repeatedly, sounds like a small saucer flying */
-    private Clip smallSaucerClip;
-
-    /** A Clip that, when played repeatedly, sounds like a big saucer flying */
-    private Clip bigSaucerClip;
-
-    /** Clip played when alien ship is destroyed */
-    private Clip bangAlienShip;
-
-    /** Clip played when a large asteroid is destroyed */
-    private Clip bangLarge;
-
-    /** Clip played when medium asteroid destroyed */
-    private Clip bangMedium;
-
-    /** Clip played when ship is destroyed */
-    private Clip bangShip;
-
-    /** Clip played when small asteroid is destroyed */
-    private Clip bangSmall;
-
-    /** Clip for beat 1 in the game */
-    private Clip beat1;
-
-    /** Clip for beat 2 in the game */
-    private Clip beat2;
-
-    /** Toggles between beat1 and beat 2 */
-    private boolean toggleBeat;
-
-    /** Stores the current beat */
-    private int beatDelay;
-    
-    /** States whether game is active*/
-    private boolean activeGame = false;
-
-    /** Places missiles in the enhanced version */
-    private boolean placeMissle;
-
-    /** Stores if the game is in enhanced or classic mode */
-    private boolean isEnhanced;
-
     /**
      * Constructs a controller to coordinate the game and screen
      */
     public Controller (boolean enhanced)
     {
-        // Sets the game to either classic or enhanced
-        isEnhanced = enhanced;
-
-        // Initialize the ParticipantState
-        pstate = new ParticipantState();
-
-        // Set up the refresh timer.
-        refreshTimer = new Timer(FRAME_INTERVAL, this);
-
-        // Set up timers
-        alienTimer = new Timer(ALIEN_DELAY, this);
-        alienBulletTimer = new Timer(1200, this);
-        alienDirectionTimer = new Timer(2000, this);
-        beatTimer = new Timer(INITIAL_BEAT, this);
-        shipSpawn = new Timer(2000, this);
-
-        // Clear the transitionTime
-        transitionTime = Long.MAX_VALUE;
-
-        // Record the display object
-        display = new Display(this);
-
-        // Bring up the splash screen and start the refresh timer
-        splashScreen();
-        display.setVisible(true);
-        refreshTimer.start();
-        alienTimer.start();
-        alienBulletTimer.start();
-        alienDirectionTimer.start();
-        beatTimer.start();
-
-        // Initialize the sounds clips
-        fireClip = createClip("/sounds/fire.wav");
-        smallSaucerClip = createClip("/sounds/saucerSmall.wav");
-        bigSaucerClip = createClip("/sounds/saucerBig.wav");
-        bangAlienShip = createClip("/sounds/bangAlienShip.wav");
-        bangLarge = createClip("/sounds/bangLarge.wav");
-        bangMedium = createClip("/sounds/bangMedium.wav");
-        bangShip = createClip("/sounds/bangShip.wav");
-        bangSmall = createClip("/sounds/bangSmall.wav");
-        beat1 = createClip("/sounds/beat1.wav");
-        beat2 = createClip("/sounds/beat2.wav");
-
-        toggleBeat = true;
-        beatDelay = INITIAL_BEAT;
-
-    }
-
-    /**
-     * Creates an audio clip from a sound file.
-     */
-    public Clip createClip (String soundFile)
-    {
-        // Opening the sound file this way will work no matter how the
-        // project is exported. The only restriction is that the
-        // sound files must be stored in a package.
-        try (BufferedInputStream sound = new BufferedInputStream(getClass().getResourceAsStream(soundFile)))
-        {
-            // Create and return a Clip that will play a sound file. There are
-            // various reasons that the creation attempt could fail. If it
-            // fails, return null.
-            Clip clip = AudioSystem.getClip();
-            clip.open(AudioSystem.getAudioInputStream(sound));
-            return clip;
-        }
-        catch (LineUnavailableException e)
-        {
-            return null;
-        }
-        catch (IOException e)
-        {
-            return null;
-        }
-        catch (UnsupportedAudioFileException e)
-        {
-            return null;
-        }
+        this(enhanced, GameRandom.newSeed());
     }
 
     /**
-     * Plays the requested sound
+     * Constructs a controller to coordinate the game and screen, with everything random in the game coming from the
+     * seed
      */
-    public void playSound (Clip clipFile)
+    public Controller (boolean enhanced, long seed)
     {
-        if (clipFile.isRunning())
+        // Set up the engine, which takes its inputs from the queue, plays its sounds through clips, and publishes
+        // snapshots for the screen
+        inputs = new ConcurrentLinkedQueue<>();
+        snapshots = new SnapshotExchange();
+        engine = new SimulationEngine(enhanced, seed, this::publishSnapshot, new ClipAudioSink(), this::pollInputs);
+
+        // Set up the refresh timer, and the loop and thread that run the ticks
+        refreshTimer = new Timer(RENDER_INTERVAL, this);
+        loop = new GameLoop(FRAME_INTERVAL, MAX_CATCH_UP_TICKS, engine::step);
+        simulation = new Thread(this::runSimulation, "Asteroids simulation");
+        simulation.setDaemon(true);
+
+        // Record the display object, which sends its key events here, and log the statistics when its window is closed
+        display = new Display(this);
+        display.addKeyListener(this);
+        display.addWindowListener(new WindowAdapter()
         {
-            clipFile.stop();
-        }
-        clipFile.setFramePosition(0);
-        clipFile.start();
-    }
-
-    /**
-     * Returns the ship, or null if there isn't one
-     */
-    public Ship getShip ()
-    {
-        return ship;
-    }
-
-    /**
-     * Configures the game screen to display the splash screen
-     */
-    private void splashScreen ()
-    {
-        // Clear the screen, reset the level, and display the legend
-        clear();
-        display.setLegend("Asteroids");
-
-        // Place four asteroids near the corners of the screen.
-        placeAsteroids();
-    }
+            @Override
+            public void windowClosing (WindowEvent e)
+            {
+                LOGGER.info("Statistics on exit\n" + getStatistics());
+            }
+        });
+        showStatistics = SHOW_STATISTICS;
 
-    /**
-     * The game is over. Displays a message to that effect.
-     */
-    private void finalScreen ()
-    {
-        display.setLegend(GAME_OVER);
-        display.removeKeyListener(this);
-    }
+        // Bring up the splash screen and start the refresh timer
+        display.setVisible(true);
+        refreshTimer.start();
 
-    /**
-     * Place a new ship in the center of the screen. Remove any existing ship first.
-     */
-    private void placeShip ()
-    {
-        // Place a new ship
-        Participant.expire(ship);
-        ship = new Ship(SIZE / 2, SIZE / 2, -Math.PI / 2, this);
-        addParticipant(ship);
-        display.setLegend("");
-        beatTimer.restart();
+        // Start the game running
+        simulation.start();
     }
 
     /**
-     * Places an asteroid near one corner of the screen. Gives it a random velocity and rotation.
+     * Returns the engine that plays the game. Only the simulation thread may use it.
      */
-    private void placeAsteroids ()
+    public SimulationEngine getEngine ()
     {
-        addParticipant(new Asteroid(RANDOM.nextInt(4), 2, EDGE_OFFSET + RANDOM.nextInt(100) - 50,
-                EDGE_OFFSET + RANDOM.nextInt(100) - 50, 3, this));
-        addParticipant(new Asteroid(RANDOM.nextInt(4), 2, SIZE - EDGE_OFFSET + RANDOM.nextInt(100) - 50,
-                EDGE_OFFSET + RANDOM.nextInt(100) - 50, 3, this));
-        addParticipant(new Asteroid(RANDOM.nextInt(4), 2, EDGE_OFFSET + RANDOM.nextInt(100) - 50,
-                SIZE - EDGE_OFFSET + RANDOM.nextInt(100) - 50, 3, this)); 
-        addParticipant(new Asteroid(RANDOM.nextInt(4), 2, SIZE - EDGE_OFFSET + RANDOM.nextInt(100) - 50,
-                SIZE - EDGE_OFFSET + RANDOM.nextInt(100) - 50, 3, this));
-        for (int x = 0; x < level - 1; x++)
-        {
-            addParticipant(new Asteroid(RANDOM.nextInt(4), 2, -EDGE_OFFSET + RANDOM.nextInt(100) - 50,
-                    -EDGE_OFFSET + RANDOM.nextInt(100) - 50, 3, this));
-        }
+        return engine;
     }
 
     /**
-     * Places bullets on the screen.
+     * This method will be invoked because of button presses and timer events.
      */
-    private void placeBullets ()
+    @Override
+    public void actionPerformed (ActionEvent e)
     {
-        if (pstate.countBullets() <= Constants.BULLET_LIMIT && ship != null)
+        // The start button has been pressed. Stop whatever we're doing
+        // and bring up the initial screen
+        if (e.getSource() instanceof JButton)
         {
-            addParticipant(new Bullet(ship.getXNose(), ship.getYNose(), ship.getRotation(), this));
+            inputs.add(engine::startGame);
 
-            // Plays sounds when shooting
-            playSound(fireClip);
+            // Give focus to the game screen
+            display.requestFocusInWindow();
         }
-    }
 
-    /**
-     * Places alien bullets on the screen.
-     */
-    private void placeAlienBullets ()
-    {
-        if (level == 2 && alien != null)
-        {
-            addParticipant(new AlienBullet(alien.getX(), alien.getY(), RANDOM.nextDouble() * Math.PI * 2, this));
-        }
-        if (level > 2 && alien != null && ship != null)
+        // Time to refresh the screen
+        else if (e.getSource() == refreshTimer)
         {
-            // Angle to fire directly at ship
-            double angle = Math.atan2(ship.getY() - alien.getY(), ship.getX() - alien.getX());
-            // Adjust angle randomly by 5 degrees
-            double randAngleAdj = (RANDOM.nextInt(11) - 5) * Math.PI / 180;
-            // Add bullets
-            addParticipant(
-                    new AlienBullet(alien.getX(), alien.getY(), Participant.normalize(angle) + randAngleAdj, this));
-        }
-    }
-
-    /**
-     * Places a heat seeking missile on the screen.
-     */
-    private void placeMissle ()
-    {
-        if (pstate.countMissles() < 1)
-        {           
-            missle = new Missles(ship.getXNose(), ship.getYNose(), ship.getSpeed(), ship.getDirection(), ship.getRotation(), this);
-            addParticipant(missle);
+            if (showStatistics)
+            {
+                display.setStatistics(getStatistics());
+            }
+            display.refresh();
         }
     }
 
     /**
-     * Places alien ships on the screen. Removes any existing alien first.
+     * Runs the game on the simulation thread: sleeps until a tick is due, then runs the ticks that are due. A frame
+     * that fails is logged and the game keeps going, as it would after a failure on a Swing timer. If MAX_FAILURES
+     * frames fail in a row, though, the game is stuck, so the thread stops the screen, tells the player why, and ends
+     * rather than logging the same failure sixty times a second.
      */
-    private void placeAlien ()
+    private void runSimulation ()
     {
-        if (level == 2)
+        int failures = 0;
+        while (true)
         {
-            alien = new Alien(1, 3, this);
-            addParticipant(alien);
-
-            // Play big alien sounds
-            if (bigSaucerClip.isRunning())
+            try
             {
-                bigSaucerClip.stop();
+                loop.frame(System.nanoTime());
+                failures = 0;
             }
-            bigSaucerClip.setFramePosition(0);
-            bigSaucerClip.loop(Clip.LOOP_CONTINUOUSLY);
-        }
-        if (level > 2)
-        {
-            alien = new Alien(0, 5, this);
-            addParticipant(alien);
-
-            // Play small alien sounds
-            if (smallSaucerClip.isRunning())
+            catch (RuntimeException e)
             {
-                smallSaucerClip.stop();
+                LOGGER.log(Level.WARNING, "A frame of the game failed", e);
+                if (++failures >= MAX_FAILURES)
+                {
+                    LOGGER.severe("The game has stopped after " + failures + " failures in a row");
+                    SwingUtilities.invokeLater( () ->
+                    {
+                        refreshTimer.stop();
+                        display.showError("The game has stopped because of an error:\n" + e);
+                    });
+                    return;
+                }
             }
-            smallSaucerClip.setFramePosition(0);
-            smallSaucerClip.loop(Clip.LOOP_CONTINUOUSLY);
+            LockSupport.parkNanos(loop.getNanosUntilNextTick(System.nanoTime()));
         }
     }
 
     /**
-     * Clears the screen so that nothing is displayed
-     */
-    private void clear ()
-    {
-        pstate.clear();
-        display.setLegend("");
-        ship = null;
-        alien = null;
-        beatTimer.setDelay(INITIAL_BEAT);
-        beatTimer.restart();
-        alienTimer.restart();
-    }
-
-    /**
-     * Sets things up and begins a new game.
+     * Hands the inputs that have come in since the last tick to the engine.
      */
-    private void initialScreen ()
+    private void pollInputs (SimulationEngine engine)
     {
-        // Clear the screen
-        clear();
-
-        // Place asteroids
-        placeAsteroids();
-
-        // Place the ship
-        placeShip();
-
-        // Remove any alien ships from game.
-        alien = null;
-
-        // Reset statistics
-        lives = 3;  // should be 3, changed to give more lives when testing
-
-        // Reset Level
-        level = 1;  // should be 1, testing at different levels
-
-        // Reset points
-        points = 0;
-
-        // game is off to begin
-        activeGame = false;
-        
-        // Start listening to events (but don't listen twice)
-        display.removeKeyListener(this);
-        display.addKeyListener(this);
-
-        // Give focus to the game screen
-        display.requestFocusInWindow();
-    }
-
-    /**
-     * Adds a new Participant
-     */
-    public void addParticipant (Participant p)
-    {
-        pstate.addParticipant(p);
-    }
-
-    /**
-     * The ship has been destroyed
-     */
-    public void shipDestroyed ()
-    {
-        // Play sound
-        playSound(bangShip);
-
-        fireBullets = false;
-        beatTimer.stop();
-
-        // Decrement lives
-        lives--;
-
-        // Null out the ship
-        ship = null;
-
-        // Display a legend
-        display.setLegend("Ouch!");
-
-        if (lives == 0)
+        Runnable input;
+        while ((input = inputs.poll()) != null)
         {
-
-        }
-        else
-        {
-            shipSpawn.start();
+            input.run();
         }
-
-        // Since the ship was destroyed, schedule a transition
-        scheduleTransition(END_DELAY);
-
     }
 
     /**
-     * The alien ship has been destroyed.
+     * Returns the snapshot of the most recent tick. This is for the thread that paints the screen, and the snapshot
+     * stays unchanged until that thread calls again.
      */
-    public void alienDestroyed ()
+    public RenderSnapshot getSnapshot ()
     {
-        if (level == 2)
-        {
-            addPoints(200);
-        }
-        if (level > 2)
-        {
-            addPoints(1000);
-        }
-        alien = null;
-        alienTimer.restart();
-
-        // Plays sounds when alien is destroyed
-        playSound(bangAlienShip);
-    }
-
-    /**
-     * 
-     * @return the number of ship lives
-     */
-    public int shipLives ()
-    {
-        return lives;
+        return snapshots.getFront();
     }
 
     /**
-     * 
-     * @return the number of points
+     * Fills in a snapshot of the tick that has just been run, and hands it over to the screen.
      */
-    public int numPoints ()
-    {
-        return points;
-    }
-
-    public void addPoints (int Points)
+    private void publishSnapshot (SimulationEngine engine)
     {
-        points += Points;
+        engine.capture(snapshots.getBack(), System.nanoTime(), loop.getTickNanos());
+        snapshots.publish();
     }
 
     /**
-     * 
-     * @return the current Level
+     * Returns the statistics of the game loop and the drawing, a line for each: how many ticks and frames the loop has
+     * run and skipped, how many frames per second the screen is drawing and how much of it each one redraws, and the
+     * quality it is drawing at and how long it has spent at each. Any thread may call this.
      */
-    public int currentLevel ()
+    public String getStatistics ()
     {
-        return level;
-    }
-    
-    /**
-     * 
-     * @return whether the game is active
-     */
-    public boolean isGameActive() {
-        return activeGame;
+        GameRenderer renderer = display.getRenderer();
+        return String.format("loop: %s\nscreen: %.1f frames/s, %.0f%% redrawn\nquality: %s", loop,
+                renderer.getFrameRate(), 100 * renderer.getCoverage(), renderer.getQualityGovernor());
     }
 
     /**
-     * An asteroid has been destroyed
+     * If a key of interest is pressed, record that it is down.
      */
-    public void asteroidDestroyed (int astSize)
+    @Override
+    public void keyPressed (KeyEvent e)
     {
-        // If all the asteroids are gone, schedule a transition
-        if (pstate.countAsteroids() == 0)
+        // The statistics belong to the screen rather than the game
+        if (e.getKeyCode() == KeyEvent.VK_F3)
         {
-            beatTimer.stop();
-            alienTimer.stop();
-            beatDelay = INITIAL_BEAT;
-            if (alien != null)
-            {
-                Participant.expire(alien);
-                alien = null;
-            }
-            scheduleTransition(END_DELAY);
-            level++;
-            display.setLegend("Next Level: " + level);
-            newLevel = true;
+            showStatistics = !showStatistics;
+            display.setStatistics(showStatistics ? getStatistics() : null);
+            return;
         }
 
-        // Plays sounds when an asteroid is destroyed
-        switch (astSize)
+        switch (e.getKeyCode())
         {
-            case 0:
-                playSound(bangSmall);
+            case KeyEvent.VK_RIGHT:
+            case KeyEvent.VK_D:
+                inputs.add( () -> engine.setTurn(turnDirection.RIGHT));
                 break;
-            case 1:
-                playSound(bangMedium);
+            case KeyEvent.VK_LEFT:
+            case KeyEvent.VK_A:
+                inputs.add( () -> engine.setTurn(turnDirection.LEFT));
                 break;
-            case 2:
-                playSound(bangLarge);
+            case KeyEvent.VK_UP:
+            case KeyEvent.VK_W:
+                inputs.add( () -> engine.setThrust(true));
+                break;
+            case KeyEvent.VK_DOWN:
+            case KeyEvent.VK_S:
+            case KeyEvent.VK_SPACE:
+                inputs.add( () -> engine.setFiring(true));
+                break;
+            case KeyEvent.VK_F:
+                inputs.add( () -> engine.setMissiles(true));
                 break;
-        }
-    }
-
-    /**
-     * Schedules a transition m msecs in the future
-     */
-    private void scheduleTransition (int m)
-    {
-        transitionTime = System.currentTimeMillis() + m;
-    }
-
-    /**
-     * This method will be invoked because of button presses and timer events.
-     */
-    @Override
-    public void actionPerformed (ActionEvent e)
-    {
-        // The start button has been pressed. Stop whatever we're doing
-        // and bring up the initial screen
-        if (e.getSource() instanceof JButton)
-        {
-            initialScreen();
-            activeGame = true;
-        }
-
-        // Time to refresh the screen and deal with keyboard input
-        else if (e.getSource() == refreshTimer)
-        {
-            // It may be time to make a game transition
-            performTransition();
-
-            // Fire bullets when a firing key is pressed.
-            if (fireBullets && ship != null)
-            {
-                placeBullets();
-            }
-
-            // Stops small saucer sounds if alien ship is null
-            if (alien == null && smallSaucerClip != null)
-            {
-                smallSaucerClip.stop();
-            }
-
-            // Stops big saucer sounds if alien ship is null
-            if (alien == null && bigSaucerClip != null)
-            {
-                bigSaucerClip.stop();
-            }
-
-            // For enhanced version, places a missle if M key is pressed
-            if (placeMissle && ship != null && alien != null)
-            {
-                placeMissle();
-            }
-            
-            if (pstate.countMissles() >= 1 && alien != null && missle != null)
-            {
-                double angle = Math.atan2(alien.getY() - missle.getY(), alien.getX() - missle.getX());
-                missle.changeTurnDirection(Participant.normalize(angle));                
-            }
-
-            // Move the participants to their new locations
-            pstate.moveParticipants();
-
-            // Refresh screen
-            display.refresh();
-        }
-        else if (e.getSource() == alienTimer)
-        {
-            if (level == 2 && alien == null)
-            {
-                placeAlien();
-            }
-            if (level > 2 && alien == null)
-            {
-                placeAlien();
-            }
-        }
-        else if (e.getSource() == alienBulletTimer)
-        {
-            if (alien != null && ship != null)
-            {
-                placeAlienBullets();
-            }
-        }
-        else if (e.getSource() == alienDirectionTimer)
-        {
-            if (alien != null)
-            {
-                alien.changeTurnDirection(alien.alienDirection());
-            }
-        }
-        else if (e.getSource() == beatTimer)
-        {
-            if (toggleBeat)
-            {
-                playSound(beat1);
-                toggleBeat = !toggleBeat;
-                if (beatTimer.getDelay() > FASTEST_BEAT + BEAT_DELTA)
-                {
-                    beatDelay = beatDelay - BEAT_DELTA;
-                    beatTimer.setDelay(beatDelay);
-                }
-            }
-            else
-            {
-                playSound(beat2);
-                toggleBeat = !toggleBeat;
-                if (beatTimer.getDelay() > FASTEST_BEAT + BEAT_DELTA)
-                {
-                    beatDelay = beatDelay - BEAT_DELTA;
-                    beatTimer.setDelay(beatDelay);
-                }
-            }
-        }
-        else if (e.getSource() == shipSpawn)
-        {
-            placeShip();
-            shipSpawn.stop();
-        }
-
-    }
-
-    /**
-     * Returns an iterator over the active participants
-     */
-    public Iterator<Participant> getParticipants ()
-    {
-        return pstate.getParticipants();
-    }
-
-    /**
-     * If the transition time has been reached, transition to a new state
-     */
-    private void performTransition ()
-    {
-        // Do something only if the time has been reached
-        if (transitionTime <= System.currentTimeMillis())
-        {
-            // Clear the transition time
-            transitionTime = Long.MAX_VALUE;
-
-            // If there are no lives left, the game is over. Show the final
-            // screen.
-            if (lives <= 0)
-            {
-                if (alien != null)
-                {
-                    Participant.expire(alien);
-                    alien = null;
-                }
-                alienTimer.stop();
-                beatTimer.stop();
-                finalScreen();
-            }
-            if (newLevel)
-            {
-                clear();
-                placeShip();
-                placeAsteroids();
-                newLevel = false;
-            }
-        }
-    }
-
-    /**
-     * If a key of interest is pressed, record that it is down.
-     */
-    @Override
-    public void keyPressed (KeyEvent e)
-    {
-        if (ship != null)
-        {
-            switch (e.getKeyCode())
-            {
-                case KeyEvent.VK_RIGHT:
-                case KeyEvent.VK_D:
-                    ship.setTurnDirection(turnDirection.RIGHT);
-                    break;
-                case KeyEvent.VK_LEFT:
-                case KeyEvent.VK_A:
-                    ship.setTurnDirection(turnDirection.LEFT);
-                    break;
-                case KeyEvent.VK_UP:
-                case KeyEvent.VK_W:
-                    ship.setAcceleration(true);
-                    break;
-                case KeyEvent.VK_DOWN:
-                case KeyEvent.VK_S:
-                case KeyEvent.VK_SPACE:
-                    if (!fireBullets)
-                    {
-                        placeBullets();
-                    }
-                    fireBullets = true;
-                    break;
-                case KeyEvent.VK_F:
-                    if (isEnhanced)
-                    {
-                        placeMissle = true;
-                    }
-                    break;
-            }
         }
     }
 
@@ -769,32 +263,26 @@ public class Controller implements KeyListener, ActionListener
     @Override
     public void keyReleased (KeyEvent e)
     {
-        if (ship != null)
+        switch (e.getKeyCode())
         {
-            switch (e.getKeyCode())
-            {
-                case KeyEvent.VK_RIGHT:
-                case KeyEvent.VK_D:
-                case KeyEvent.VK_LEFT:
-                case KeyEvent.VK_A:
-                    ship.setTurnDirection(turnDirection.NONE);
-                    break;
-                case KeyEvent.VK_UP:
-                case KeyEvent.VK_W:
-                    ship.setAcceleration(false);
-                    break;
-                case KeyEvent.VK_DOWN:
-                case KeyEvent.VK_S:
-                case KeyEvent.VK_SPACE:
-                    fireBullets = false;
-                    break;
-                case KeyEvent.VK_F:
-                    if (isEnhanced)
-                    {
-                        placeMissle = false;
-                    }
-                    break;
-            }
+            case KeyEvent.VK_RIGHT:
+            case KeyEvent.VK_D:
+            case KeyEvent.VK_LEFT:
+            case KeyEvent.VK_A:
+                inputs.add( () -> engine.setTurn(turnDirection.NONE));
+                break;
+            case KeyEvent.VK_UP:
+            case KeyEvent.VK_W:
+                inputs.add( () -> engine.setThrust(false));
+                break;
+            case KeyEvent.VK_DOWN:
+            case KeyEvent.VK_S:
+            case KeyEvent.VK_SPACE:
+                inputs.add( () -> engine.setFiring(false));
+                break;
+            case KeyEvent.VK_F:
+                inputs.add( () -> engine.setMissiles(false));
+                break;
         }
     }
 }
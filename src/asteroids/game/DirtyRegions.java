@@ -0,0 +1,209 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.awt.Rectangle;
+
+/**
+ * The parts of the screen that have to be redrawn for a frame, kept as a few rectangles. Rectangles that overlap are
+ * merged as they are added, and when there are already MAX_DIRTY_REGIONS of them a new one is merged into whichever
+ * grows the least. If the regions end up covering more than DIRTY_REGION_LIMIT of the screen, the whole screen is
+ * redrawn instead. Nothing is allocated after construction.
+ */
+final class DirtyRegions
+{
+    /** Left, top, right, and bottom of each region; right and bottom are exclusive */
+    private final int[] x0, y0, x1, y1;
+
+    /** Number of regions */
+    private int count;
+
+    /** True if the whole screen is to be redrawn */
+    private boolean full;
+
+    /**
+     * Creates an empty set of regions.
+     */
+    DirtyRegions ()
+    {
+        x0 = new int[MAX_DIRTY_REGIONS];
+        y0 = new int[MAX_DIRTY_REGIONS];
+        x1 = new int[MAX_DIRTY_REGIONS];
+        y1 = new int[MAX_DIRTY_REGIONS];
+    }
+
+    /**
+     * Empties the set.
+     */
+    void clear ()
+    {
+        count = 0;
+        full = false;
+    }
+
+    /**
+     * Makes the set cover the whole screen.
+     */
+    void addAll ()
+    {
+        full = true;
+        count = 1;
+        x0[0] = y0[0] = 0;
+        x1[0] = y1[0] = SIZE;
+    }
+
+    /**
+     * Adds the rectangle from (left, top) up to but not including (right, bottom).
+     */
+    void add (int left, int top, int right, int bottom)
+    {
+        if (full)
+        {
+            return;
+        }
+        left = Math.max(left, 0);
+        top = Math.max(top, 0);
+        right = Math.min(right, SIZE);
+        bottom = Math.min(bottom, SIZE);
+        if (left >= right || top >= bottom)
+        {
+            return;
+        }
+
+        int i = 0;
+        while (i < count)
+        {
+            if (left <= x1[i] && x0[i] <= right && top <= y1[i] && y0[i] <= bottom)
+            {
+                // Absorb the overlapping region, and start over since the union may overlap others
+                left = Math.min(left, x0[i]);
+                top = Math.min(top, y0[i]);
+                right = Math.max(right, x1[i]);
+                bottom = Math.max(bottom, y1[i]);
+                remove(i);
+                i = 0;
+            }
+            else if (i == count - 1 && count == x0.length)
+            {
+                // No room: absorb the region that grows the least
+                int best = 0;
+                long bestGrowth = Long.MAX_VALUE;
+                for (int j = 0; j < count; j++)
+                {
+                    long growth = area(Math.min(left, x0[j]), Math.min(top, y0[j]), Math.max(right, x1[j]),
+                            Math.max(bottom, y1[j])) - area(x0[j], y0[j], x1[j], y1[j]);
+                    if (growth < bestGrowth)
+                    {
+                        best = j;
+                        bestGrowth = growth;
+                    }
+                }
+                left = Math.min(left, x0[best]);
+                top = Math.min(top, y0[best]);
+                right = Math.max(right, x1[best]);
+                bottom = Math.max(bottom, y1[best]);
+                remove(best);
+                i = 0;
+            }
+            else
+            {
+                i++;
+            }
+        }
+
+        x0[count] = left;
+        y0[count] = top;
+        x1[count] = right;
+        y1[count] = bottom;
+        count++;
+
+        if (getArea() > DIRTY_REGION_LIMIT * SIZE * SIZE)
+        {
+            addAll();
+        }
+    }
+
+    /**
+     * Adds all the regions of the other set.
+     */
+    void add (DirtyRegions other)
+    {
+        if (other.full)
+        {
+            addAll();
+        }
+        for (int i = 0; i < other.count && !full; i++)
+        {
+            add(other.x0[i], other.y0[i], other.x1[i], other.y1[i]);
+        }
+    }
+
+    /**
+     * Makes this set the same as the other.
+     */
+    void copy (DirtyRegions other)
+    {
+        count = other.count;
+        full = other.full;
+        System.arraycopy(other.x0, 0, x0, 0, count);
+        System.arraycopy(other.y0, 0, y0, 0, count);
+        System.arraycopy(other.x1, 0, x1, 0, count);
+        System.arraycopy(other.y1, 0, y1, 0, count);
+    }
+
+    /**
+     * Removes region i, moving the last region into its place.
+     */
+    private void remove (int i)
+    {
+        count--;
+        x0[i] = x0[count];
+        y0[i] = y0[count];
+        x1[i] = x1[count];
+        y1[i] = y1[count];
+    }
+
+    /**
+     * Returns the area of a rectangle.
+     */
+    private static long area (int left, int top, int right, int bottom)
+    {
+        return (long) (right - left) * (bottom - top);
+    }
+
+    /**
+     * Returns the number of regions.
+     */
+    int size ()
+    {
+        return count;
+    }
+
+    /**
+     * Reports whether the whole screen is to be redrawn.
+     */
+    boolean isFull ()
+    {
+        return full;
+    }
+
+    /**
+     * Makes the rectangle region i.
+     */
+    void getRegion (int i, Rectangle r)
+    {
+        r.setBounds(x0[i], y0[i], x1[i] - x0[i], y1[i] - y0[i]);
+    }
+
+    /**
+     * Returns the number of pixels in the regions. The regions don't overlap, so none is counted twice.
+     */
+    long getArea ()
+    {
+        long area = 0;
+        for (int i = 0; i < count; i++)
+        {
+            area += area(x0[i], y0[i], x1[i], y1[i]);
+        }
+        return area;
+    }
+}
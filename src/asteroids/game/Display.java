@@ -10,9 +10,12 @@ import java.awt.*;
 @SuppressWarnings("serial")
 public class Display extends JFrame
 {
-    /** The area where the action takes place */
+    /** The area where the action takes place, if Swing paints it */
     private Screen screen;
 
+    /** The area where the action takes place, if it is drawn by active rendering */
+    private ActiveScreen activeScreen;
+
     /**
      * Lays out the game and creates the controller
      */
@@ -26,13 +29,23 @@ public class Display extends JFrame
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
         // The main playing area and the controller
-        screen = new Screen(controller);
+        Component playingArea;
+        if (ACTIVE_RENDERING)
+        {
+            activeScreen = new ActiveScreen(controller);
+            playingArea = activeScreen;
+        }
+        else
+        {
+            screen = new Screen(controller);
+            playingArea = screen;
+        }
 
         // This panel contains the screen to prevent the screen from being
         // resized
         JPanel screenPanel = new JPanel();
         screenPanel.setLayout(new GridBagLayout());
-        screenPanel.add(screen);
+        screenPanel.add(playingArea);
 
         // This panel contains buttons and labels
         JPanel controls = new JPanel();
@@ -54,18 +67,39 @@ public class Display extends JFrame
     }
 
     /**
-     * Called when it is time to update the screen display. This is what drives the animation.
+     * Called when it is time to update the screen display. This is what drives the animation, unless active rendering
+     * is drawing the screen on its own schedule.
      */
     public void refresh ()
     {
-        screen.repaint();
+        if (screen != null)
+        {
+            screen.refresh();
+        }
+    }
+
+    /**
+     * Returns the renderer that is drawing the screen, which reports its frame rate, how much of the screen it redraws
+     * each frame, and the quality it is drawing at.
+     */
+    public GameRenderer getRenderer ()
+    {
+        return (screen != null) ? screen.getRenderer() : activeScreen.getRenderer();
+    }
+
+    /**
+     * Sets the statistics shown across the bottom of the screen, or hides them if s is null
+     */
+    public void setStatistics (String s)
+    {
+        getRenderer().setStatistics(s);
     }
 
     /**
-     * Sets the large legend
+     * Tells the player that something has gone wrong
      */
-    public void setLegend (String s)
+    public void showError (String message)
     {
-        screen.setLegend(s);
+        JOptionPane.showMessageDialog(this, message, TITLE, JOptionPane.ERROR_MESSAGE);
     }
 }
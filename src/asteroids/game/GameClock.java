@@ -0,0 +1,193 @@
+package asteroids.game;
+
+import java.util.Arrays;
+
+/**
+ * Counts simulation ticks and fires the game's scheduled events (such as an alien appearing or the ship respawning) on
+ * the ticks when they are due. Nothing here looks at the wall clock, so a game runs the same way no matter how fast
+ * its ticks arrive. The earliest due tick is remembered, so a tick on which nothing is due costs a single comparison.
+ */
+public final class GameClock
+{
+    /** Length of a tick in milliseconds, used to convert delays to ticks */
+    private final int tickMillis;
+
+    /** Number of ticks that have gone by */
+    private long tick;
+
+    /** The events that have been created, in order of creation */
+    private Event[] events;
+
+    /** Number of events that have been created */
+    private int count;
+
+    /** No event is due before this tick */
+    private long nextDue;
+
+    /**
+     * An action that is run after a delay, counted in ticks, either once or repeatedly. A new event is stopped.
+     */
+    public final class Event
+    {
+        /** The action to run */
+        private final Runnable action;
+
+        /** True if the event runs every period ticks, false if it runs once */
+        private final boolean repeats;
+
+        /** Number of ticks between starting the event and running it, and between runs if it repeats */
+        private int period;
+
+        /** The tick on which the event is next due, or -1 if it is stopped */
+        private long due;
+
+        /**
+         * Creates a stopped event.
+         */
+        private Event (Runnable action, int period, boolean repeats)
+        {
+            this.action = action;
+            this.repeats = repeats;
+            this.period = Math.max(1, period);
+            due = -1;
+        }
+
+        /**
+         * Starts the event if it is stopped. It is due period ticks from now.
+         */
+        public void start ()
+        {
+            if (due < 0)
+            {
+                restart();
+            }
+        }
+
+        /**
+         * Starts the event over, so that it is due period ticks from now.
+         */
+        public void restart ()
+        {
+            due = tick + period;
+            nextDue = Math.min(nextDue, due);
+        }
+
+        /**
+         * Stops the event.
+         */
+        public void stop ()
+        {
+            due = -1;
+        }
+
+        /**
+         * Reports whether the event is started.
+         */
+        public boolean isRunning ()
+        {
+            return due >= 0;
+        }
+
+        /**
+         * Changes the period. If the event is running, this takes effect after the next time it runs.
+         */
+        public void setPeriod (int ticks)
+        {
+            period = Math.max(1, ticks);
+        }
+
+        /**
+         * Returns the period in ticks.
+         */
+        public int getPeriod ()
+        {
+            return period;
+        }
+    }
+
+    /**
+     * Creates a clock whose ticks are the given number of milliseconds long.
+     */
+    public GameClock (int tickMillis)
+    {
+        this.tickMillis = tickMillis;
+        events = new Event[8];
+        nextDue = Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns a stopped event that, once started, runs the action every given number of ticks.
+     */
+    public Event every (int ticks, Runnable action)
+    {
+        return add(new Event(action, ticks, true));
+    }
+
+    /**
+     * Returns a stopped event that, once started, runs the action once after the given number of ticks.
+     */
+    public Event after (int ticks, Runnable action)
+    {
+        return add(new Event(action, ticks, false));
+    }
+
+    /**
+     * Records a new event.
+     */
+    private Event add (Event event)
+    {
+        if (count == events.length)
+        {
+            events = Arrays.copyOf(events, count * 2);
+        }
+        events[count++] = event;
+        return event;
+    }
+
+    /**
+     * Returns the number of ticks that have gone by.
+     */
+    public long getTick ()
+    {
+        return tick;
+    }
+
+    /**
+     * Returns the number of ticks (at least one) that cover the given number of milliseconds.
+     */
+    public int toTicks (int msecs)
+    {
+        return Math.max(1, (msecs + tickMillis - 1) / tickMillis);
+    }
+
+    /**
+     * Advances the clock by one tick and runs the events that are due, in the order they were created.
+     */
+    public void advance ()
+    {
+        tick++;
+        if (tick < nextDue)
+        {
+            return;
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            Event event = events[i];
+            if (event.due == tick)
+            {
+                event.due = event.repeats ? tick + event.period : -1;
+                event.action.run();
+            }
+        }
+
+        nextDue = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++)
+        {
+            if (events[i].due >= 0)
+            {
+                nextDue = Math.min(nextDue, events[i].due);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package asteroids.game;
+
+/**
+ * A fixed-timestep loop. The real time that passes between frames is added to an accumulator, and the simulation is
+ * stepped once for every whole tick the accumulator holds, so the game runs at its tick rate no matter how often or
+ * how regularly frames arrive. What is left over in the accumulator tells how far the display is between the last two
+ * simulation states (see getAlpha). If a frame comes so late that more than the allowed number of catch-up steps are
+ * due, the ticks beyond that are dropped (and counted) rather than run, so a long stall doesn't snowball.
+ */
+public final class GameLoop
+{
+    /** Advances the simulation by one tick */
+    private final Runnable step;
+
+    /** Largest number of ticks run in one frame */
+    private final int maxStepsPerFrame;
+
+    /** Length of a tick in nanoseconds, which any thread may read */
+    private volatile long tickNanos;
+
+    /** Real time that has passed but hasn't yet been simulated, in nanoseconds */
+    private long accumulator;
+
+    /** Time of the previous frame, from System.nanoTime */
+    private long lastFrame;
+
+    /** True once the first frame has been seen */
+    private boolean started;
+
+    /**
+     * Number of frames, ticks run, frames that ran more than one tick to catch up, ticks dropped, and frames in which
+     * ticks were dropped. Only the thread running the loop changes them, but any thread may read them.
+     */
+    private volatile long frames, ticks, catchUpFrames, skippedTicks, skippedFrames;
+
+    /**
+     * Creates a loop that runs the step every tickMillis milliseconds of real time, running at most maxStepsPerFrame
+     * steps in a single frame.
+     */
+    public GameLoop (int tickMillis, int maxStepsPerFrame, Runnable step)
+    {
+        this.step = step;
+        this.maxStepsPerFrame = Math.max(1, maxStepsPerFrame);
+        setTickRate(1000.0 / tickMillis);
+    }
+
+    /**
+     * Changes the number of ticks that are run per second of real time. Since the game counts everything in ticks,
+     * this speeds up or slows down the whole game.
+     */
+    public void setTickRate (double ticksPerSecond)
+    {
+        tickNanos = Math.max(1, Math.round(1e9 / ticksPerSecond));
+        accumulator = Math.min(accumulator, tickNanos - 1);
+    }
+
+    /**
+     * Returns the number of ticks that are run per second of real time.
+     */
+    public double getTickRate ()
+    {
+        return 1e9 / tickNanos;
+    }
+
+    /**
+     * Starts over, discarding any time that has accumulated, so that the next frame runs no ticks.
+     */
+    public void restart ()
+    {
+        started = false;
+        accumulator = 0;
+    }
+
+    /**
+     * Handles a frame that happens at the given time (from System.nanoTime), running as many ticks as are due. Returns
+     * the number of ticks run.
+     */
+    public int frame (long now)
+    {
+        frames++;
+        if (!started)
+        {
+            started = true;
+            lastFrame = now;
+            return 0;
+        }
+        accumulator += Math.max(0, now - lastFrame);
+        lastFrame = now;
+
+        int steps = 0;
+        while (accumulator >= tickNanos && steps < maxStepsPerFrame)
+        {
+            step.run();
+            accumulator -= tickNanos;
+            steps++;
+        }
+        ticks += steps;
+        if (steps > 1)
+        {
+            catchUpFrames++;
+        }
+
+        // Drop whatever couldn't be caught up
+        if (accumulator >= tickNanos)
+        {
+            skippedTicks += accumulator / tickNanos;
+            skippedFrames++;
+            accumulator %= tickNanos;
+        }
+        return steps;
+    }
+
+    /**
+     * Returns the length of a tick in nanoseconds.
+     */
+    public long getTickNanos ()
+    {
+        return tickNanos;
+    }
+
+    /**
+     * Returns the number of nanoseconds from the given time (from System.nanoTime) until the next tick is due.
+     */
+    public long getNanosUntilNextTick (long now)
+    {
+        return Math.max(0, tickNanos - accumulator - (now - lastFrame));
+    }
+
+    /**
+     * Returns how far (from 0 to 1) the current frame lies between the state before the most recent tick and the state
+     * after it.
+     */
+    public double getAlpha ()
+    {
+        return (double) accumulator / tickNanos;
+    }
+
+    /**
+     * Returns the number of frames handled.
+     */
+    public long getFrames ()
+    {
+        return frames;
+    }
+
+    /**
+     * Returns the number of ticks run.
+     */
+    public long getTicks ()
+    {
+        return ticks;
+    }
+
+    /**
+     * Returns the number of frames that ran more than one tick to catch up.
+     */
+    public long getCatchUpFrames ()
+    {
+        return catchUpFrames;
+    }
+
+    /**
+     * Returns the number of ticks that were due but dropped because they exceeded the catch-up limit.
+     */
+    public long getSkippedTicks ()
+    {
+        return skippedTicks;
+    }
+
+    /**
+     * Returns the number of frames in which ticks were dropped.
+     */
+    public long getSkippedFrames ()
+    {
+        return skippedFrames;
+    }
+
+    /**
+     * Reports the counters.
+     */
+    @Override
+    public String toString ()
+    {
+        return String.format("%.1f ticks/s, %d frames, %d ticks, %d catch-up frames, %d skipped ticks in %d frames",
+                getTickRate(), frames, ticks, catchUpFrames, skippedTicks, skippedFrames);
+    }
+}
@@ -0,0 +1,80 @@
+package asteroids.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * The random numbers of one game, all of which come from a single seed, so that a game can be played again exactly by
+ * giving it the same seed and the same inputs. They are split into independent streams by what they decide: where
+ * things are spawned and how they move off, how debris flies, and what the alien ship does. Drawing more numbers from
+ * one stream (with more debris, say) leaves the numbers of the others as they were.
+ *
+ * Nothing is shared between games, so games running at the same time on different threads don't contend for their
+ * random numbers as they would for a shared java.util.Random. Like the rest of a game, the streams must only be used by
+ * one thread at a time.
+ */
+public final class GameRandom
+{
+    /** The seed the streams come from */
+    private final long seed;
+
+    /** The stream for spawning participants and splitting asteroids */
+    private final SplittableRandom spawn;
+
+    /** The stream for debris */
+    private final SplittableRandom debris;
+
+    /** The stream for the alien ship's decisions */
+    private final SplittableRandom ai;
+
+    /**
+     * Creates the streams of a game from its seed.
+     */
+    public GameRandom (long seed)
+    {
+        this.seed = seed;
+        SplittableRandom root = new SplittableRandom(seed);
+        spawn = root.split();
+        debris = root.split();
+        ai = root.split();
+    }
+
+    /**
+     * Returns a seed for a new game, different every time.
+     */
+    public static long newSeed ()
+    {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Returns the seed the streams come from.
+     */
+    public long getSeed ()
+    {
+        return seed;
+    }
+
+    /**
+     * Returns the stream for spawning participants and splitting asteroids.
+     */
+    public SplittableRandom getSpawn ()
+    {
+        return spawn;
+    }
+
+    /**
+     * Returns the stream for debris.
+     */
+    public SplittableRandom getDebris ()
+    {
+        return debris;
+    }
+
+    /**
+     * Returns the stream for the alien ship's decisions.
+     */
+    public SplittableRandom getAI ()
+    {
+        return ai;
+    }
+}
@@ -0,0 +1,342 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws a RenderSnapshot: the participants, the legend, the heads-up display, and any statistics. Both Screen and
+ * ActiveScreen draw through one of these, so the game looks the same whichever of them is showing it. It also keeps
+ * track of how many frames per second it is drawing, and how much of the screen each one paints.
+ *
+ * Unless SPRITE_RENDERING is off, the participants are drawn from a SpriteAtlas, so the time it takes grows with the
+ * number of participants but not with the complexity of their outlines. The participants it doesn't draw (those whose
+ * sprites are beyond what the atlas will make in a frame, and any whose shapes aren't Outlines), or all of them if
+ * SPRITE_RENDERING is off, are gathered into an OutlineBatch and drawn with a single call.
+ *
+ * Drawing a frame has two steps. Preparing it works out where everything goes and, from that and where everything was
+ * the frame before, which parts of the screen have to be redrawn (see DirtyRegions). Painting then draws whatever
+ * falls within a clip rectangle, and is done once for each of those parts.
+ *
+ * How long the painting of each frame takes is reported to a QualityGovernor, which lowers the quality of the drawing
+ * when painting takes too long. Below full quality the sprites come from a second atlas whose sprites aren't
+ * anti-aliased, which are quicker to make and to copy. Below that the sprites are dropped and the outlines are drawn
+ * through the OutlineBatch without anti-aliasing, which with hundreds of participants on the screen is quicker still,
+ * and at the lowest tier the outlines are drawn at half resolution and scaled up.
+ */
+public final class GameRenderer
+{
+    /** Collects the outlines that aren't drawn from sprites, to draw them all at once */
+    private final OutlineBatch batch;
+
+    /** The anti-aliased and the plain rasterized outlines, or null if the outlines are drawn directly */
+    private final SpriteAtlas sprites, plainSprites;
+
+    /** The heads-up display, the legend, and the statistics */
+    private final HudLayer hud;
+
+    /** The snapshot of the most recently prepared frame, or null if none has been prepared */
+    private RenderSnapshot frame;
+
+    /** How far the frame is between the last two positions of the participants */
+    private double alpha;
+
+    /**
+     * Left, top, right, and bottom of each participant as drawn in the most recently prepared frame (previousBoxes) and
+     * the one before it (boxes, which is then reused), four values apiece
+     */
+    private int[] boxes, previousBoxes;
+
+    /** Number of participants in previousBoxes */
+    private int previousCount;
+
+    /** The parts of the screen that the most recently prepared frame changes */
+    private final DirtyRegions damage;
+
+    /** Chooses the quality of the drawing */
+    private final QualityGovernor governor;
+
+    /** Nanoseconds spent painting the most recently prepared frame so far */
+    private long paintNanos;
+
+    /** Pixels of the screen painted for the most recently prepared frame so far */
+    private long paintedArea;
+
+    /** When the most recent frame was prepared, from System.nanoTime */
+    private long preparedAt;
+
+    /** The half-resolution image used at the lowest quality, or null until it is needed */
+    private BufferedImage lowResolution;
+
+    /** The whole screen */
+    private final Rectangle everything;
+
+    /** Sum of the fractions of the screen painted for the frames in the current second */
+    private double coverageSum;
+
+    /** Average fraction of the screen painted per frame, as of the last full second */
+    private volatile double coverage;
+
+    /** When the current second of frame counting began, from System.nanoTime */
+    private long rateStart;
+
+    /** Number of frames drawn in the current second */
+    private int rateFrames;
+
+    /** Frames drawn per second, as of the last full second */
+    private volatile double frameRate;
+
+    /** The statistics shown across the bottom of the screen, a line for each line of the text, or null if none are */
+    private volatile String statistics;
+
+    /**
+     * Creates a renderer.
+     */
+    public GameRenderer ()
+    {
+        batch = new OutlineBatch();
+        sprites = SPRITE_RENDERING ? new SpriteAtlas(true) : null;
+        plainSprites = SPRITE_RENDERING ? new SpriteAtlas(false) : null;
+        hud = new HudLayer();
+        boxes = new int[0];
+        previousBoxes = new int[0];
+        damage = new DirtyRegions();
+        governor = new QualityGovernor();
+        everything = new Rectangle(0, 0, SIZE, SIZE);
+    }
+
+    /**
+     * Gets ready to draw the snapshot as of the given time (from System.nanoTime), which is used to place the
+     * participants between their last two positions, and works out which parts of the screen have changed since the
+     * frame prepared before (see getDamage). The snapshot mustn't change until it has been drawn.
+     */
+    void prepare (RenderSnapshot snapshot, long now)
+    {
+        // Let the governor know how the frame before went, now that it has been painted, and count it
+        boolean tierChanged = false;
+        if (frame != null)
+        {
+            tierChanged = governor.frameFinished(paintNanos, now - preparedAt);
+            countFrame(now);
+        }
+        paintNanos = 0;
+        paintedArea = 0;
+        preparedAt = now;
+        if (sprites != null)
+        {
+            sprites.beginFrame();
+            plainSprites.beginFrame();
+        }
+
+        // The first frame has to be drawn everywhere, as does any frame whose quality differs from the one before
+        damage.clear();
+        if (!DIRTY_REGIONS || frame == null || tierChanged
+                || governor.getTier() == QualityGovernor.Tier.LOW_RESOLUTION)
+        {
+            damage.addAll();
+        }
+        frame = snapshot;
+        alpha = snapshot.getAlpha(now);
+
+        // Where each participant will be drawn, and where it was drawn before
+        int n = snapshot.size();
+        if (boxes.length < 4 * n)
+        {
+            boxes = new int[8 * n];
+        }
+        for (int i = 0; i < n; i++)
+        {
+            Shape outline = snapshot.getOutline(i);
+            double r = (outline instanceof Outline ? ((Outline) outline).getExtent() : Outline.extentOf(outline)) + 3;
+            double x = snapshot.getX(i, alpha);
+            double y = snapshot.getY(i, alpha);
+            boxes[4 * i] = (int) Math.floor(x - r);
+            boxes[4 * i + 1] = (int) Math.floor(y - r);
+            boxes[4 * i + 2] = (int) Math.ceil(x + r);
+            boxes[4 * i + 3] = (int) Math.ceil(y + r);
+            damage.add(boxes[4 * i], boxes[4 * i + 1], boxes[4 * i + 2], boxes[4 * i + 3]);
+        }
+        for (int i = 0; i < previousCount; i++)
+        {
+            damage.add(previousBoxes[4 * i], previousBoxes[4 * i + 1], previousBoxes[4 * i + 2],
+                    previousBoxes[4 * i + 3]);
+        }
+        int[] swap = previousBoxes;
+        previousBoxes = boxes;
+        boxes = swap;
+        previousCount = n;
+
+        // The heads-up display, the legend, and the statistics
+        hud.update(snapshot, statistics, damage);
+    }
+
+    /**
+     * Returns the parts of the screen that the most recently prepared frame changes. They include everything if
+     * DIRTY_REGIONS is off or the changes cover too much of the screen.
+     */
+    DirtyRegions getDamage ()
+    {
+        return damage;
+    }
+
+    /**
+     * Draws the part of the most recently prepared frame that lies within the clip rectangle. The background must
+     * already have been cleared there.
+     */
+    void paint (Graphics2D g, Rectangle clip)
+    {
+        long start = System.nanoTime();
+        long width = Math.min(clip.x + clip.width, SIZE) - Math.max(clip.x, 0);
+        long height = Math.min(clip.y + clip.height, SIZE) - Math.max(clip.y, 0);
+        if (width > 0 && height > 0)
+        {
+            paintedArea += width * height;
+        }
+        if (governor.getTier() == QualityGovernor.Tier.LOW_RESOLUTION)
+        {
+            paintLowResolution(g);
+        }
+        else
+        {
+            paintContents(g, clip);
+        }
+        paintNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Draws the whole frame at half resolution, then scales it up onto the graphics.
+     */
+    private void paintLowResolution (Graphics2D g)
+    {
+        if (lowResolution == null)
+        {
+            lowResolution = new BufferedImage(SIZE / 2, SIZE / 2, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D low = lowResolution.createGraphics();
+        low.setColor(Color.black);
+        low.fillRect(0, 0, SIZE / 2, SIZE / 2);
+        low.scale(0.5, 0.5);
+        paintContents(low, everything);
+        low.dispose();
+        g.drawImage(lowResolution, 0, 0, SIZE, SIZE, null);
+    }
+
+    /**
+     * Draws the part of the most recently prepared frame that lies within the clip rectangle.
+     */
+    private void paintContents (Graphics2D g, Rectangle clip)
+    {
+        // Set up the graphics once for everything that is drawn
+        governor.applyHints(g);
+        g.setColor(Color.white);
+
+        // Draw each participant that is in the clip in its proper place, between its last two positions, with the
+        // sprites that match the quality. Those that don't have sprites are collected and drawn together.
+        RenderSnapshot snapshot = frame;
+        if (snapshot != null)
+        {
+            SpriteAtlas sprites = getSprites(governor.getTier());
+            batch.begin();
+            int left = clip.x, top = clip.y, right = clip.x + clip.width, bottom = clip.y + clip.height;
+            for (int i = 0; i < previousCount; i++)
+            {
+                if (previousBoxes[4 * i] >= right || previousBoxes[4 * i + 2] <= left
+                        || previousBoxes[4 * i + 1] >= bottom || previousBoxes[4 * i + 3] <= top)
+                {
+                    continue;
+                }
+                Shape outline = snapshot.getOutline(i);
+                double x = snapshot.getX(i, alpha);
+                double y = snapshot.getY(i, alpha);
+                if (sprites == null || !sprites.draw(g, outline, snapshot.getCos(i), snapshot.getSin(i), x, y))
+                {
+                    batch.add(outline, snapshot.getCos(i), snapshot.getSin(i), x, y);
+                }
+            }
+            batch.draw(g);
+        }
+
+        // Draw the heads-up display, the legend, and the statistics
+        hud.paint(g);
+    }
+
+    /**
+     * Returns the sprites that participants are drawn with at the tier, or null if their outlines are drawn.
+     */
+    private SpriteAtlas getSprites (QualityGovernor.Tier tier)
+    {
+        switch (tier)
+        {
+            case FULL:
+                return sprites;
+            case NO_ANTIALIASING:
+                return plainSprites;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Counts the frame that has been painted by the given time, updating the frame rate and the coverage once a second.
+     */
+    private void countFrame (long now)
+    {
+        if (rateFrames == 0)
+        {
+            rateStart = now;
+        }
+        rateFrames++;
+        coverageSum += (double) paintedArea / ((long) SIZE * SIZE);
+        long elapsed = now - rateStart;
+        if (elapsed >= 1_000_000_000L)
+        {
+            frameRate = (rateFrames - 1) * 1e9 / elapsed;
+            coverage = coverageSum / rateFrames;
+            rateFrames = 0;
+            coverageSum = 0;
+        }
+    }
+
+    /**
+     * Returns the number of frames drawn per second, as of the last full second.
+     */
+    public double getFrameRate ()
+    {
+        return frameRate;
+    }
+
+    /**
+     * Returns the average fraction (from 0 to 1) of the screen painted per frame, as of the last full second. This
+     * counts the clip rectangles the frames were actually painted in, which can be more than their damage (see Screen).
+     */
+    public double getCoverage ()
+    {
+        return coverage;
+    }
+
+    /**
+     * Shows the statistics, a line for each line of the text, across the bottom of the screen from the next frame on,
+     * or shows none if the text is null. Any thread may call this.
+     */
+    public void setStatistics (String text)
+    {
+        statistics = text;
+    }
+
+    /**
+     * Returns the governor that chooses the quality of the drawing.
+     */
+    public QualityGovernor getQualityGovernor ()
+    {
+        return governor;
+    }
+
+    /**
+     * Reports the frame rate, how much of the screen is being redrawn, and the quality.
+     */
+    @Override
+    public String toString ()
+    {
+        return String.format("%.1f frames/s, %.0f%% redrawn, quality %s", frameRate, 100 * coverage, governor);
+    }
+}
@@ -0,0 +1,61 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+
+/**
+ * Runs a game of Asteroids with no screen, no sound, and no player, as fast as it will go, and reports how many ticks
+ * per second it reached. Nothing from AWT or Swing is initialized, so it runs on a headless machine.
+ *
+ * The game is played by an autopilot that starts a game, keeps the ship turning and firing, and starts a new game
+ * whenever the last one is over, so that the collisions, scoring, levels, and aliens all get exercised. Since the
+ * autopilot's inputs don't depend on time, two runs with the same seed play exactly the same game.
+ *
+ * Usage: HeadlessAsteroids [ticks [classic|enhanced [seed [plain|packed]]]]
+ */
+public class HeadlessAsteroids
+{
+    /** Number of ticks to run if none is given */
+    private final static int DEFAULT_TICKS = 100_000;
+
+    /**
+     * Runs the number of ticks given by the first argument, in a classic game unless the second argument is
+     * "enhanced", with the seed given by the third argument or a new one, and with the participants packed if the
+     * fourth argument is "packed" and as PACKED_PARTICIPANTS says if there is no fourth argument.
+     */
+    public static void main (String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        long ticks = (args.length > 0) ? Long.parseLong(args[0]) : DEFAULT_TICKS;
+        boolean enhanced = args.length > 1 && args[1].equals("enhanced");
+        long seed = (args.length > 2) ? Long.parseLong(args[2]) : GameRandom.newSeed();
+        boolean packed = (args.length > 3) ? args[3].equals("packed") : PACKED_PARTICIPANTS;
+
+        SimulationEngine engine = new SimulationEngine(enhanced, seed, RenderSink.NONE, AudioSink.NONE,
+                HeadlessAsteroids::autopilot, packed);
+        long start = System.nanoTime();
+        for (long t = 0; t < ticks; t++)
+        {
+            engine.step();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%s participants: %d ticks in %.3f s: %.0f ticks/s (%.1fx real time)%n",
+                packed ? "Packed" : "Plain", ticks, seconds, ticks / seconds,
+                ticks * FRAME_INTERVAL / 1000.0 / seconds);
+        System.out.printf("Finished on level %d with %d points and %d lives (seed %d)%n", engine.currentLevel(),
+                engine.numPoints(), engine.shipLives(), seed);
+    }
+
+    /**
+     * Plays the game: starts a new one when there are no lives left, and otherwise turns and fires.
+     */
+    private static void autopilot (SimulationEngine engine)
+    {
+        if (engine.shipLives() == 0)
+        {
+            engine.startGame();
+        }
+        engine.setTurn(turnDirection.LEFT);
+        engine.setFiring(true);
+    }
+}
@@ -0,0 +1,283 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import asteroids.participants.Outlines;
+
+/**
+ * The heads-up display (points, level, and lives), the legend, and the statistics, kept as images that are redrawn
+ * only when what they show changes. The digits and the life icon are rasterized once, up front, and the images are
+ * reused when they are redrawn, so a frame in which nothing has changed allocates nothing and just copies the images
+ * onto the screen. When something does change, the part of the screen it occupies is reported as damaged.
+ */
+final class HudLayer
+{
+    /** Height of the band across the top of the screen that holds the heads-up display */
+    private final static int BAND_HEIGHT = SIZE / 8 + 24;
+
+    /** Font of the heads-up display */
+    private final static Font HUD_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 36);
+
+    /** Font of the legend */
+    private final static Font LEGEND_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 120);
+
+    /** Font of the statistics */
+    private final static Font STATISTICS_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+
+    /** Most lines of statistics shown */
+    private final static int STATISTICS_LINES = 4;
+
+    /** Images of the digits 0 through 9, and how far each one advances the text */
+    private final BufferedImage[] digits;
+    private final int[] digitAdvances;
+
+    /** How far above the baseline the digit images begin */
+    private final int digitAscent;
+
+    /** Image of a life, and where the center of the ship is within it */
+    private final BufferedImage life;
+    private final int lifeOriginX, lifeOriginY;
+
+    /** The band across the top of the screen, and whether it has anything in it */
+    private final BufferedImage band;
+    private boolean bandShown;
+
+    /** What the band shows */
+    private int points, level, lives;
+
+    /** The legend, the baseline within it, and its measurements */
+    private final BufferedImage legendImage;
+    private final int legendAscent;
+    private final FontMetrics legendMetrics;
+
+    /** What the legend shows */
+    private String legend;
+
+    /** The statistics across the bottom of the screen, where they begin, and the height of a line of them */
+    private final BufferedImage statisticsImage;
+    private final int statisticsTop, statisticsLineHeight;
+
+    /** What the statistics show, one line per line of text, or null if they aren't shown */
+    private String statistics;
+
+    /**
+     * Rasterizes the digits and the life icon, and creates the (empty) images of the band, the legend, and the
+     * statistics.
+     */
+    HudLayer ()
+    {
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D sg = scratch.createGraphics();
+        FontMetrics hudMetrics = sg.getFontMetrics(HUD_FONT);
+        legendMetrics = sg.getFontMetrics(LEGEND_FONT);
+        FontMetrics statisticsMetrics = sg.getFontMetrics(STATISTICS_FONT);
+        sg.dispose();
+
+        // The digits
+        digitAscent = hudMetrics.getAscent();
+        digits = new BufferedImage[10];
+        digitAdvances = new int[10];
+        for (int d = 0; d < 10; d++)
+        {
+            String digit = String.valueOf((char) ('0' + d));
+            digitAdvances[d] = hudMetrics.stringWidth(digit);
+            digits[d] = newImage(digitAdvances[d] + 4, digitAscent + hudMetrics.getDescent());
+            Graphics2D g = prepare(digits[d]);
+            g.setFont(HUD_FONT);
+            g.drawString(digit, 2, digitAscent);
+            g.dispose();
+        }
+
+        // The life icon, which is the ship pointing up
+        AffineTransform up = AffineTransform.getQuadrantRotateInstance(3);
+        Rectangle bounds = up.createTransformedShape(Outlines.SHIP).getBounds();
+        lifeOriginX = -bounds.x + 2;
+        lifeOriginY = -bounds.y + 2;
+        life = newImage(bounds.width + 4, bounds.height + 4);
+        Graphics2D g = prepare(life);
+        g.translate(lifeOriginX, lifeOriginY);
+        g.transform(up);
+        g.draw(Outlines.SHIP);
+        g.dispose();
+
+        // The band and the legend
+        band = newImage(SIZE, BAND_HEIGHT);
+        legendAscent = legendMetrics.getAscent();
+        legendImage = newImage(SIZE, legendAscent + legendMetrics.getDescent());
+        legend = "";
+
+        // The statistics
+        statisticsLineHeight = statisticsMetrics.getHeight();
+        statisticsImage = newImage(SIZE, STATISTICS_LINES * statisticsLineHeight + 4);
+        statisticsTop = SIZE - statisticsImage.getHeight();
+    }
+
+    /**
+     * Creates a transparent image.
+     */
+    private static BufferedImage newImage (int width, int height)
+    {
+        return new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /**
+     * Returns graphics for drawing white, anti-aliased, on the image.
+     */
+    private static Graphics2D prepare (BufferedImage image)
+    {
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.setColor(Color.white);
+        return g;
+    }
+
+    /**
+     * Makes the image transparent again.
+     */
+    private static Graphics2D clear (BufferedImage image)
+    {
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.setComposite(AlphaComposite.SrcOver);
+        return g;
+    }
+
+    /**
+     * Brings the images up to date with the snapshot, redrawing whichever of them has changed, and adds the parts of
+     * the screen that have changed to the damage.
+     */
+    void update (RenderSnapshot snapshot, String statistics, DirtyRegions damage)
+    {
+        // Lives Levels Points
+        if (snapshot.isGameActive())
+        {
+            if (!bandShown || points != snapshot.getPoints() || level != snapshot.getLevel()
+                    || lives != snapshot.getLives())
+            {
+                points = snapshot.getPoints();
+                level = snapshot.getLevel();
+                lives = snapshot.getLives();
+                drawBand();
+                bandShown = true;
+                damage.add(0, 0, SIZE, BAND_HEIGHT);
+            }
+        }
+        else if (bandShown)
+        {
+            bandShown = false;
+            damage.add(0, 0, SIZE, BAND_HEIGHT);
+        }
+
+        // The legend across the middle of the screen
+        if (!legend.equals(snapshot.getLegend()))
+        {
+            legend = snapshot.getLegend();
+            drawLegend();
+            damage.add(0, SIZE / 2 - legendAscent, SIZE, SIZE / 2 - legendAscent + legendImage.getHeight());
+        }
+
+        // The statistics across the bottom of the screen
+        if (statistics == null ? this.statistics != null : !statistics.equals(this.statistics))
+        {
+            this.statistics = statistics;
+            drawStatistics();
+            damage.add(0, statisticsTop, SIZE, SIZE);
+        }
+    }
+
+    /**
+     * Draws the heads-up display, the legend, and the statistics, as of the most recent update.
+     */
+    void paint (Graphics2D g)
+    {
+        if (bandShown)
+        {
+            g.drawImage(band, 0, 0, null);
+        }
+        if (!legend.isEmpty())
+        {
+            g.drawImage(legendImage, 0, SIZE / 2 - legendAscent, null);
+        }
+        if (statistics != null)
+        {
+            g.drawImage(statisticsImage, 0, statisticsTop, null);
+        }
+    }
+
+    /**
+     * Redraws the band from the digit and life images.
+     */
+    private void drawBand ()
+    {
+        Graphics2D g = clear(band);
+
+        // Points
+        drawNumber(g, points, SIZE / 14, SIZE / 12);
+
+        // Level
+        drawNumber(g, level, SIZE - SIZE / 14, SIZE / 11);
+
+        // Lives
+        for (int x = 1; x < lives + 1; x++)
+        {
+            g.drawImage(life, (SIZE / 34) + ((SIZE / 26) * x) - lifeOriginX, SIZE / 8 - lifeOriginY, null);
+        }
+        g.dispose();
+    }
+
+    /**
+     * Draws a number that isn't negative, starting at x on the given baseline.
+     */
+    private void drawNumber (Graphics2D g, int number, int x, int baseline)
+    {
+        // Find the highest power of ten in the number, to draw the digits from left to right
+        int power = 1;
+        while (number / power >= 10)
+        {
+            power *= 10;
+        }
+        for (; power > 0; power /= 10)
+        {
+            int d = (number / power) % 10;
+            g.drawImage(digits[d], x - 2, baseline - digitAscent, null);
+            x += digitAdvances[d];
+        }
+    }
+
+    /**
+     * Redraws the legend, centered across the screen.
+     */
+    private void drawLegend ()
+    {
+        Graphics2D g = clear(legendImage);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(Color.white);
+        g.setFont(LEGEND_FONT);
+        g.drawString(legend, (SIZE - legendMetrics.stringWidth(legend)) / 2, legendAscent);
+        g.dispose();
+    }
+
+    /**
+     * Redraws the statistics, a line of the image for each line of the text, as many as fit.
+     */
+    private void drawStatistics ()
+    {
+        Graphics2D g = clear(statisticsImage);
+        if (statistics != null)
+        {
+            g.setColor(Color.gray);
+            g.setFont(STATISTICS_FONT);
+            String[] lines = statistics.split("\n");
+            int ascent = g.getFontMetrics().getAscent();
+            for (int i = 0; i < Math.min(lines.length, STATISTICS_LINES); i++)
+            {
+                g.drawString(lines[i], 4, 2 + ascent + i * statisticsLineHeight);
+            }
+        }
+        g.dispose();
+    }
+}
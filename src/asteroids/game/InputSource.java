@@ -0,0 +1,19 @@
+package asteroids.game;
+
+/**
+ * Supplies the player's inputs to a SimulationEngine. It is polled at the start of every step, and delivers whatever
+ * has happened since the step before by calling the engine's control methods (startGame, setTurn, setThrust,
+ * setFiring, and setMissiles).
+ */
+public interface InputSource
+{
+    /** A source with no inputs, for letting the game run by itself */
+    InputSource NONE = engine ->
+    {
+    };
+
+    /**
+     * Delivers the inputs that have arrived since the last poll to the engine.
+     */
+    void poll (SimulationEngine engine);
+}
@@ -0,0 +1,102 @@
+package asteroids.game;
+
+import asteroids.participants.Alien;
+import asteroids.participants.AlienBullet;
+import asteroids.participants.Asteroid;
+import asteroids.participants.Bullet;
+import asteroids.participants.Debris;
+import asteroids.participants.Missles;
+import asteroids.participants.Ship;
+
+/**
+ * Records which kinds of participants can possibly do something when they collide. The table is built once, from the
+ * {@link ReactsTo} declaration of each kind of participant and the destroyer markers that each kind implements. Two
+ * participants interact if either one reacts to the other. A pair that doesn't interact can be skipped without testing
+ * whether it overlaps.
+ *
+ * Participant classes that are not listed here have no entry in the table and are assumed to interact with every
+ * participant in the collision set. A listed class that nothing listed interacts with (like Debris) is left out of the
+ * collision set altogether.
+ */
+final class InteractionTable
+{
+    /** The kinds of participants in the table */
+    private final static Class<?>[] TYPES = { Ship.class, Asteroid.class, Alien.class, Bullet.class,
+            AlienBullet.class, Missles.class, Debris.class };
+
+    /** INTERACTS[i][j] is true if participants of kinds i and j interact */
+    private final static boolean[][] INTERACTS = new boolean[TYPES.length][TYPES.length];
+
+    /** COLLIDES[i] is true if participants of kind i interact with anything */
+    private final static boolean[] COLLIDES = new boolean[TYPES.length];
+
+    static
+    {
+        for (int i = 0; i < TYPES.length; i++)
+        {
+            for (int j = 0; j < TYPES.length; j++)
+            {
+                INTERACTS[i][j] = reactsTo(TYPES[i], TYPES[j]) || reactsTo(TYPES[j], TYPES[i]);
+                COLLIDES[i] |= INTERACTS[i][j];
+            }
+        }
+    }
+
+    /**
+     * Not instantiable
+     */
+    private InteractionTable ()
+    {
+    }
+
+    /**
+     * Reports whether participants of class a do something when they collide with participants of class b.
+     */
+    private static boolean reactsTo (Class<?> a, Class<?> b)
+    {
+        ReactsTo declaration = a.getAnnotation(ReactsTo.class);
+        if (declaration == null)
+        {
+            return true;
+        }
+        for (Class<?> c : declaration.value())
+        {
+            if (c.isAssignableFrom(b))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index of the kind of participant in the table, or -1 if it has no entry.
+     */
+    static int indexOf (Class<?> c)
+    {
+        for (int i = 0; i < TYPES.length; i++)
+        {
+            if (TYPES[i] == c)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reports whether participants of kinds a and b (as returned by indexOf) interact.
+     */
+    static boolean interacts (int a, int b)
+    {
+        return a < 0 || b < 0 || INTERACTS[a][b];
+    }
+
+    /**
+     * Reports whether participants of kind a (as returned by indexOf) belong in the collision set.
+     */
+    static boolean collides (int a)
+    {
+        return a < 0 || COLLIDES[a];
+    }
+}
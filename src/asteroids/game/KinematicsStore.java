@@ -0,0 +1,178 @@
+package asteroids.game;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * Holds the positions, velocities, rotations and bounding boxes of a set of participants in parallel arrays, so that
+ * passes over all of the participants walk through contiguous memory instead of chasing references from one
+ * Participant object to the next. Each participant occupies a slot, which is the same as its index in the
+ * ParticipantList that owns the store. The slots in use are always 0 through size()-1; when a participant is removed,
+ * the participant in the last slot is moved into its place.
+ *
+ * While a participant is in a store, its Participant object is just a handle: all of its kinematic state lives here.
+ * When it is removed, that state is copied back into the object.
+ */
+final class KinematicsStore
+{
+    /** Position of the center of each participant */
+    double[] x, y;
+
+    /** Velocity of each participant in pixels per frame */
+    double[] speedX, speedY;
+
+    /** Rotation of each participant in radians */
+    double[] rotation;
+
+    /** Bounding box of the border of each participant, as of its most recent move */
+    double[] minX, minY, maxX, maxY;
+
+    /** For each slot, the outline to place once the participant has moved, or null if it isn't moving */
+    private Shape[] moving;
+
+    /** Number of slots in use */
+    private int size;
+
+    /** True between beginMove and finishMove */
+    private boolean batching;
+
+    /**
+     * Creates an empty store.
+     */
+    KinematicsStore ()
+    {
+        allocate(64);
+    }
+
+    /**
+     * Resizes all of the arrays to the given capacity, keeping their contents.
+     */
+    private void allocate (int capacity)
+    {
+        x = grow(x, capacity);
+        y = grow(y, capacity);
+        speedX = grow(speedX, capacity);
+        speedY = grow(speedY, capacity);
+        rotation = grow(rotation, capacity);
+        minX = grow(minX, capacity);
+        minY = grow(minY, capacity);
+        maxX = grow(maxX, capacity);
+        maxY = grow(maxY, capacity);
+        moving = (moving == null) ? new Shape[capacity] : Arrays.copyOf(moving, capacity);
+    }
+
+    /**
+     * Returns a copy of the array with the given length, or a new array if it is null.
+     */
+    private static double[] grow (double[] array, int length)
+    {
+        return (array == null) ? new double[length] : Arrays.copyOf(array, length);
+    }
+
+    /**
+     * Returns the number of participants in the store.
+     */
+    int size ()
+    {
+        return size;
+    }
+
+    /**
+     * Adds p to the store, moving its kinematic state into the next slot.
+     */
+    void add (Participant p)
+    {
+        if (size == x.length)
+        {
+            allocate(size * 2);
+        }
+        p.attach(this, size);
+        minX[size] = minY[size] = Double.NaN;
+        maxX[size] = maxY[size] = Double.NaN;
+        size++;
+    }
+
+    /**
+     * Removes p, which is in the given slot, copying its kinematic state back into it. The kinematic state of the last
+     * slot takes its place; the caller must tell the participant in the last slot about its new slot.
+     */
+    void remove (Participant p, int slot)
+    {
+        p.detach();
+        int last = --size;
+        if (slot != last)
+        {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            speedX[slot] = speedX[last];
+            speedY[slot] = speedY[last];
+            rotation[slot] = rotation[last];
+            minX[slot] = minX[last];
+            minY[slot] = minY[last];
+            maxX[slot] = maxX[last];
+            maxY[slot] = maxY[last];
+        }
+    }
+
+    /**
+     * Starts a round of moves. Until finishMove is called, Participant.move only records that the participant is to
+     * move, so that all of the positions can be advanced together.
+     */
+    void beginMove ()
+    {
+        batching = true;
+    }
+
+    /**
+     * Reports whether a round of moves is in progress.
+     */
+    boolean isBatching ()
+    {
+        return batching;
+    }
+
+    /**
+     * Records that the participant in the given slot is moving this round, and the outline it will have.
+     */
+    void deferMove (int slot, Shape outline)
+    {
+        moving[slot] = outline;
+    }
+
+    /**
+     * Finishes a round of moves. Advances the position of every participant that moved by its velocity, then places
+     * each one's border at its new position. The participants are given in slot order.
+     */
+    void finishMove (Participant[] handles)
+    {
+        batching = false;
+        for (int i = 0; i < size; i++)
+        {
+            if (moving[i] != null)
+            {
+                x[i] += speedX[i];
+                y[i] += speedY[i];
+            }
+        }
+        for (int i = 0; i < size; i++)
+        {
+            if (moving[i] != null)
+            {
+                handles[i].place(moving[i]);
+                moving[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Records the bounding box of the border of the participant in the given slot.
+     */
+    void setBounds (int slot, Rectangle2D bounds)
+    {
+        minX[slot] = bounds.getMinX();
+        minY[slot] = bounds.getMinY();
+        maxX[slot] = bounds.getMaxX();
+        maxY[slot] = bounds.getMaxY();
+    }
+}
@@ -0,0 +1,182 @@
+package asteroids.game;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Decides whether two participants overlap. The tests are applied from cheapest to most expensive, and each one can
+ * reject the pair before the next one runs:
+ *
+ * 1. The bounding circles of the participants don't meet.
+ *
+ * 2. The bounding boxes of the participants don't meet.
+ *
+ * 3. No edge of one outline crosses an edge of the other, and no vertex of either outline lies inside the other.
+ *
+ * The last test works directly on the transformed loops of OutlineVertices, which bound the area that each outline
+ * encloses, so concave outlines, outlines made of several subpaths, and parts of outlines that enclose no area are all
+ * handled the way java.awt.geom.Area handles them. It gives the same answer as intersecting Area objects (see
+ * Participant.overlapsByArea) except for pairs that merely touch along an edge or at a vertex, and except for the
+ * zero-width slivers that rounding can leave behind when Area is applied to an already rotated outline.
+ * NarrowPhaseCheck, which is in bench, holds it to that.
+ */
+final class NarrowPhase
+{
+    /**
+     * Not instantiable
+     */
+    private NarrowPhase ()
+    {
+    }
+
+    /**
+     * Reports whether the outlines of a and b, as of their most recent moves, overlap.
+     */
+    static boolean overlaps (Participant a, Participant b)
+    {
+        OutlineVertices va = a.getVertices();
+        OutlineVertices vb = b.getVertices();
+        if (va == null || vb == null || !va.isSolid() || !vb.isSolid())
+        {
+            return false;
+        }
+
+        // Bounding circles
+        double dx = a.getCenterX() - b.getCenterX();
+        double dy = a.getCenterY() - b.getCenterY();
+        double reach = va.getRadius() + vb.getRadius();
+        if (dx * dx + dy * dy > reach * reach)
+        {
+            return false;
+        }
+
+        // Bounding boxes
+        Rectangle2D ba = a.getBounds();
+        Rectangle2D bb = b.getBounds();
+        if (ba.getMaxX() <= bb.getMinX() || bb.getMaxX() <= ba.getMinX() || ba.getMaxY() <= bb.getMinY()
+            || bb.getMaxY() <= ba.getMinY())
+        {
+            return false;
+        }
+
+        // Exact test on the outlines
+        return outlinesOverlap(va, a.getWorldCoords(), vb, b.getWorldCoords());
+    }
+
+    /**
+     * Reports whether two outlines, whose transformed vertices are given, overlap.
+     */
+    static boolean outlinesOverlap (OutlineVertices va, double[] wa, OutlineVertices vb, double[] wb)
+    {
+        return edgesCross(va, wa, vb, wb) || anyVertexInside(va, wa, vb, wb) || anyVertexInside(vb, wb, va, wa);
+    }
+
+    /**
+     * Reports whether some edge of a loop of a properly crosses some edge of a loop of b.
+     */
+    private static boolean edgesCross (OutlineVertices va, double[] wa, OutlineVertices vb, double[] wb)
+    {
+        for (int l = 0; l < va.getLoopCount(); l++)
+        {
+            int first = va.getLoopStart(l), last = va.getLoopEnd(l);
+            for (int i = first, prev = last - 1; i < last; prev = i++)
+            {
+                double x1 = wa[2 * prev], y1 = wa[2 * prev + 1];
+                double x2 = wa[2 * i], y2 = wa[2 * i + 1];
+                if (crossesAnyEdge(x1, y1, x2, y2, vb, wb))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reports whether the segment from (x1,y1) to (x2,y2) properly crosses an edge of a loop of v.
+     */
+    private static boolean crossesAnyEdge (double x1, double y1, double x2, double y2, OutlineVertices v, double[] w)
+    {
+        double minX = Math.min(x1, x2), maxX = Math.max(x1, x2);
+        double minY = Math.min(y1, y2), maxY = Math.max(y1, y2);
+        for (int l = 0; l < v.getLoopCount(); l++)
+        {
+            int first = v.getLoopStart(l), last = v.getLoopEnd(l);
+            for (int i = first, prev = last - 1; i < last; prev = i++)
+            {
+                double x3 = w[2 * prev], y3 = w[2 * prev + 1];
+                double x4 = w[2 * i], y4 = w[2 * i + 1];
+
+                // Cheap rejection for edges that are nowhere near each other
+                if (Math.max(x3, x4) < minX || Math.min(x3, x4) > maxX || Math.max(y3, y4) < minY
+                    || Math.min(y3, y4) > maxY)
+                {
+                    continue;
+                }
+
+                double d1 = orientation(x3, y3, x4, y4, x1, y1);
+                double d2 = orientation(x3, y3, x4, y4, x2, y2);
+                double d3 = orientation(x1, y1, x2, y2, x3, y3);
+                double d4 = orientation(x1, y1, x2, y2, x4, y4);
+                if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0)))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a positive value if (px,py) is to the left of the line through (ax,ay) and (bx,by), a negative value if
+     * it is to the right, and zero if it is on the line.
+     */
+    private static double orientation (double ax, double ay, double bx, double by, double px, double py)
+    {
+        return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+    }
+
+    /**
+     * Reports whether some vertex of a loop of a lies inside b.
+     */
+    private static boolean anyVertexInside (OutlineVertices va, double[] wa, OutlineVertices vb, double[] wb)
+    {
+        for (int i = va.getLoopStart(0); i < va.getVertexCount(); i++)
+        {
+            if (contains(vb, wb, wa[2 * i], wa[2 * i + 1]))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reports whether (px,py) lies inside the area bounded by the loops of v. The loops of a hole wind in the opposite
+     * direction, so a point is inside if its winding number is not zero.
+     */
+    static boolean contains (OutlineVertices v, double[] w, double px, double py)
+    {
+        int winding = 0;
+        for (int l = 0; l < v.getLoopCount(); l++)
+        {
+            int first = v.getLoopStart(l), last = v.getLoopEnd(l);
+            for (int i = first, prev = last - 1; i < last; prev = i++)
+            {
+                double x1 = w[2 * prev], y1 = w[2 * prev + 1];
+                double x2 = w[2 * i], y2 = w[2 * i + 1];
+                if (y1 <= py)
+                {
+                    if (y2 > py && orientation(x1, y1, x2, y2, px, py) > 0)
+                    {
+                        winding++;
+                    }
+                }
+                else if (y2 <= py && orientation(x1, y1, x2, y2, px, py) < 0)
+                {
+                    winding--;
+                }
+            }
+        }
+        return winding != 0;
+    }
+}
@@ -0,0 +1,132 @@
+package asteroids.game;
+
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * An immutable participant outline. It is a Shape like any other, but it can't be changed once made, so a single
+ * Outline can be shared by every participant that looks the same. Its packed vertices (see OutlineVertices) are
+ * extracted when it is made, so sharing it also shares them.
+ */
+public final class Outline implements Shape
+{
+    /** The path, which is never modified or handed out */
+    private final Path2D.Double path;
+
+    /** The vertices of the path */
+    private final OutlineVertices vertices;
+
+    /** No point of the path is farther than this from (0,0) */
+    private final double extent;
+
+    /**
+     * Creates an outline that is a copy of the given shape.
+     */
+    public Outline (Shape shape)
+    {
+        path = new Path2D.Double(shape);
+        vertices = OutlineVertices.extract(path);
+        extent = extentOf(path);
+    }
+
+    /**
+     * Creates an outline that is a copy of the given shape, scaled by the given factor.
+     */
+    public Outline (Shape shape, double scale)
+    {
+        path = new Path2D.Double(shape, AffineTransform.getScaleInstance(scale, scale));
+        vertices = OutlineVertices.extract(path);
+        extent = extentOf(path);
+    }
+
+    /**
+     * Returns a distance from (0,0) that no point of the shape is farther than, however the shape is rotated about
+     * (0,0).
+     */
+    public static double extentOf (Shape shape)
+    {
+        Rectangle2D bounds = shape.getBounds2D();
+        return Math.hypot(Math.max(-bounds.getMinX(), bounds.getMaxX()), Math.max(-bounds.getMinY(), bounds.getMaxY()));
+    }
+
+    /**
+     * Returns the packed vertices of the outline.
+     */
+    public OutlineVertices getVertices ()
+    {
+        return vertices;
+    }
+
+    /**
+     * Returns a distance from (0,0) that no point of the outline is farther than, however it is rotated.
+     */
+    public double getExtent ()
+    {
+        return extent;
+    }
+
+    @Override
+    public Rectangle getBounds ()
+    {
+        return path.getBounds();
+    }
+
+    @Override
+    public Rectangle2D getBounds2D ()
+    {
+        return path.getBounds2D();
+    }
+
+    @Override
+    public boolean contains (double x, double y)
+    {
+        return path.contains(x, y);
+    }
+
+    @Override
+    public boolean contains (Point2D p)
+    {
+        return path.contains(p);
+    }
+
+    @Override
+    public boolean intersects (double x, double y, double w, double h)
+    {
+        return path.intersects(x, y, w, h);
+    }
+
+    @Override
+    public boolean intersects (Rectangle2D r)
+    {
+        return path.intersects(r);
+    }
+
+    @Override
+    public boolean contains (double x, double y, double w, double h)
+    {
+        return path.contains(x, y, w, h);
+    }
+
+    @Override
+    public boolean contains (Rectangle2D r)
+    {
+        return path.contains(r);
+    }
+
+    @Override
+    public PathIterator getPathIterator (AffineTransform at)
+    {
+        return path.getPathIterator(at);
+    }
+
+    @Override
+    public PathIterator getPathIterator (AffineTransform at, double flatness)
+    {
+        return path.getPathIterator(at, flatness);
+    }
+}
@@ -0,0 +1,86 @@
+package asteroids.game;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
+
+/**
+ * Gathers the placed outlines of many participants into a single path, so that they can all be drawn with one call to
+ * Graphics2D.draw. Every participant is drawn with the same stroke and color, so one batch holds them all. The
+ * vertices are transformed straight from the packed OutlineVertices into the path, and the path is reset rather than
+ * replaced between frames, so once it has grown large enough nothing is allocated.
+ *
+ * GameRenderer draws through a batch whatever the SpriteAtlas doesn't: a participant whose sprite isn't made yet when
+ * the frame has already made its share of sprites, which happens whenever many new outlines or rotations appear at
+ * once, or when there are more rotated outlines in play than the atlas can keep. It draws every participant through a
+ * batch when SPRITE_RENDERING is off, and at the QualityGovernor tiers that drop the sprites.
+ */
+final class OutlineBatch
+{
+    /** The outlines added since the batch was last begun */
+    private final Path2D.Double path;
+
+    /** Number of outlines in the path */
+    private int size;
+
+    /**
+     * Creates an empty batch.
+     */
+    OutlineBatch ()
+    {
+        path = new Path2D.Double(Path2D.WIND_NON_ZERO, 1024);
+    }
+
+    /**
+     * Empties the batch.
+     */
+    void begin ()
+    {
+        path.reset();
+        size = 0;
+    }
+
+    /**
+     * Adds the outline, rotated by the angle with the given cosine and sine and then translated to (x, y).
+     */
+    void add (Shape outline, double cos, double sin, double x, double y)
+    {
+        OutlineVertices vertices = OutlineVertices.of(outline);
+        double[] coords = vertices.getCoords();
+        for (int s = 0; s < vertices.getSubpathCount(); s++)
+        {
+            int first = vertices.getSubpathStart(s);
+            path.moveTo(x + coords[2 * first] * cos - coords[2 * first + 1] * sin,
+                    y + coords[2 * first] * sin + coords[2 * first + 1] * cos);
+            for (int i = first + 1; i < vertices.getSubpathEnd(s); i++)
+            {
+                path.lineTo(x + coords[2 * i] * cos - coords[2 * i + 1] * sin,
+                        y + coords[2 * i] * sin + coords[2 * i + 1] * cos);
+            }
+            if (vertices.isClosed(s))
+            {
+                path.closePath();
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Returns the number of outlines in the batch.
+     */
+    int size ()
+    {
+        return size;
+    }
+
+    /**
+     * Draws every outline in the batch.
+     */
+    void draw (Graphics2D g)
+    {
+        if (size > 0)
+        {
+            g.draw(path);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package asteroids.game;
+
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The vertices of a participant outline packed into a flat array, so that they can be transformed and tested for
+ * collisions without going through the Shape interface. Two sets of vertices are kept:
+ *
+ * The subpaths are the polygons and polylines exactly as they appear in the outline. They are what gets drawn.
+ *
+ * The loops are the boundary of the area that the outline encloses, as computed once by java.awt.geom.Area. They are
+ * what gets tested for collisions. Parts of the outline that enclose no area (like the line segments of ship debris or
+ * the zero-width spikes at the back of the ship) have no loops, and overlapping subpaths are merged.
+ *
+ * Objects of this class are immutable and are shared by every participant that uses the same outline. The vertices of
+ * an Outline are extracted when it is made; those of other shapes are extracted the first time they are asked for.
+ */
+public final class OutlineVertices
+{
+    /** Curves are approximated by line segments that stray no further than this from the curve */
+    private final static double FLATNESS = 0.25;
+
+    /** Angle between successive rotation steps */
+    private final static double ROTATION_STEP = 2 * Math.PI / Constants.ROTATION_STEPS;
+
+    /** How far a rotation can be from a step, in radians, and still count as being on it */
+    private final static double STEP_TOLERANCE = 1e-12;
+
+    /** Vertices that have already been extracted, keyed by outline */
+    private final static Map<Shape, OutlineVertices> CACHE = Collections
+            .synchronizedMap(new WeakHashMap<Shape, OutlineVertices>());
+
+    /** The x and y coordinates of every vertex (subpaths first, then loops), interleaved */
+    private final double[] coords;
+
+    /** Index of the first vertex of each subpath, followed by one past the last vertex of the last subpath */
+    private final int[] subpathStarts;
+
+    /** Whether each subpath was explicitly closed */
+    private final boolean[] closed;
+
+    /** Index of the first vertex of each loop, followed by the total number of vertices */
+    private final int[] loopStarts;
+
+    /** Distance from (0,0) to the farthest vertex of a loop */
+    private final double radius;
+
+    /** For each rotation step, the coords rotated by that step; null until first needed */
+    private volatile double[][] rotations;
+
+    /**
+     * Returns the vertices of the outline. An Outline carries its own vertices; for any other shape the result is
+     * cached, so the shape must never be modified afterwards.
+     */
+    public static OutlineVertices of (Shape outline)
+    {
+        if (outline instanceof Outline)
+        {
+            return ((Outline) outline).getVertices();
+        }
+        OutlineVertices vertices = CACHE.get(outline);
+        if (vertices == null)
+        {
+            vertices = new OutlineVertices(outline);
+            CACHE.put(outline, vertices);
+        }
+        return vertices;
+    }
+
+    /**
+     * Extracts the vertices from the outline, without consulting or updating the cache.
+     */
+    static OutlineVertices extract (Shape outline)
+    {
+        return new OutlineVertices(outline);
+    }
+
+    /**
+     * Extracts the vertices from the outline.
+     */
+    private OutlineVertices (Shape outline)
+    {
+        Builder subpaths = new Builder(0);
+        subpaths.read(outline.getPathIterator(null, FLATNESS));
+        Builder loops = new Builder(subpaths.count);
+        loops.read(new Area(outline).getPathIterator(null, FLATNESS));
+
+        coords = new double[2 * loops.count];
+        System.arraycopy(subpaths.xy, 0, coords, 0, 2 * subpaths.count);
+        System.arraycopy(loops.xy, 2 * subpaths.count, coords, 2 * subpaths.count,
+                2 * (loops.count - subpaths.count));
+        subpathStarts = Arrays.copyOf(subpaths.starts, subpaths.subpaths + 1);
+        closed = Arrays.copyOf(subpaths.closed, subpaths.subpaths);
+        loopStarts = Arrays.copyOf(loops.starts, loops.subpaths + 1);
+
+        double farthest = 0;
+        for (int v = subpaths.count; v < loops.count; v++)
+        {
+            farthest = Math.max(farthest, Math.hypot(coords[2 * v], coords[2 * v + 1]));
+        }
+        radius = farthest;
+    }
+
+    /**
+     * Accumulates the vertices of a path, split into subpaths.
+     */
+    private static class Builder
+    {
+        /** Vertices, interleaved */
+        double[] xy = new double[64];
+
+        /** Index of the first vertex of each subpath; the entry after the last subpath is the vertex count */
+        int[] starts = new int[4];
+
+        /** Whether each subpath was closed */
+        boolean[] closed = new boolean[4];
+
+        /** Number of vertices */
+        int count;
+
+        /** Number of subpaths */
+        int subpaths;
+
+        /**
+         * Creates a builder whose first vertex will have the given index.
+         */
+        Builder (int first)
+        {
+            count = first;
+            xy = new double[Math.max(64, 4 * first)];
+        }
+
+        /**
+         * Reads every vertex of a flattened path.
+         */
+        void read (PathIterator iter)
+        {
+            double[] seg = new double[6];
+            double moveX = 0, moveY = 0;
+            boolean open = false;
+            for (; !iter.isDone(); iter.next())
+            {
+                int type = iter.currentSegment(seg);
+                if (type == PathIterator.SEG_CLOSE)
+                {
+                    if (open)
+                    {
+                        closed[subpaths - 1] = true;
+                        open = false;
+                    }
+                    continue;
+                }
+
+                // A line that doesn't follow a move starts a new subpath at the last move
+                if (type == PathIterator.SEG_MOVETO || !open)
+                {
+                    if (subpaths + 1 >= starts.length)
+                    {
+                        starts = Arrays.copyOf(starts, starts.length * 2);
+                        closed = Arrays.copyOf(closed, closed.length * 2);
+                    }
+                    starts[subpaths++] = count;
+                    open = true;
+                    if (type == PathIterator.SEG_MOVETO)
+                    {
+                        moveX = seg[0];
+                        moveY = seg[1];
+                    }
+                    else
+                    {
+                        add(moveX, moveY);
+                    }
+                }
+                add(seg[0], seg[1]);
+            }
+            starts[subpaths] = count;
+        }
+
+        /**
+         * Adds a vertex.
+         */
+        private void add (double x, double y)
+        {
+            if (2 * count + 2 > xy.length)
+            {
+                xy = Arrays.copyOf(xy, xy.length * 2);
+            }
+            xy[2 * count] = x;
+            xy[2 * count + 1] = y;
+            count++;
+        }
+    }
+
+    /**
+     * If the rotation (in radians, between 0 and 2 Pi) is one of the rotation steps, returns the number of the step.
+     * Otherwise returns -1.
+     */
+    static int rotationStep (double rotation)
+    {
+        long step = Math.round(rotation / ROTATION_STEP);
+        if (Math.abs(rotation - step * ROTATION_STEP) > STEP_TOLERANCE)
+        {
+            return -1;
+        }
+        return (int) (step % Constants.ROTATION_STEPS);
+    }
+
+    /**
+     * Returns the rotation, in radians, of the given step.
+     */
+    static double stepAngle (int step)
+    {
+        return step * ROTATION_STEP;
+    }
+
+    /**
+     * Returns the coordinates of every vertex (laid out as in getCoords) rotated by the given rotation step. The
+     * rotated coordinates for all of the steps are computed together the first time any of them is needed. The array
+     * must not be modified.
+     */
+    double[] getRotatedCoords (int step)
+    {
+        double[][] table = rotations;
+        if (table == null)
+        {
+            table = new double[Constants.ROTATION_STEPS][];
+            for (int s = 0; s < table.length; s++)
+            {
+                table[s] = rotate(stepAngle(s));
+            }
+            rotations = table;
+        }
+        return table[step];
+    }
+
+    /**
+     * Returns the coordinates of every vertex rotated about (0,0) by the angle. Quarter turns are exact, as they are
+     * with AffineTransform.getRotateInstance.
+     */
+    private double[] rotate (double angle)
+    {
+        double sin = Math.sin(angle);
+        double cos = Math.cos(angle);
+        if (sin == 1.0 || sin == -1.0)
+        {
+            cos = 0.0;
+        }
+        else if (cos == 1.0 || cos == -1.0)
+        {
+            sin = 0.0;
+        }
+        double[] rotated = new double[coords.length];
+        for (int i = 0; i < coords.length; i += 2)
+        {
+            rotated[i] = coords[i] * cos + coords[i + 1] * -sin;
+            rotated[i + 1] = coords[i] * sin + coords[i + 1] * cos;
+        }
+        return rotated;
+    }
+
+    /**
+     * Returns the x and y coordinates of every vertex, interleaved. The array must not be modified.
+     */
+    double[] getCoords ()
+    {
+        return coords;
+    }
+
+    /**
+     * Returns the total number of vertices in the subpaths and the loops.
+     */
+    public int getVertexCount ()
+    {
+        return coords.length / 2;
+    }
+
+    /**
+     * Returns the number of vertices in the subpaths. The vertices of the loops follow them.
+     */
+    public int getSubpathVertexCount ()
+    {
+        return loopStarts[0];
+    }
+
+    /**
+     * Returns the number of subpaths in the outline.
+     */
+    public int getSubpathCount ()
+    {
+        return closed.length;
+    }
+
+    /**
+     * Returns the index of the first vertex of subpath s.
+     */
+    public int getSubpathStart (int s)
+    {
+        return subpathStarts[s];
+    }
+
+    /**
+     * Returns one past the index of the last vertex of subpath s.
+     */
+    public int getSubpathEnd (int s)
+    {
+        return subpathStarts[s + 1];
+    }
+
+    /**
+     * Reports whether subpath s was explicitly closed.
+     */
+    public boolean isClosed (int s)
+    {
+        return closed[s];
+    }
+
+    /**
+     * Returns the number of loops that bound the area enclosed by the outline.
+     */
+    public int getLoopCount ()
+    {
+        return loopStarts.length - 1;
+    }
+
+    /**
+     * Returns the index of the first vertex of loop l.
+     */
+    public int getLoopStart (int l)
+    {
+        return loopStarts[l];
+    }
+
+    /**
+     * Returns one past the index of the last vertex of loop l.
+     */
+    public int getLoopEnd (int l)
+    {
+        return loopStarts[l + 1];
+    }
+
+    /**
+     * Reports whether the outline encloses a non-empty area. An outline that doesn't can't collide with anything.
+     */
+    public boolean isSolid ()
+    {
+        return loopStarts.length > 1;
+    }
+
+    /**
+     * Returns the distance from the center to the farthest point of the enclosed area.
+     */
+    public double getRadius ()
+    {
+        return radius;
+    }
+}
@@ -27,12 +27,89 @@ public abstract class Participant
     /** Current y-coordinate of the Participant's center */
     private double y;
 
-    /** Border of the Participant that is used for drawing */
-    private Shape border;
+    /**
+     * If this Participant belongs to a packed ParticipantState, the store that holds its speed, rotation and position
+     * in place of the fields above. Otherwise null.
+     */
+    private KinematicsStore store;
+
+    /** This Participant's slot in the store */
+    private int slot;
+
+    /** True if the border has been placed (by a move) since the Participant was constructed or reset */
+    private boolean placed;
+
+    /**
+     * The world matrix that places the border: the outline is rotated by the angle whose cosine and sine are given,
+     * then translated to (placeX, placeY)
+     */
+    private double placeCos, placeSin, placeX, placeY;
+
+    /** The translation of the world matrix as of the move before the most recent one, used to interpolate drawing */
+    private double previousX, previousY;
+
+    /** The rotation whose cosine and sine were most recently computed, and those values */
+    private double trigRotation, trigCos, trigSin;
+
+    /** The outline vertices and rotation used by the most recent move */
+    private OutlineVertices rotatedVertices;
+    private double rotatedRotation;
+
+    /**
+     * The outline vertices rotated (but not translated) as of the most recent move, or null if the world matrix is
+     * applied to them directly. This is a shared table if the rotation is one of the rotation steps, or ownRotated if
+     * the rotation is the same as on the move before.
+     */
+    private double[] rotatedCoords;
+
+    /** Holds the rotated vertices for a rotation that isn't a step but isn't changing either */
+    private double[] ownRotated;
+
+    /** Bounding box of the border, as of the most recent move */
+    private Rectangle2D.Double bounds;
+
+    /** The outline that was used to create the border */
+    private Shape outline;
+
+    /** Vertices of the outline that was used to create the border */
+    private OutlineVertices vertices;
+
+    /**
+     * Vertices of the border (the transformed outline), interleaved x and y. The vertices of the subpaths are updated
+     * by every move; those of the loops only when they are needed.
+     */
+    private double[] worldCoords;
+
+    /** True if the vertices of the loops in worldCoords are up to date with the border */
+    private boolean worldCoordsCurrent;
+
+    /** Border of the Participant that is used for drawing, rebuilt from worldCoords when needed */
+    private Path2D.Double border;
+
+    /** True if border is up to date */
+    private boolean borderCurrent;
 
     /** True if the Participant is expired */
     private boolean expired;
 
+    /** The kind of participant this is, as far as collisions are concerned (see InteractionTable) */
+    private final int interactionType;
+
+    /** The ParticipantState this participant has been added to, or null */
+    private ParticipantState owner;
+
+    /** The owner's record of the participants of this class, or null */
+    private ParticipantRegistry.Kind kind;
+
+    /** Position of this participant among the active participants of its class */
+    private int kindSlot;
+
+    /** Number of times this participant has been reset for reuse */
+    private int generation;
+
+    /** Countdowns that will start when this participant is added to a ParticipantState, in the order started */
+    private ParticipantCountdownTimer pendingCountdowns;
+
     /**
      * Constructs an active Participant with no velocity, rotation, or border.
      */
@@ -43,8 +120,53 @@ public abstract class Participant
         rotation = 0;
         x = 0;
         y = 0;
+        store = null;
+        placed = false;
+        trigRotation = 0;
+        trigCos = 1;
+        trigSin = 0;
+        bounds = new Rectangle2D.Double();
+        outline = null;
+        vertices = null;
+        worldCoords = new double[0];
+        worldCoordsCurrent = false;
         border = null;
+        borderCurrent = false;
         expired = false;
+        interactionType = InteractionTable.indexOf(getClass());
+    }
+
+    /**
+     * Returns this participant to the state it had when it was constructed, with no velocity, rotation, or border, so
+     * that it can be reused. Its outline is kept. Countdowns that were started before the reset will not call back.
+     * Throws an IllegalStateException if the participant still belongs to a ParticipantState.
+     */
+    void reset ()
+    {
+        if (owner != null)
+        {
+            throw new IllegalStateException("Participant is still in use");
+        }
+        speedX = 0;
+        speedY = 0;
+        rotation = 0;
+        x = 0;
+        y = 0;
+        placed = false;
+        rotatedVertices = null;
+        rotatedCoords = null;
+        worldCoordsCurrent = false;
+        borderCurrent = false;
+        expired = false;
+        generation++;
+    }
+
+    /**
+     * Returns the number of times this participant has been reset for reuse.
+     */
+    int getGeneration ()
+    {
+        return generation;
     }
 
     /**
@@ -63,7 +185,14 @@ public abstract class Participant
      */
     private void setExpired ()
     {
-        expired = true;
+        if (!expired)
+        {
+            expired = true;
+            if (owner != null)
+            {
+                owner.participantExpired(this);
+            }
+        }
     }
 
     /**
@@ -80,8 +209,7 @@ public abstract class Participant
     public void setVelocity (double speed, double direction)
     {
         direction = normalize(direction);
-        speedX = Math.cos(direction) * speed;
-        speedY = Math.sin(direction) * speed;
+        setVelocityComponents(Math.cos(direction) * speed, Math.sin(direction) * speed);
     }
 
     /**
@@ -91,8 +219,7 @@ public abstract class Participant
     {
         direction = normalize(direction);
         double speed = getSpeed();
-        speedX = Math.cos(direction) * speed;
-        speedY = Math.sin(direction) * speed;
+        setVelocityComponents(Math.cos(direction) * speed, Math.sin(direction) * speed);
     }
 
     /**
@@ -101,8 +228,7 @@ public abstract class Participant
     public void setSpeed (double speed)
     {
         double direction = getDirection();
-        speedX = Math.cos(direction) * speed;
-        speedY = Math.sin(direction) * speed;
+        setVelocityComponents(Math.cos(direction) * speed, Math.sin(direction) * speed);
     }
 
     /**
@@ -110,7 +236,7 @@ public abstract class Participant
      */
     public double getDirection ()
     {
-        return normalize(Math.atan2(speedY, speedX));
+        return normalize(Math.atan2(getVelocityY(), getVelocityX()));
     }
 
     /**
@@ -118,15 +244,57 @@ public abstract class Participant
      */
     public double getSpeed ()
     {
+        double speedX = getVelocityX();
+        double speedY = getVelocityY();
         return Math.sqrt(speedX * speedX + speedY * speedY);
     }
 
+    /**
+     * Returns the horizontal component of the velocity, in pixels per frame
+     */
+    private double getVelocityX ()
+    {
+        return (store == null) ? speedX : store.speedX[slot];
+    }
+
+    /**
+     * Returns the vertical component of the velocity, in pixels per frame
+     */
+    private double getVelocityY ()
+    {
+        return (store == null) ? speedY : store.speedY[slot];
+    }
+
+    /**
+     * Sets the horizontal and vertical components of the velocity, in pixels per frame
+     */
+    private void setVelocityComponents (double speedX, double speedY)
+    {
+        if (store == null)
+        {
+            this.speedX = speedX;
+            this.speedY = speedY;
+        }
+        else
+        {
+            store.speedX[slot] = speedX;
+            store.speedY[slot] = speedY;
+        }
+    }
+
     /**
      * Sets the rotation (in radians) of this Participant
      */
     public void setRotation (double radians)
     {
-        rotation = normalize(radians);
+        if (store == null)
+        {
+            rotation = normalize(radians);
+        }
+        else
+        {
+            store.rotation[slot] = normalize(radians);
+        }
     }
 
     /**
@@ -134,7 +302,25 @@ public abstract class Participant
      */
     public void rotate (double delta)
     {
-        rotation = normalize(rotation + delta);
+        setRotation(getRotation() + delta);
+    }
+
+    /**
+     * Rotates this Participant by the given number of rotation steps (see Constants.ROTATION_STEPS). If it is already
+     * rotated by a whole number of steps, it stays exactly on a step, so that already rotated outlines can be used to
+     * place it and rounding errors don't build up.
+     */
+    public void rotateBySteps (int steps)
+    {
+        int step = OutlineVertices.rotationStep(getRotation());
+        if (step < 0)
+        {
+            rotate(OutlineVertices.stepAngle(steps));
+        }
+        else
+        {
+            setRotation(OutlineVertices.stepAngle(Math.floorMod(step + steps, ROTATION_STEPS)));
+        }
     }
 
     /**
@@ -142,7 +328,7 @@ public abstract class Participant
      */
     public double getRotation ()
     {
-        return rotation;
+        return (store == null) ? rotation : store.rotation[slot];
     }
 
     /**
@@ -168,15 +354,14 @@ public abstract class Participant
     public void accelerate (double delta)
     {
         // Compute new speeds
-        speedX += delta * Math.cos(rotation);
-        speedY += delta * Math.sin(rotation);
+        double rotation = getRotation();
+        setVelocityComponents(getVelocityX() + delta * Math.cos(rotation), getVelocityY() + delta * Math.sin(rotation));
 
         // Enforce the speed limit
         if (getSpeed() > SPEED_LIMIT)
         {
             double direction = getDirection();
-            speedX = SPEED_LIMIT * Math.cos(direction);
-            speedY = SPEED_LIMIT * Math.sin(direction);
+            setVelocityComponents(SPEED_LIMIT * Math.cos(direction), SPEED_LIMIT * Math.sin(direction));
         }
     }
 
@@ -185,6 +370,8 @@ public abstract class Participant
      */
     public void applyFriction (double coefficientOfFriction)
     {
+        double speedX = getVelocityX();
+        double speedY = getVelocityY();
         if (speedX != 0 || speedY != 0)
         {
             double speed = getSpeed();
@@ -192,6 +379,7 @@ public abstract class Participant
             double deltaY = coefficientOfFriction * speedY / speed;
             speedX = (Math.abs(deltaX) > Math.abs(speedX)) ? 0 : (speedX + deltaX);
             speedY = (Math.abs(deltaY) > Math.abs(speedY)) ? 0 : (speedY + deltaY);
+            setVelocityComponents(speedX, speedY);
         }
     }
 
@@ -200,8 +388,16 @@ public abstract class Participant
      */
     public void setPosition (double x, double y)
     {
-        this.x = x;
-        this.y = y;
+        if (store == null)
+        {
+            this.x = x;
+            this.y = y;
+        }
+        else
+        {
+            store.x[slot] = x;
+            store.y[slot] = y;
+        }
     }
 
     /**
@@ -209,7 +405,7 @@ public abstract class Participant
      */
     public double getX ()
     {
-        return x;
+        return (store == null) ? x : store.x[slot];
     }
 
     /**
@@ -217,7 +413,43 @@ public abstract class Participant
      */
     public double getY ()
     {
-        return y;
+        return (store == null) ? y : store.y[slot];
+    }
+
+    /**
+     * Moves this participant's speed, rotation and position into the given slot of a store. Until it is detached, the
+     * store holds that state.
+     */
+    void attach (KinematicsStore store, int slot)
+    {
+        store.x[slot] = x;
+        store.y[slot] = y;
+        store.speedX[slot] = speedX;
+        store.speedY[slot] = speedY;
+        store.rotation[slot] = rotation;
+        this.store = store;
+        this.slot = slot;
+    }
+
+    /**
+     * Moves this participant's speed, rotation and position out of its store and back into this object.
+     */
+    void detach ()
+    {
+        x = store.x[slot];
+        y = store.y[slot];
+        speedX = store.speedX[slot];
+        speedY = store.speedY[slot];
+        rotation = store.rotation[slot];
+        store = null;
+    }
+
+    /**
+     * Records that the store has moved this participant to a different slot.
+     */
+    void setSlot (int slot)
+    {
+        this.slot = slot;
     }
 
     /**
@@ -235,7 +467,7 @@ public abstract class Participant
     /**
      * This method is called when a {@link asteroids.game.ParticipantCountdownTimer} that was constructed for this
      * Participant completes its countdown, so long as this Participant is not expired. The method should take
-     * appropriate action.
+     * appropriate action. It is called from ParticipantState.moveParticipants, after collisions have been handled.
      */
     public void countdownComplete (Object payload)
     {
@@ -249,18 +481,81 @@ public abstract class Participant
         // Get the original outline
         Shape original = getOutline();
 
+        // If this participant's store is moving everyone at once, it will take care of the rest
+        if (store != null && store.isBatching())
+        {
+            store.deferMove(slot, original);
+            return;
+        }
+
         // Change the position to reflect participant motion
-        x += speedX;
-        y += speedY;
+        setPosition(getX() + getVelocityX(), getY() + getVelocityY());
+        place(original);
+    }
+
+    /**
+     * Places the border, which is the original outline translated to the current position and rotated by the current
+     * rotation. If the border has gone sufficiently far out of bounds, moves the participant to the other side of the
+     * screen, which will be reflected in the border the next time it is placed.
+     *
+     * Nothing is allocated unless the outline has more vertices than any this participant has used before. The vertices
+     * of the subpaths are transformed into worldCoords, and the bounding box is computed from them. If the rotation is
+     * one of the rotation steps, or is the same as on the previous move, the vertices are already rotated and only need
+     * to be translated.
+     */
+    void place (Shape original)
+    {
+        double x = getX();
+        double y = getY();
 
         // Translate and rotate the original to reflect the accumulated motion
-        AffineTransform trans = AffineTransform.getTranslateInstance(x, y);
-        trans.concatenate(AffineTransform.getRotateInstance(rotation));
-        border = trans.createTransformedShape(original);
+        if (original != outline)
+        {
+            outline = original;
+            vertices = OutlineVertices.of(original);
+            if (worldCoords.length < 2 * vertices.getVertexCount())
+            {
+                worldCoords = new double[2 * vertices.getVertexCount()];
+            }
+        }
+        double rotation = getRotation();
+        updateTrig(rotation);
+        previousX = placed ? placeX : x;
+        previousY = placed ? placeY : y;
+        placeCos = trigCos;
+        placeSin = trigSin;
+        placeX = x;
+        placeY = y;
+        placed = true;
+        if (rotatedCoords == null || vertices != rotatedVertices || rotation != rotatedRotation)
+        {
+            rotatedCoords = findRotatedCoords(rotation, vertices == rotatedVertices && rotation == rotatedRotation);
+            rotatedVertices = vertices;
+            rotatedRotation = rotation;
+        }
+        int count = vertices.getSubpathVertexCount();
+        transformVertices(0, count);
+        worldCoordsCurrent = false;
+        borderCurrent = false;
+
+        // Find the bounding box of the border
+        double minX = 0, minY = 0, maxX = 0, maxY = 0;
+        if (count > 0)
+        {
+            minX = maxX = worldCoords[0];
+            minY = maxY = worldCoords[1];
+            for (int i = 2; i < 2 * count; i += 2)
+            {
+                minX = Math.min(minX, worldCoords[i]);
+                maxX = Math.max(maxX, worldCoords[i]);
+                minY = Math.min(minY, worldCoords[i + 1]);
+                maxY = Math.max(maxY, worldCoords[i + 1]);
+            }
+        }
+        bounds.setRect(minX, minY, maxX - minX, maxY - minY);
 
         // If the element has gone sufficiently far out of bounds, move it to
         // the other side of the screen. This change will take effect next time.
-        Rectangle2D bounds = border.getBounds2D();
         if (bounds.getMaxX() < 0)
         {
             x += SIZE + (bounds.getMaxX() - bounds.getMinX());
@@ -277,6 +572,93 @@ public abstract class Participant
         {
             y += -SIZE - (bounds.getMaxY() - bounds.getMinY());
         }
+        setPosition(x, y);
+        if (store != null)
+        {
+            store.setBounds(slot, bounds);
+        }
+    }
+
+    /**
+     * Makes trigCos and trigSin the cosine and sine of the rotation, computing them only if the rotation has changed.
+     * Like AffineTransform.getRotateInstance, quarter turns give exact zeros and ones.
+     */
+    private void updateTrig (double rotation)
+    {
+        if (rotation != trigRotation)
+        {
+            double sin = Math.sin(rotation);
+            double cos = Math.cos(rotation);
+            if (sin == 1.0 || sin == -1.0)
+            {
+                cos = 0.0;
+            }
+            else if (cos == 1.0 || cos == -1.0)
+            {
+                sin = 0.0;
+            }
+            trigRotation = rotation;
+            trigCos = cos;
+            trigSin = sin;
+        }
+    }
+
+    /**
+     * Returns the outline vertices rotated by the rotation, or null if they should be transformed directly. If the
+     * rotation is a step, the shared table for that step is used. Otherwise, if the rotation was also used on the
+     * previous move (steady), the vertices are rotated once into ownRotated so that later moves can reuse them.
+     */
+    private double[] findRotatedCoords (double rotation, boolean steady)
+    {
+        int step = OutlineVertices.rotationStep(rotation);
+        if (step >= 0)
+        {
+            return vertices.getRotatedCoords(step);
+        }
+        if (!steady)
+        {
+            return null;
+        }
+
+        double[] coords = vertices.getCoords();
+        if (ownRotated == null || ownRotated.length < coords.length)
+        {
+            ownRotated = new double[coords.length];
+        }
+        double cos = placeCos, negSin = -placeSin, sin = placeSin;
+        for (int i = 0; i < coords.length; i += 2)
+        {
+            ownRotated[i] = coords[i] * cos + coords[i + 1] * negSin;
+            ownRotated[i + 1] = coords[i] * sin + coords[i + 1] * cos;
+        }
+        return ownRotated;
+    }
+
+    /**
+     * Transforms the outline vertices with indices from first up to (but not including) last into worldCoords, using
+     * the world matrix of the most recent move.
+     */
+    private void transformVertices (int first, int last)
+    {
+        if (rotatedCoords != null)
+        {
+            for (int i = 2 * first; i < 2 * last; i += 2)
+            {
+                worldCoords[i] = rotatedCoords[i] + placeX;
+                worldCoords[i + 1] = rotatedCoords[i + 1] + placeY;
+            }
+            return;
+        }
+
+        double[] coords = vertices.getCoords();
+        double cos = placeCos, negSin = -placeSin, sin = placeSin;
+        for (int i = 2 * first; i < 2 * last; i += 2)
+        {
+            double cx = coords[i];
+            double cy = coords[i + 1];
+            worldCoords[i] = cx * cos + cy * negSin + placeX;
+            worldCoords[i + 1] = cx * sin + cy * cos + placeY;
+        }
     }
 
     /**
@@ -286,9 +668,176 @@ public abstract class Participant
      */
     public void transformPoint (Point2D.Double point)
     {
-        AffineTransform trans = AffineTransform.getTranslateInstance(x, y);
-        trans.concatenate(AffineTransform.getRotateInstance(rotation));
-        trans.transform(point, point);
+        updateTrig(getRotation());
+        double px = point.x;
+        double py = point.y;
+        point.x = px * trigCos + py * -trigSin + getX();
+        point.y = px * trigSin + py * trigCos + getY();
+    }
+
+    /**
+     * Returns the bounding box of this participant's border as of its most recent move, or null if it has never moved.
+     * The box is used by the collision broad phase and must not be modified.
+     */
+    Rectangle2D getBounds ()
+    {
+        return placed ? bounds : null;
+    }
+
+    /**
+     * Returns the ParticipantState this participant has been added to (and not yet removed from), or null.
+     */
+    ParticipantState getOwner ()
+    {
+        return owner;
+    }
+
+    /**
+     * Records the ParticipantState this participant has been added to, or null if it has been removed.
+     */
+    void setOwner (ParticipantState owner)
+    {
+        this.owner = owner;
+    }
+
+    /**
+     * Returns the owner's record of the participants of this class, or null.
+     */
+    ParticipantRegistry.Kind getKind ()
+    {
+        return kind;
+    }
+
+    /**
+     * Records the owner's record of the participants of this class.
+     */
+    void setKind (ParticipantRegistry.Kind kind)
+    {
+        this.kind = kind;
+    }
+
+    /**
+     * Returns the position of this participant among the active participants of its class.
+     */
+    int getKindSlot ()
+    {
+        return kindSlot;
+    }
+
+    /**
+     * Records the position of this participant among the active participants of its class.
+     */
+    void setKindSlot (int kindSlot)
+    {
+        this.kindSlot = kindSlot;
+    }
+
+    /**
+     * Starts the countdown. If this participant belongs to a ParticipantState, the countdown is scheduled there right
+     * away; otherwise it waits until this participant is added to one.
+     */
+    void startCountdown (ParticipantCountdownTimer t)
+    {
+        if (owner != null)
+        {
+            owner.scheduleCountdown(t);
+            return;
+        }
+        t.pending = true;
+        t.nextPending = null;
+        if (pendingCountdowns == null)
+        {
+            pendingCountdowns = t;
+        }
+        else
+        {
+            ParticipantCountdownTimer last = pendingCountdowns;
+            while (last.nextPending != null)
+            {
+                last = last.nextPending;
+            }
+            last.nextPending = t;
+        }
+    }
+
+    /**
+     * Removes a countdown that is waiting for this participant to be added.
+     */
+    void removePendingCountdown (ParticipantCountdownTimer t)
+    {
+        if (pendingCountdowns == t)
+        {
+            pendingCountdowns = t.nextPending;
+        }
+        else
+        {
+            ParticipantCountdownTimer prev = pendingCountdowns;
+            while (prev.nextPending != t)
+            {
+                prev = prev.nextPending;
+            }
+            prev.nextPending = t.nextPending;
+        }
+        t.nextPending = null;
+        t.pending = false;
+    }
+
+    /**
+     * Returns the first of the countdowns that were waiting for this participant to be added, which are linked through
+     * nextPending, and forgets them.
+     */
+    ParticipantCountdownTimer takePendingCountdowns ()
+    {
+        ParticipantCountdownTimer first = pendingCountdowns;
+        pendingCountdowns = null;
+        return first;
+    }
+
+    /**
+     * Returns the kind of participant this is, as far as collisions are concerned (see InteractionTable).
+     */
+    int getInteractionType ()
+    {
+        return interactionType;
+    }
+
+    /**
+     * Returns the vertices of the outline that was used to create the border, or null if this participant has never
+     * moved.
+     */
+    OutlineVertices getVertices ()
+    {
+        return placed ? vertices : null;
+    }
+
+    /**
+     * Returns the vertices of the border (the outline as transformed by the most recent move), with x and y
+     * coordinates interleaved. The array is reused and must not be modified.
+     */
+    double[] getWorldCoords ()
+    {
+        if (!worldCoordsCurrent)
+        {
+            transformVertices(vertices.getSubpathVertexCount(), vertices.getVertexCount());
+            worldCoordsCurrent = true;
+        }
+        return worldCoords;
+    }
+
+    /**
+     * Returns the x-coordinate of the center of the border, as of the most recent move.
+     */
+    double getCenterX ()
+    {
+        return placeX;
+    }
+
+    /**
+     * Returns the y-coordinate of the center of the border, as of the most recent move.
+     */
+    double getCenterY ()
+    {
+        return placeY;
     }
 
     /**
@@ -296,22 +845,81 @@ public abstract class Participant
      */
     public boolean overlaps (Participant p)
     {
-        Area a = new Area(border);
-        a.intersect(new Area(p.border));
-        return !a.isEmpty();
+        return NarrowPhase.overlaps(this, p);
+    }
+
+    /**
+     * Reports whether this participant overlaps with p by intersecting the areas enclosed by their borders. This is
+     * much slower than overlaps, and is kept as a reference to check it against.
+     */
+    public boolean overlapsByArea (Participant p)
+    {
+        return !intersectionByArea(p).isEmpty();
+    }
+
+    /**
+     * Returns the intersection of the areas enclosed by the borders of this participant and p.
+     */
+    Area intersectionByArea (Participant p)
+    {
+        Area a = new Area(getBorder());
+        a.intersect(new Area(p.getBorder()));
+        return a;
+    }
+
+    /**
+     * Returns the border as of the most recent move, or the untransformed outline if this participant has never moved.
+     * The border is rebuilt from the transformed vertices of the subpaths, reusing the same path each time, and must
+     * not be modified.
+     */
+    private Shape getBorder ()
+    {
+        if (!placed)
+        {
+            return getOutline();
+        }
+        if (!borderCurrent)
+        {
+            if (border == null)
+            {
+                border = new Path2D.Double(Path2D.WIND_NON_ZERO, 2 * vertices.getVertexCount());
+            }
+            border.reset();
+            for (int s = 0; s < vertices.getSubpathCount(); s++)
+            {
+                int first = vertices.getSubpathStart(s);
+                border.moveTo(worldCoords[2 * first], worldCoords[2 * first + 1]);
+                for (int i = first + 1; i < vertices.getSubpathEnd(s); i++)
+                {
+                    border.lineTo(worldCoords[2 * i], worldCoords[2 * i + 1]);
+                }
+                if (vertices.isClosed(s))
+                {
+                    border.closePath();
+                }
+            }
+            borderCurrent = true;
+        }
+        return border;
     }
 
     /**
-     * Draws this participant
+     * Draws this participant, with whatever rendering hints the graphics have already been given
      */
     public void draw (Graphics2D g)
     {
-        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY); 
-        if (border == null)
+        g.draw(getBorder());
+    }
+
+    /**
+     * Adds this participant, as the most recent move placed it, to the snapshot. A participant that has never moved
+     * isn't drawn.
+     */
+    void capture (RenderSnapshot snapshot)
+    {
+        if (placed)
         {
-            border = getOutline();
+            snapshot.add(outline, placeCos, placeSin, placeX, placeY, previousX, previousY);
         }
-        g.draw(border);
     }
 }
@@ -1,23 +1,46 @@
 package asteroids.game;
 
-import javax.swing.*;
-import java.awt.event.*;
-
 /**
  * Provides objects that wait for a certain amount of time to pass before making a callback to a Participant's
  * countdownComplete method.
+ *
+ * Time is counted in simulation ticks by the timing wheel of the ParticipantState that the participant belongs to, and
+ * the callback is made from ParticipantState.moveParticipants. The delay is given in milliseconds and rounded up to a
+ * whole number of ticks. A countdown for a participant that hasn't been added to a ParticipantState yet starts when the
+ * participant is added.
  */
-public class ParticipantCountdownTimer implements ActionListener
+public class ParticipantCountdownTimer
 {
     /** Payload that is passed to the countdownComplete method when it is called */
     private Object payload;
 
-    /** Internal timer */
-    private Timer timer;
-
     /** Participant to be notified when time expires */
     private Participant participant;
 
+    /** Generation of the participant when the countdown started; a participant that has since been reused is skipped */
+    private int generation;
+
+    /** Length of the countdown in milliseconds */
+    private int msecs;
+
+    /** The wheel this countdown is scheduled in, or null */
+    TimingWheel wheel;
+
+    /** Tick of the wheel on which this countdown is due */
+    long deadline;
+
+    /** Neighbors in the list of countdowns of the same slot of the wheel */
+    ParticipantCountdownTimer prev, next;
+
+    /** True while this countdown has been taken out of the wheel to be fired */
+    boolean firing;
+
+    /** True while this countdown is waiting for its participant to be added to a ParticipantState */
+    boolean pending;
+
+    /** Next countdown waiting for the same participant to be added */
+    ParticipantCountdownTimer nextPending;
+
     /**
      * Constructs an object that waits for the given number of milliseconds to pass before invoking the
      * countdownComplete method on p, passing null as its parameter. The call is not made if p has expired.
@@ -35,18 +58,53 @@ public class ParticipantCountdownTimer implements ActionListener
     {
         this.participant = p;
         this.payload = payload;
-        timer = new Timer(msecs, this);
-        timer.start();
+        generation = p.getGeneration();
+        this.msecs = msecs;
+        p.startCountdown(this);
+    }
+
+    /**
+     * Starts the countdown over, waiting for the given number of milliseconds from now. This lets a participant that
+     * has been reused keep its timer instead of constructing a new one.
+     */
+    public void restart (int msecs)
+    {
+        cancel();
+        generation = participant.getGeneration();
+        this.msecs = msecs;
+        participant.startCountdown(this);
+    }
+
+    /**
+     * Stops the countdown without making the callback. Does nothing if the countdown has already completed.
+     */
+    public void cancel ()
+    {
+        if (wheel != null)
+        {
+            wheel.cancel(this);
+        }
+        else if (pending)
+        {
+            participant.removePendingCountdown(this);
+        }
+        firing = false;
+    }
+
+    /**
+     * Returns the length of the countdown in milliseconds.
+     */
+    int getMillis ()
+    {
+        return msecs;
     }
 
     /**
-     * When the interval has passed, stops the timer and makes the callback, as long as the participant has not expired.
+     * When the countdown completes, makes the callback, as long as the participant has not expired or been reused.
      */
-    @Override
-    public void actionPerformed (ActionEvent e)
+    void fire ()
     {
-        timer.stop();
-        if (!participant.isExpired())
+        if (!participant.isExpired() && participant.getGeneration() == generation)
         {
             participant.countdownComplete(payload);
         }
@@ -0,0 +1,57 @@
+package asteroids.game;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Steps through the participants in a ParticipantState without allocating anything. Each ParticipantState has a
+ * single cursor that is rewound and handed out every time its participants are requested, so only one pass over them
+ * can be in progress at a time, and the participants must not be moved while a pass is in progress.
+ */
+public final class ParticipantCursor implements Iterator<Participant>
+{
+    /** The participants being stepped through */
+    private final ParticipantList list;
+
+    /** Index of the next participant */
+    private int next;
+
+    /**
+     * Creates a cursor over the list.
+     */
+    ParticipantCursor (ParticipantList list)
+    {
+        this.list = list;
+    }
+
+    /**
+     * Moves the cursor back to the first participant and returns it.
+     */
+    ParticipantCursor rewind ()
+    {
+        next = 0;
+        return this;
+    }
+
+    /**
+     * Reports whether there are more participants.
+     */
+    @Override
+    public boolean hasNext ()
+    {
+        return next < list.size();
+    }
+
+    /**
+     * Returns the next participant.
+     */
+    @Override
+    public Participant next ()
+    {
+        if (next >= list.size())
+        {
+            throw new NoSuchElementException();
+        }
+        return list.get(next++);
+    }
+}
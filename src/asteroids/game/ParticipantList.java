@@ -0,0 +1,109 @@
+package asteroids.game;
+
+import java.util.Arrays;
+
+/**
+ * An array-backed list of participants. Adding appends to the end. Removing moves the last participant into the hole,
+ * so it takes constant time and never allocates, at the price of changing the order of the remaining participants. The
+ * order is nonetheless completely determined by the sequence of adds and removes.
+ *
+ * A list can optionally own a KinematicsStore, in which case each participant's slot in the store is kept equal to its
+ * index in the list.
+ */
+final class ParticipantList
+{
+    /** The participants; only the first size entries are in use */
+    private Participant[] items;
+
+    /** Number of participants in the list */
+    private int size;
+
+    /** Store that holds the kinematic state of the participants, or null */
+    private final KinematicsStore store;
+
+    /**
+     * Creates an empty list. If store is not null, participants are moved into it as they are added.
+     */
+    ParticipantList (KinematicsStore store)
+    {
+        this.store = store;
+        items = new Participant[64];
+    }
+
+    /**
+     * Returns the store that holds the kinematic state of the participants, or null if there is none.
+     */
+    KinematicsStore getStore ()
+    {
+        return store;
+    }
+
+    /**
+     * Returns the number of participants.
+     */
+    int size ()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the participant at the given index.
+     */
+    Participant get (int index)
+    {
+        return items[index];
+    }
+
+    /**
+     * Returns the array that backs the list. Only the first size() entries are in use. The array must not be modified.
+     */
+    Participant[] array ()
+    {
+        return items;
+    }
+
+    /**
+     * Appends p to the end of the list.
+     */
+    void add (Participant p)
+    {
+        if (size == items.length)
+        {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = p;
+        if (store != null)
+        {
+            store.add(p);
+        }
+    }
+
+    /**
+     * Removes the participant at the given index, moving the last participant into its place.
+     */
+    void remove (int index)
+    {
+        if (store != null)
+        {
+            store.remove(items[index], index);
+        }
+        int last = --size;
+        items[index] = items[last];
+        items[last] = null;
+        if (store != null && index != last)
+        {
+            items[index].setSlot(index);
+        }
+    }
+
+    /**
+     * Removes every participant.
+     */
+    void clear ()
+    {
+        while (size > 0)
+        {
+            remove(size - 1);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package asteroids.game;
+
+/**
+ * Holds expired participants of one class so that they can be reused instead of allocating new ones. A pool is
+ * registered with a ParticipantState (see ParticipantState.setPool); when a participant of the pool's class is removed
+ * from the state, it is reset and put in the pool, unless the pool is already full. Code that creates participants of
+ * the class asks the pool first and only constructs a new participant if the pool is empty.
+ *
+ * The pool keeps track of how often it could and couldn't supply a participant, so that it can be confirmed that a
+ * game in its steady state isn't allocating participants at all.
+ */
+public final class ParticipantPool<T extends Participant>
+{
+    /** The class of participant held in the pool */
+    private final Class<T> type;
+
+    /** The participants waiting to be reused; only the first idle entries are in use */
+    private final Participant[] items;
+
+    /** Number of participants waiting to be reused */
+    private int idle;
+
+    /** Number of times acquire returned a participant */
+    private long hits;
+
+    /** Number of times acquire found the pool empty */
+    private long misses;
+
+    /** Number of participants that were dropped because the pool was full */
+    private long discards;
+
+    /**
+     * Creates an empty pool for participants of the given class that holds at most capacity of them.
+     */
+    public ParticipantPool (Class<T> type, int capacity)
+    {
+        if (capacity < 0)
+        {
+            throw new IllegalArgumentException("Invalid pool capacity: " + capacity);
+        }
+        this.type = type;
+        items = new Participant[capacity];
+    }
+
+    /**
+     * Returns the class of participant held in the pool.
+     */
+    public Class<T> getType ()
+    {
+        return type;
+    }
+
+    /**
+     * Removes and returns a participant from the pool, or returns null if the pool is empty. The participant that is
+     * returned has been reset, and must be reinitialized by its class before it is added to the game.
+     */
+    public T acquire ()
+    {
+        if (idle == 0)
+        {
+            misses++;
+            return null;
+        }
+        hits++;
+        Participant p = items[--idle];
+        items[idle] = null;
+        return type.cast(p);
+    }
+
+    /**
+     * Resets p, which has been removed from its ParticipantState, and puts it in the pool if there is room.
+     */
+    void release (Participant p)
+    {
+        p.reset();
+        if (idle < items.length)
+        {
+            items[idle++] = p;
+        }
+        else
+        {
+            discards++;
+        }
+    }
+
+    /**
+     * Returns the largest number of participants the pool will hold.
+     */
+    public int getCapacity ()
+    {
+        return items.length;
+    }
+
+    /**
+     * Returns the number of participants waiting in the pool.
+     */
+    public int getIdle ()
+    {
+        return idle;
+    }
+
+    /**
+     * Returns the number of times acquire has returned a participant.
+     */
+    public long getHits ()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns the number of times acquire has found the pool empty.
+     */
+    public long getMisses ()
+    {
+        return misses;
+    }
+
+    /**
+     * Returns the number of participants that were dropped because the pool was full.
+     */
+    public long getDiscards ()
+    {
+        return discards;
+    }
+
+    /**
+     * Returns the fraction of calls to acquire that returned a participant, or 0 if there have been none.
+     */
+    public double getHitRate ()
+    {
+        long total = hits + misses;
+        return (total == 0) ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Sets the hit, miss and discard counts back to zero.
+     */
+    public void resetStatistics ()
+    {
+        hits = 0;
+        misses = 0;
+        discards = 0;
+    }
+
+    /**
+     * Describes the pool and its statistics.
+     */
+    @Override
+    public String toString ()
+    {
+        return String.format("%s pool: %d/%d idle, %d hits, %d misses, %d discards", type.getSimpleName(), idle,
+                items.length, hits, misses, discards);
+    }
+}
@@ -0,0 +1,236 @@
+package asteroids.game;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of the participants in a ParticipantState by class. For each class of participant, it maintains the
+ * number of live participants (those that have been added, whether or not they have become active, and have not
+ * expired) and a list of the active ones. Both are updated as participants are added, expire and are removed, so
+ * counting participants of a given kind and visiting them doesn't require a pass over all of the participants.
+ *
+ * Queries can name any class or interface. The answer combines every class of participant that is registered and is
+ * a subclass or implementation of it, just as instanceof would.
+ *
+ * A ParticipantPool can be associated with a class, in which case participants of exactly that class are handed to
+ * the pool once they have been removed.
+ */
+final class ParticipantRegistry
+{
+    /**
+     * The participants of a single (exact) class.
+     */
+    static final class Kind
+    {
+        /** The class */
+        final Class<?> type;
+
+        /** Number of live participants of the class */
+        int live;
+
+        /** The active participants of the class; only the first size entries are in use */
+        Participant[] members;
+
+        /** Number of active participants of the class */
+        int size;
+
+        /** Pool that removed participants of the class go back to, or null */
+        ParticipantPool<?> pool;
+
+        /**
+         * Creates an empty record for the class.
+         */
+        Kind (Class<?> type)
+        {
+            this.type = type;
+            members = new Participant[16];
+        }
+    }
+
+    /** The record for each class of participant that has been added */
+    private final IdentityHashMap<Class<?>, Kind> kinds;
+
+    /** For each class that has been queried, the records of the classes that are assignable to it */
+    private final IdentityHashMap<Class<?>, Kind[]> views;
+
+    /** The pool for each class that has one */
+    private final IdentityHashMap<Class<?>, ParticipantPool<?>> pools;
+
+    /**
+     * Creates an empty registry.
+     */
+    ParticipantRegistry ()
+    {
+        kinds = new IdentityHashMap<Class<?>, Kind>();
+        views = new IdentityHashMap<Class<?>, Kind[]>();
+        pools = new IdentityHashMap<Class<?>, ParticipantPool<?>>();
+    }
+
+    /**
+     * Associates the pool with the class of participant it holds, replacing any earlier pool for the class. If pool is
+     * null, removed participants of the class are no longer pooled.
+     */
+    void setPool (Class<?> type, ParticipantPool<?> pool)
+    {
+        if (pool == null)
+        {
+            pools.remove(type);
+        }
+        else
+        {
+            pools.put(type, pool);
+        }
+        Kind kind = kinds.get(type);
+        if (kind != null)
+        {
+            kind.pool = pool;
+        }
+    }
+
+    /**
+     * Returns the pool associated with the class of participant, or null.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends Participant> ParticipantPool<T> getPool (Class<T> type)
+    {
+        return (ParticipantPool<T>) pools.get(type);
+    }
+
+    /**
+     * Records that p has been added. If it hasn't expired, it counts as live from now on.
+     */
+    void added (Participant p)
+    {
+        Kind kind = kinds.get(p.getClass());
+        if (kind == null)
+        {
+            kind = new Kind(p.getClass());
+            kind.pool = pools.get(p.getClass());
+            kinds.put(p.getClass(), kind);
+
+            // Every view may now be missing the new class
+            views.clear();
+        }
+        p.setKind(kind);
+        if (!p.isExpired())
+        {
+            kind.live++;
+        }
+    }
+
+    /**
+     * Records that p, which had been added, has just expired.
+     */
+    void expired (Participant p)
+    {
+        p.getKind().live--;
+    }
+
+    /**
+     * Records that p has become active.
+     */
+    void activated (Participant p)
+    {
+        Kind kind = p.getKind();
+        if (kind.size == kind.members.length)
+        {
+            kind.members = Arrays.copyOf(kind.members, kind.size * 2);
+        }
+        p.setKindSlot(kind.size);
+        kind.members[kind.size++] = p;
+    }
+
+    /**
+     * Records that p, which was active, has been removed. The last active participant of the same class takes its
+     * place. Returns the pool that p should go back to, or null.
+     */
+    ParticipantPool<?> removed (Participant p)
+    {
+        Kind kind = p.getKind();
+        int slot = p.getKindSlot();
+        int last = --kind.size;
+        kind.members[slot] = kind.members[last];
+        kind.members[slot].setKindSlot(slot);
+        kind.members[last] = null;
+        p.setKind(null);
+        return kind.pool;
+    }
+
+    /**
+     * Forgets every participant, while keeping the classes that have been seen and their pools. Active participants
+     * that have pools go back to them; they must already have been expired and detached from the state.
+     */
+    void clear ()
+    {
+        for (Kind kind : kinds.values())
+        {
+            for (int i = 0; i < kind.size; i++)
+            {
+                kind.members[i].setKind(null);
+                if (kind.pool != null)
+                {
+                    kind.pool.release(kind.members[i]);
+                }
+            }
+            Arrays.fill(kind.members, 0, kind.size, null);
+            kind.size = 0;
+            kind.live = 0;
+        }
+    }
+
+    /**
+     * Returns the number of live participants that are instances of the given class or interface.
+     */
+    int count (Class<?> type)
+    {
+        int count = 0;
+        for (Kind kind : view(type))
+        {
+            count += kind.live;
+        }
+        return count;
+    }
+
+    /**
+     * Performs the action on each active, unexpired participant that is an instance of the given class or interface.
+     */
+    <T> void forEach (Class<T> type, Consumer<? super T> action)
+    {
+        for (Kind kind : view(type))
+        {
+            // Participants are not removed until the end of a move, so the members can't change underfoot
+            for (int i = 0; i < kind.size; i++)
+            {
+                Participant p = kind.members[i];
+                if (!p.isExpired())
+                {
+                    action.accept(type.cast(p));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the records of the registered classes that are assignable to the given class or interface.
+     */
+    private Kind[] view (Class<?> type)
+    {
+        Kind[] view = views.get(type);
+        if (view == null)
+        {
+            int n = 0;
+            Kind[] matches = new Kind[kinds.size()];
+            for (Kind kind : kinds.values())
+            {
+                if (type.isAssignableFrom(kind.type))
+                {
+                    matches[n++] = kind;
+                }
+            }
+            view = Arrays.copyOf(matches, n);
+            views.put(type, view);
+        }
+        return view;
+    }
+}
@@ -1,9 +1,8 @@
 package asteroids.game;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Set;
+import static asteroids.game.Constants.*;
+import java.awt.geom.Rectangle2D;
+import java.util.function.Consumer;
 import asteroids.participants.Asteroid;
 import asteroids.participants.Bullet;
 import asteroids.participants.Missles;
@@ -13,20 +12,85 @@ import asteroids.participants.Missles;
  */
 public class ParticipantState
 {
+    /** Number of slots in the timing wheel; countdowns up to this many ticks long never wait for another turn */
+    private final static int COUNTDOWN_SLOTS = 512;
+
     /** The participants (asteroids, ships, etc.) that are involved in the game */
-    private LinkedList<Participant> participants;
+    private ParticipantList participants;
+
+    /** Participants that are waiting to be added to the game, in the order they were added */
+    private ParticipantList pendingAdds;
+
+    /** Used to step through the participants */
+    private ParticipantCursor cursor;
+
+    /** Counts and lists of the participants by class */
+    private ParticipantRegistry registry;
+
+    /** Counts down the ParticipantCountdownTimers of the participants, in ticks */
+    private TimingWheel countdowns;
 
-    /** Participants that are waiting to be added to the game */
-    private Set<Participant> pendingAdds;
+    /** Length of a tick in milliseconds, used to convert the lengths of countdowns to ticks */
+    private int tickMillis;
+
+    /** True if collisions are found with the spatial hash, false if every pair is compared */
+    private boolean spatialHashing;
+
+    /** Broad phase used to find candidate pairs for collision checking */
+    private SpatialHash grid;
 
     /**
      * Creates an empty ParticipantState.
      */
     public ParticipantState ()
+    {
+        this(false);
+    }
+
+    /**
+     * Creates an empty ParticipantState. If packed is true, the positions, velocities, rotations and bounding boxes of
+     * the participants are kept in parallel arrays (see KinematicsStore) instead of in the Participant objects, which
+     * makes passes over large numbers of participants faster.
+     */
+    public ParticipantState (boolean packed)
     {
         // No participants at the start
-        participants = new LinkedList<Participant>();
-        pendingAdds = new HashSet<Participant>();
+        participants = new ParticipantList(packed ? new KinematicsStore() : null);
+        pendingAdds = new ParticipantList(null);
+        cursor = new ParticipantCursor(participants);
+        registry = new ParticipantRegistry();
+        countdowns = new TimingWheel(COUNTDOWN_SLOTS);
+        tickMillis = FRAME_INTERVAL;
+
+        // Use the spatial hash unless told otherwise
+        spatialHashing = true;
+        grid = new SpatialHash(SIZE, COLLISION_CELL_SIZE);
+    }
+
+    /**
+     * Chooses how collisions are found. If enabled, only participants that are near each other are compared. If
+     * disabled, every pair of participants is compared. The two approaches report exactly the same collisions in the
+     * same order, which CollisionOrderCheck (in bench) checks.
+     */
+    public void setSpatialHashing (boolean enabled)
+    {
+        spatialHashing = enabled;
+    }
+
+    /**
+     * Reports whether collisions are being found with the spatial hash.
+     */
+    public boolean isSpatialHashing ()
+    {
+        return spatialHashing;
+    }
+
+    /**
+     * Reports whether the motion of the participants is kept in parallel arrays.
+     */
+    public boolean isPacked ()
+    {
+        return participants.getStore() != null;
     }
 
     /**
@@ -34,97 +98,140 @@ public class ParticipantState
      */
     public void clear ()
     {
+        for (int i = 0; i < pendingAdds.size(); i++)
+        {
+            Participant p = pendingAdds.get(i);
+            p.setOwner(null);
+            p.setKind(null);
+        }
         pendingAdds.clear();
-        for (Participant p : participants)
+        for (int i = 0; i < participants.size(); i++)
         {
+            Participant p = participants.get(i);
             Participant.expire(p);
+            p.setOwner(null);
         }
         participants.clear();
+        registry.clear();
+        countdowns.clear();
     }
 
     /**
-     * Adds a new Participant
+     * Makes removed participants of exactly the pool's class go back to the pool so they can be reused. Replaces any
+     * pool that was set for the class before.
      */
-    public void addParticipant (Participant p)
+    public <T extends Participant> void setPool (ParticipantPool<T> pool)
     {
-        pendingAdds.add(p);
+        registry.setPool(pool.getType(), pool);
     }
 
     /**
-     * Returns an iterator over the active participants
+     * Returns the pool that removed participants of the given class go back to, or null if there isn't one.
      */
-    public Iterator<Participant> getParticipants ()
+    public <T extends Participant> ParticipantPool<T> getPool (Class<T> type)
     {
-        return participants.iterator();
+        return registry.getPool(type);
     }
 
     /**
-     * Returns the number of asteroids that are active participants
+     * Adds a new Participant. Adding a participant that has already been added does nothing.
      */
-    public int countAsteroids ()
+    public void addParticipant (Participant p)
     {
-        int count = 0;
-        for (Participant p : participants)
+        if (p.getOwner() != this)
         {
-            if (p instanceof Asteroid && !p.isExpired())
-            {
-                count++;
-            }
-        }
-        for (Participant p : pendingAdds)
-        {
-            if (p instanceof Asteroid && !p.isExpired())
+            p.setOwner(this);
+            registry.added(p);
+            pendingAdds.add(p);
+
+            // Start the countdowns that were waiting for the participant to be added
+            ParticipantCountdownTimer t = p.takePendingCountdowns();
+            while (t != null)
             {
-                count++;
+                ParticipantCountdownTimer next = t.nextPending;
+                t.nextPending = null;
+                t.pending = false;
+                scheduleCountdown(t);
+                t = next;
             }
         }
-        return count;
     }
-    
+
+    /**
+     * Schedules the countdown, which belongs to a participant of this state, in the timing wheel.
+     */
+    void scheduleCountdown (ParticipantCountdownTimer t)
+    {
+        countdowns.schedule(t, (t.getMillis() + tickMillis - 1) / tickMillis);
+    }
+
+    /**
+     * Returns the number of ticks (calls to moveParticipants) that have gone by.
+     */
+    public long getTick ()
+    {
+        return countdowns.getTick();
+    }
+
+    /**
+     * Called by p, which has been added to this state, when it expires.
+     */
+    void participantExpired (Participant p)
+    {
+        registry.expired(p);
+    }
+
+    /**
+     * Returns a cursor over the active participants. The same cursor is reused by every call, so only one pass over
+     * the participants can be in progress at a time.
+     */
+    public ParticipantCursor getParticipants ()
+    {
+        return cursor.rewind();
+    }
+
+    /**
+     * Returns the number of asteroids that are active participants
+     */
+    public int countAsteroids ()
+    {
+        return count(Asteroid.class);
+    }
+
     /**
      * Returns the number of bullets that are active participants
      */
     public int countBullets ()
     {
-        int count = 0;
-        for (Participant p : participants)
-        {
-            if (p instanceof Bullet && !p.isExpired())
-            {
-                count++;
-            }
-        }
-        for (Participant p : pendingAdds)
-        {
-            if (p instanceof Bullet && !p.isExpired())
-            {
-                count++;
-            }
-        }
-        return count;
+        return count(Bullet.class);
     }
-    
+
     /**
      * Returns the number of missles that are active participants
      */
     public int countMissles ()
     {
-        int count = 0;
-        for (Participant p : participants)
-        {
-            if (p instanceof Missles && !p.isExpired())
-            {
-                count++;
-            }
-        }
-        for (Participant p : pendingAdds)
-        {
-            if (p instanceof Missles && !p.isExpired())
-            {
-                count++;
-            }
-        }
-        return count;
+        return count(Missles.class);
+    }
+
+    /**
+     * Returns the number of participants of the given class (or subclass, or implementation of the given interface)
+     * that are active or waiting to be added and haven't expired. The count is kept up to date as participants are
+     * added, expire and are removed, so this doesn't look at the participants.
+     */
+    public int count (Class<?> type)
+    {
+        return registry.count(type);
+    }
+
+    /**
+     * Performs the action on each active participant of the given class (or subclass, or implementation of the given
+     * interface) that hasn't expired. Participants that are waiting to be added are not included. Nothing is allocated,
+     * so this is suitable for use on every frame as long as the action itself doesn't allocate.
+     */
+    public <T> void forEach (Class<T> type, Consumer<? super T> action)
+    {
+        registry.forEach(type, action);
     }
 
     /**
@@ -132,20 +239,34 @@ public class ParticipantState
      */
     public void moveParticipants ()
     {
-        // Move all of the active participants
-        for (Participant p : participants)
+        // Move all of the active participants. If they are packed, each participant steers itself, then the store
+        // advances and places everyone at once.
+        KinematicsStore store = participants.getStore();
+        if (store != null)
         {
+            store.beginMove();
+        }
+        for (int i = 0; i < participants.size(); i++)
+        {
+            Participant p = participants.get(i);
             if (!p.isExpired())
             {
                 p.move();
             }
         }
+        if (store != null)
+        {
+            store.finishMove(participants.array());
+        }
 
         // If there have been any collisions, deal with them. This may result
         // in new participants being added or old ones expiring. We save those
         // changes until after all of the collisions have been processed.
         checkForCollisions();
 
+        // Complete the countdowns that are due. This too may add or expire participants.
+        countdowns.advance();
+
         // Deal with pending adds and expirations
         completeAddsAndRemoves();
     }
@@ -157,40 +278,127 @@ public class ParticipantState
     {
         // Note: These updates are saved up and done later to avoid modifying
         // the participants list while it is being iterated over
-        for (Participant p : pendingAdds)
+        for (int i = 0; i < pendingAdds.size(); i++)
         {
+            Participant p = pendingAdds.get(i);
             participants.add(p);
+            registry.activated(p);
         }
         pendingAdds.clear();
 
-        Iterator<Participant> iter = participants.iterator();
-        while (iter.hasNext())
+        // Removing a participant moves the last one into its place, so look at the same place again
+        for (int i = 0; i < participants.size();)
         {
-            Participant p = iter.next();
+            Participant p = participants.get(i);
             if (p.isExpired())
             {
-                iter.remove();
+                participants.remove(i);
+                ParticipantPool<?> pool = registry.removed(p);
+                p.setOwner(null);
+                if (pool != null)
+                {
+                    pool.release(p);
+                }
+            }
+            else
+            {
+                i++;
             }
         }
     }
 
     /**
-     * Compares each pair of elements to detect collisions, then notifies all listeners of any found. Deals with each
-     * pair only once. Never deals with (p1,p2) and then again with (p2,p1).
+     * Detects collisions, then notifies all listeners of any found. Deals with each pair only once. Never deals with
+     * (p1,p2) and then again with (p2,p1).
      */
     private void checkForCollisions ()
     {
-        for (Participant p1 : participants)
+        if (spatialHashing)
         {
+            checkNearbyCollisions();
+        }
+        else
+        {
+            checkAllCollisions();
+        }
+    }
+
+    /**
+     * Uses the spatial hash to find pairs of participants whose bounding boxes share a cell, and checks only those
+     * pairs for collisions. Pairs are visited in the same order as checkAllCollisions visits them, so the sequence of
+     * notifications is identical.
+     */
+    private void checkNearbyCollisions ()
+    {
+        // Bucket the active participants
+        Participant[] list = participants.array();
+        int count = participants.size();
+        KinematicsStore store = participants.getStore();
+        grid.clear(count);
+        for (int i = 0; i < count; i++)
+        {
+            Participant p = list[i];
+            if (p.isExpired() || !InteractionTable.collides(p.getInteractionType()))
+            {
+                continue;
+            }
+            if (store != null)
+            {
+                // A participant that hasn't moved yet has no bounding box
+                if (store.minX[i] <= store.maxX[i])
+                {
+                    grid.insert(i, store.minX[i], store.minY[i], store.maxX[i], store.maxY[i]);
+                }
+            }
+            else
+            {
+                Rectangle2D bounds = p.getBounds();
+                if (bounds != null)
+                {
+                    grid.insert(i, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+                }
+            }
+        }
+
+        // Pair each participant with the later participants that are near it, latest first
+        for (int i = 0; i < count; i++)
+        {
+            Participant p1 = list[i];
             if (!p1.isExpired())
             {
-                Iterator<Participant> iter = participants.descendingIterator();
-                while (iter.hasNext())
+                int candidates = grid.findCandidates(i);
+                for (int k = 0; k < candidates; k++)
                 {
-                    Participant p2 = iter.next();
-                    if (p1 == p2)
+                    Participant p2 = list[grid.getCandidate(k)];
+                    if (!p2.isExpired() && interacts(p1, p2) && p1.overlaps(p2))
+                    {
+                        p1.collidedWith(p2);
+                        p2.collidedWith(p1);
+                    }
+                    if (p1.isExpired())
                         break;
-                    if (!p2.isExpired() && p1.overlaps(p2))
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares each pair of elements to detect collisions, then notifies all listeners of any found. Each element is
+     * paired with the later elements in the list, latest first.
+     */
+    private void checkAllCollisions ()
+    {
+        Participant[] list = participants.array();
+        int count = participants.size();
+        for (int i = 0; i < count; i++)
+        {
+            Participant p1 = list[i];
+            if (!p1.isExpired() && InteractionTable.collides(p1.getInteractionType()))
+            {
+                for (int j = count - 1; j > i; j--)
+                {
+                    Participant p2 = list[j];
+                    if (!p2.isExpired() && interacts(p1, p2) && p1.overlaps(p2))
                     {
                         p1.collidedWith(p2);
                         p2.collidedWith(p1);
@@ -201,4 +409,12 @@ public class ParticipantState
             }
         }
     }
+
+    /**
+     * Reports whether p1 and p2 could do anything if they collided. Pairs that couldn't are not tested for overlap.
+     */
+    private static boolean interacts (Participant p1, Participant p2)
+    {
+        return InteractionTable.interacts(p1.getInteractionType(), p2.getInteractionType());
+    }
 }
@@ -0,0 +1,162 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps painting within its time budget by trading away quality. It is told how long each frame took to paint, and
+ * after QUALITY_DOWNGRADE_FRAMES frames in a row go over PAINT_BUDGET it steps down to the next tier of quality. It
+ * steps back up only after QUALITY_UPGRADE_FRAMES frames in a row have taken no more than QUALITY_HEADROOM of the
+ * budget, so that it doesn't flip back and forth between two tiers. It also keeps track of how much time has been spent
+ * in each tier.
+ *
+ * Only the thread that paints tells the governor about frames, but any thread may read the tier, the time spent in each
+ * tier, and the number of changes, as the statistics do on the event dispatch thread.
+ */
+public final class QualityGovernor
+{
+    /**
+     * The tiers of quality, from best to fastest.
+     */
+    public enum Tier
+    {
+        /** Anti-aliased, with the rendering hints set for quality */
+        FULL,
+
+        /** Not anti-aliased, with the rendering hints set for speed */
+        NO_ANTIALIASING,
+
+        /** Not anti-aliased, with the outlines drawn rather than sprites */
+        OUTLINES,
+
+        /** Not anti-aliased, with the outlines drawn at half resolution and scaled up */
+        LOW_RESOLUTION
+    }
+
+    /** All of the tiers, in order */
+    private final static Tier[] TIERS = Tier.values();
+
+    /** The current tier */
+    private volatile Tier tier;
+
+    /** Number of frames in a row that have gone over the budget, or have been well within it */
+    private int slowFrames, fastFrames;
+
+    /** Nanoseconds spent in each tier */
+    private final AtomicLongArray tierNanos;
+
+    /** Number of times the tier has changed, which only the painting thread writes */
+    private volatile int changes;
+
+    /**
+     * Creates a governor that starts out at full quality.
+     */
+    QualityGovernor ()
+    {
+        tier = Tier.FULL;
+        tierNanos = new AtomicLongArray(TIERS.length);
+    }
+
+    /**
+     * Records a frame that took the given number of nanoseconds to paint and that was shown for the given number of
+     * nanoseconds, and changes the tier if it is time. Returns true if the tier changed.
+     */
+    boolean frameFinished (long paintNanos, long frameNanos)
+    {
+        tierNanos.addAndGet(tier.ordinal(), frameNanos);
+        long budget = PAINT_BUDGET * 1_000_000L;
+        if (paintNanos > budget)
+        {
+            slowFrames++;
+            fastFrames = 0;
+        }
+        else if (paintNanos <= budget * QUALITY_HEADROOM)
+        {
+            fastFrames++;
+            slowFrames = 0;
+        }
+        else
+        {
+            slowFrames = fastFrames = 0;
+        }
+
+        if (slowFrames >= QUALITY_DOWNGRADE_FRAMES && tier.ordinal() < TIERS.length - 1)
+        {
+            return setTier(TIERS[tier.ordinal() + 1]);
+        }
+        if (fastFrames >= QUALITY_UPGRADE_FRAMES && tier.ordinal() > 0)
+        {
+            return setTier(TIERS[tier.ordinal() - 1]);
+        }
+        return false;
+    }
+
+    /**
+     * Changes to the given tier.
+     */
+    private boolean setTier (Tier tier)
+    {
+        this.tier = tier;
+        slowFrames = fastFrames = 0;
+        changes++;
+        return true;
+    }
+
+    /**
+     * Returns the current tier.
+     */
+    public Tier getTier ()
+    {
+        return tier;
+    }
+
+    /**
+     * Returns the number of milliseconds spent in the given tier.
+     */
+    public long getMillisIn (Tier tier)
+    {
+        return tierNanos.get(tier.ordinal()) / 1_000_000L;
+    }
+
+    /**
+     * Returns whether the current tier is anti-aliased.
+     */
+    boolean isAntialiased ()
+    {
+        return tier == Tier.FULL;
+    }
+
+    /**
+     * Sets the rendering hints of the graphics for the current tier. These affect the outlines and text that are
+     * drawn, but not the sprites, which are copied as they were rasterized; GameRenderer chooses the sprites to match.
+     */
+    void applyHints (Graphics2D g)
+    {
+        boolean antialiased = isAntialiased();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                antialiased ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING,
+                antialiased ? RenderingHints.VALUE_RENDER_QUALITY : RenderingHints.VALUE_RENDER_SPEED);
+    }
+
+    /**
+     * Reports the current tier and the time spent in each.
+     */
+    @Override
+    public String toString ()
+    {
+        StringBuilder s = new StringBuilder();
+        s.append(tier).append(" (");
+        for (Tier t : TIERS)
+        {
+            if (t.ordinal() > 0)
+            {
+                s.append(", ");
+            }
+            s.append(t).append(' ').append(getMillisIn(t)).append(" ms");
+        }
+        return s.append("; ").append(changes).append(" changes)").toString();
+    }
+}
@@ -0,0 +1,28 @@
+package asteroids.game;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares which other participants a Participant class does something about in its collidedWith method. Each entry
+ * is either a Participant class or one of the marker interfaces from {@link asteroids.destroyers}, and the class reacts
+ * to every participant that is an instance of at least one of them. A class that reacts to nothing declares an empty
+ * list.
+ *
+ * A class without this annotation is assumed to react to everything. The declarations are used to skip the collision
+ * test for pairs of participants that would ignore each other (see {@link InteractionTable}), so they must cover every
+ * case that collidedWith handles.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ReactsTo
+{
+    /**
+     * The classes and marker interfaces of the participants that are reacted to
+     */
+    Class<?>[] value();
+}
@@ -0,0 +1,18 @@
+package asteroids.game;
+
+/**
+ * Receives the state of the game at the end of every step of a SimulationEngine, typically to hand it over to whatever
+ * draws the screen.
+ */
+public interface RenderSink
+{
+    /** A sink that ignores every step, for running without a screen */
+    RenderSink NONE = engine ->
+    {
+    };
+
+    /**
+     * Called at the end of every step. The engine's state may be read until this returns, but not after.
+     */
+    void stepFinished (SimulationEngine engine);
+}
@@ -0,0 +1,220 @@
+package asteroids.game;
+
+import java.awt.Shape;
+import java.util.Arrays;
+
+/**
+ * What the screen needs to draw one tick of the game: where each participant's outline is placed, and the values shown
+ * in the heads-up display. The simulation fills in a snapshot at the end of a tick and then hands it over (see
+ * SnapshotExchange); from then on nobody changes it until the screen is done with it and hands it back, so the screen
+ * can draw it without looking at any live game state.
+ *
+ * The outlines are shared, never copied, so they must not change; the ones in the Outlines catalog can't.
+ */
+public final class RenderSnapshot
+{
+    /** Number of values kept for each participant: cosine and sine of the rotation, position, previous position */
+    private final static int STRIDE = 6;
+
+    /** The outline of each participant */
+    private Shape[] outlines;
+
+    /** The placement of each participant, STRIDE values apiece */
+    private double[] placements;
+
+    /** Number of participants */
+    private int size;
+
+    /** The tick the snapshot was taken at */
+    private long tick;
+
+    /** When the snapshot was taken, from System.nanoTime */
+    private long time;
+
+    /** Length of a tick in nanoseconds, when the snapshot was taken */
+    private long tickNanos;
+
+    /** The heads-up display */
+    private int points, level, lives;
+
+    /** Whether a game is being played, so that the heads-up display should be shown */
+    private boolean gameActive;
+
+    /** The legend across the middle of the screen */
+    private String legend;
+
+    /**
+     * Creates an empty snapshot.
+     */
+    RenderSnapshot ()
+    {
+        outlines = new Shape[64];
+        placements = new double[64 * STRIDE];
+        legend = "";
+        tickNanos = 1;
+    }
+
+    /**
+     * Empties the snapshot so it can be filled in for a new tick.
+     */
+    void begin (long tick, long time, long tickNanos)
+    {
+        Arrays.fill(outlines, 0, size, null);
+        size = 0;
+        this.tick = tick;
+        this.time = time;
+        this.tickNanos = Math.max(1, tickNanos);
+    }
+
+    /**
+     * Adds a participant whose outline is rotated by the angle with the given cosine and sine and then translated to
+     * (x, y), and which was at (previousX, previousY) on the tick before.
+     */
+    void add (Shape outline, double cos, double sin, double x, double y, double previousX, double previousY)
+    {
+        if (size == outlines.length)
+        {
+            outlines = Arrays.copyOf(outlines, size * 2);
+            placements = Arrays.copyOf(placements, size * 2 * STRIDE);
+        }
+        outlines[size] = outline;
+        int i = size * STRIDE;
+        placements[i] = cos;
+        placements[i + 1] = sin;
+        placements[i + 2] = x;
+        placements[i + 3] = y;
+        placements[i + 4] = previousX;
+        placements[i + 5] = previousY;
+        size++;
+    }
+
+    /**
+     * Records the values shown in the heads-up display.
+     */
+    void setHud (int points, int level, int lives, boolean gameActive, String legend)
+    {
+        this.points = points;
+        this.level = level;
+        this.lives = lives;
+        this.gameActive = gameActive;
+        this.legend = legend;
+    }
+
+    /**
+     * Returns the number of participants.
+     */
+    public int size ()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the outline of participant i.
+     */
+    public Shape getOutline (int i)
+    {
+        return outlines[i];
+    }
+
+    /**
+     * Returns the cosine of the rotation of participant i.
+     */
+    public double getCos (int i)
+    {
+        return placements[i * STRIDE];
+    }
+
+    /**
+     * Returns the sine of the rotation of participant i.
+     */
+    public double getSin (int i)
+    {
+        return placements[i * STRIDE + 1];
+    }
+
+    /**
+     * Returns the x-coordinate of participant i, part of the way (alpha) from where it was on the tick before.
+     */
+    public double getX (int i, double alpha)
+    {
+        return interpolate(placements[i * STRIDE + 4], placements[i * STRIDE + 2], alpha);
+    }
+
+    /**
+     * Returns the y-coordinate of participant i, part of the way (alpha) from where it was on the tick before.
+     */
+    public double getY (int i, double alpha)
+    {
+        return interpolate(placements[i * STRIDE + 5], placements[i * STRIDE + 3], alpha);
+    }
+
+    /**
+     * Returns the value part of the way from previous to current, unless they are so far apart that the participant
+     * must have jumped to the other side of the screen.
+     */
+    private static double interpolate (double previous, double current, double alpha)
+    {
+        if (Math.abs(current - previous) > Constants.SIZE / 2)
+        {
+            return current;
+        }
+        return previous + (current - previous) * alpha;
+    }
+
+    /**
+     * Returns how far (from 0 to 1) the given time (from System.nanoTime) is from the taking of this snapshot to the
+     * next tick.
+     */
+    public double getAlpha (long now)
+    {
+        return Math.max(0, Math.min(1, (double) (now - time) / tickNanos));
+    }
+
+    /**
+     * Returns the tick the snapshot was taken at.
+     */
+    public long getTick ()
+    {
+        return tick;
+    }
+
+    /**
+     * Returns the number of points.
+     */
+    public int getPoints ()
+    {
+        return points;
+    }
+
+    /**
+     * Returns the level.
+     */
+    public int getLevel ()
+    {
+        return level;
+    }
+
+    /**
+     * Returns the number of lives left.
+     */
+    public int getLives ()
+    {
+        return lives;
+    }
+
+    /**
+     * Reports whether a game is being played.
+     */
+    public boolean isGameActive ()
+    {
+        return gameActive;
+    }
+
+    /**
+     * Returns the legend across the middle of the screen.
+     */
+    public String getLegend ()
+    {
+        return legend;
+    }
+}
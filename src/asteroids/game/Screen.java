@@ -2,104 +2,85 @@ package asteroids.game;
 
 import static asteroids.game.Constants.*;
 import java.awt.*;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Path2D;
-import java.util.Iterator;
 import javax.swing.*;
 
 /**
- * The area of the display in which the game takes place.
+ * The area of the display in which the game takes place. It paints the most recent RenderSnapshot that the game has
+ * published, never the live game state. Swing decides when it paints; see ActiveScreen for a screen that paints on its
+ * own schedule.
+ *
+ * Each damaged region of a frame is asked to be repainted, but Swing's RepaintManager merges all of the requests made
+ * before it gets around to painting into the one rectangle that bounds them, and paints that. Two participants in
+ * opposite corners, then, have the whole screen repainted. The renderer's coverage counts the rectangle that is
+ * actually painted, so it shows this; ActiveScreen paints each region by itself.
  */
 @SuppressWarnings("serial")
 public class Screen extends JPanel
 {
-    /** Legend that is displayed across the screen */
-    private String legend;
-
     /** Game controller */
     private Controller controller;
 
+    /** Draws the snapshots */
+    private GameRenderer renderer;
+
+    /** The part of the screen being repainted */
+    private Rectangle region;
+
     /**
      * Creates an empty screen
      */
     public Screen (Controller controller)
     {
         this.controller = controller;
-        legend = "";
+        renderer = new GameRenderer();
+        region = new Rectangle();
         setPreferredSize(new Dimension(SIZE, SIZE));
         setMinimumSize(new Dimension(SIZE, SIZE));
         setBackground(Color.black);
         setForeground(Color.white);
-        setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 120));
         setFocusable(true);
-        
     }
 
     /**
-     * Set the legend
+     * Returns the renderer, which reports how fast and how well it is drawing
      */
-    public void setLegend (String legend)
+    public GameRenderer getRenderer ()
     {
-        this.legend = legend;
+        return renderer;
     }
 
     /**
-     * Paint the participants onto this panel
+     * Gets the most recent snapshot ready to paint, and asks Swing to repaint the parts of the screen that it changes
      */
-    @Override
-    public void paintComponent (Graphics graphics)
+    public void refresh ()
     {
-        // Use better resolution
-        Graphics2D g = (Graphics2D) graphics;
-        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-
-        // Do the default painting
-        super.paintComponent(g);
-
-        // Draw each participant in its proper place
-        Iterator<Participant> iter = controller.getParticipants();
-        while (iter.hasNext())
+        renderer.prepare(controller.getSnapshot(), System.nanoTime());
+        DirtyRegions damage = renderer.getDamage();
+        if (damage.isFull())
         {
-            iter.next().draw(g);
+            repaint();
         }
-
-        // Draw the legend across the middle of the panel
-        
-        int size = g.getFontMetrics().stringWidth(legend);
-        g.drawString(legend, (SIZE - size) / 2, SIZE / 2);
-        
-        // Lives Levels Points
-        if(controller.isGameActive()) {
-            g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 36));
-            //Points
-            g.drawString(controller.numPoints() + "", SIZE / 14 , SIZE / 12);
-            
-            //Level
-            g.drawString(controller.currentLevel() + "", SIZE - SIZE / 14, SIZE / 11);
-            
-            //Lives
-            for(int x = 1;x < controller.shipLives() + 1;x++) {
-                Path2D.Double poly = new Path2D.Double();
-                poly.moveTo(21, 0);
-                poly.lineTo(-21, 12);
-                poly.lineTo(-14, 10);
-                poly.lineTo(-14, -10);
-                poly.lineTo(-21, -12);
-                poly.closePath();
-                
-                poly.transform(AffineTransform.getQuadrantRotateInstance(3));
-                poly.transform(AffineTransform.getTranslateInstance((SIZE / 34) + ((SIZE / 26) * x), SIZE / 8 ));
-                
-                g.draw(poly);
-                
-                
+        else
+        {
+            for (int i = 0; i < damage.size(); i++)
+            {
+                damage.getRegion(i, region);
+                repaint(region);
             }
-            
-            
         }
-        
+    }
+
+    /**
+     * Paint the participants onto this panel
+     */
+    @Override
+    public void paintComponent (Graphics graphics)
+    {
+        // Do the default painting
+        super.paintComponent(graphics);
 
-        
+        // Draw the part of the most recent snapshot that needs it
+        region.setBounds(0, 0, getWidth(), getHeight());
+        renderer.paint((Graphics2D) graphics, graphics.getClipBounds(region));
     }
 }
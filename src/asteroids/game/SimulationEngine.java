@@ -0,0 +1,781 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import asteroids.game.AudioSink.Sound;
+import asteroids.participants.Alien;
+import asteroids.participants.AlienBullet;
+import asteroids.participants.Asteroid;
+import asteroids.participants.Bullet;
+import asteroids.participants.Debris;
+import asteroids.participants.Missles;
+import asteroids.participants.Ship;
+
+/**
+ * The rules of a game of Asteroids: levels, lives, scoring, the alien ship, and the transitions between them, along
+ * with the participants they govern. Nothing happens except when step is called, and the engine knows nothing of
+ * Swing or of sound. At the start of each step it polls an InputSource for the player's inputs, as it goes it asks an
+ * AudioSink for sounds, and at the end of each step it gives a RenderSink the chance to look at the result. So the same
+ * game can be played on the screen by a Controller, or run on a headless machine as fast as it will go.
+ *
+ * An engine must only be used by one thread at a time.
+ */
+public final class SimulationEngine
+{
+    /** The state of all the Participants */
+    private ParticipantState pstate;
+
+    /** The ship (if one is active) or null (otherwise) */
+    private Ship ship;
+
+    /** The alien (if one is active) or null otherwise */
+    private Alien alien;
+
+    /** The missile (if one is active) or null otherwise */
+    private Missles missle;
+
+    /** Where the state of each step goes */
+    private final RenderSink render;
+
+    /** Where the sounds go */
+    private final AudioSink audio;
+
+    /** Where the player's inputs come from */
+    private final InputSource input;
+
+    /** The game's random numbers */
+    private final GameRandom random;
+
+    /** Counts the game's ticks and runs the scheduled events below when they are due */
+    private GameClock clock;
+
+    /** Event for alien ship */
+    private GameClock.Event alienTimer;
+
+    /** Event for alien bullets */
+    private GameClock.Event alienBulletTimer;
+
+    /** Event for changing direction of alien ship */
+    private GameClock.Event alienDirectionTimer;
+
+    /** Event for the beat sounds */
+    private GameClock.Event beatTimer;
+
+    /** Event for ship respawn */
+    private GameClock.Event shipSpawn;
+
+    /**
+     * Event for a transition to a new stage of the game. A transition is scheduled a few seconds in the future to give
+     * the user time to see what has happened before doing something like going to a new level or resetting the current
+     * level.
+     */
+    private GameClock.Event transition;
+
+    /** Number of lives left */
+    private int lives;
+
+    /** The current Level */
+    private int level;
+
+    /** The current Number of Points */
+    private int points;
+
+    /** The asteroids destroyed this game, by size */
+    private final int[] asteroidKills = new int[3];
+
+    /** The alien ships destroyed this game */
+    private int alienKills;
+
+    /** Whether there is a new level */
+    private boolean newLevel = false;
+
+    /** The legend that is displayed across the screen */
+    private String legend;
+
+    /** Whether the inputs control the ship */
+    private boolean keysEnabled;
+
+    /** Tracks if the ship is being told to fire. */
+    private boolean fireBullets;
+
+    /** Toggles between beat1 and beat 2 */
+    private boolean toggleBeat;
+
+    /** Stores the current beat */
+    private int beatDelay;
+
+    /** States whether game is active */
+    private boolean activeGame = false;
+
+    /** Places missiles in the enhanced version */
+    private boolean placeMissle;
+
+    /** Stores if the game is in enhanced or classic mode */
+    private boolean isEnhanced;
+
+    /**
+     * Creates an engine, showing the splash screen, that plays a classic or enhanced game with the given sinks and
+     * source. Everything random in the game comes from the seed, so two engines given the same seed and the same
+     * inputs on the same ticks play the same game. Its participants are packed if PACKED_PARTICIPANTS is true.
+     */
+    public SimulationEngine (boolean enhanced, long seed, RenderSink render, AudioSink audio, InputSource input)
+    {
+        this(enhanced, seed, render, audio, input, PACKED_PARTICIPANTS);
+    }
+
+    /**
+     * Creates an engine, showing the splash screen, that plays a classic or enhanced game from the seed with the given
+     * sinks and source. If packed is true, its participants are kept in parallel arrays (see ParticipantState).
+     */
+    public SimulationEngine (boolean enhanced, long seed, RenderSink render, AudioSink audio, InputSource input,
+            boolean packed)
+    {
+        // Sets the game to either classic or enhanced
+        isEnhanced = enhanced;
+        random = new GameRandom(seed);
+        this.render = render;
+        this.audio = audio;
+        this.input = input;
+
+        // Initialize the ParticipantState, with pools for the participants that come and go most often
+        pstate = new ParticipantState(packed);
+        pstate.setPool(new ParticipantPool<Bullet>(Bullet.class, BULLET_POOL_SIZE));
+        pstate.setPool(new ParticipantPool<AlienBullet>(AlienBullet.class, ALIEN_BULLET_POOL_SIZE));
+        pstate.setPool(new ParticipantPool<Debris>(Debris.class, DEBRIS_POOL_SIZE));
+        pstate.setPool(new ParticipantPool<Asteroid>(Asteroid.class, ASTEROID_POOL_SIZE));
+        legend = "";
+
+        // Set up the events, which are counted in ticks rather than real time
+        clock = new GameClock(FRAME_INTERVAL);
+        alienTimer = clock.every(clock.toTicks(ALIEN_DELAY), this::alienTimerExpired);
+        alienBulletTimer = clock.every(clock.toTicks(1200), this::alienBulletTimerExpired);
+        alienDirectionTimer = clock.every(clock.toTicks(2000), this::alienDirectionTimerExpired);
+        beatTimer = clock.every(clock.toTicks(INITIAL_BEAT), this::beat);
+        shipSpawn = clock.after(clock.toTicks(2000), this::placeShip);
+        transition = clock.after(clock.toTicks(END_DELAY), this::performTransition);
+        beatDelay = INITIAL_BEAT;
+        toggleBeat = true;
+
+        // Bring up the splash screen and start the events
+        splashScreen();
+        alienTimer.start();
+        alienBulletTimer.start();
+        alienDirectionTimer.start();
+        beatTimer.start();
+    }
+
+    /**
+     * Creates an engine, showing the splash screen, that plays a classic or enhanced game with no screen, no sound, and
+     * no inputs.
+     */
+    public SimulationEngine (boolean enhanced, long seed)
+    {
+        this(enhanced, seed, RenderSink.NONE, AudioSink.NONE, InputSource.NONE);
+    }
+
+    /**
+     * Returns the game's random numbers, which the participants draw on.
+     */
+    public GameRandom getRandom ()
+    {
+        return random;
+    }
+
+    /**
+     * Plays the requested sound
+     */
+    public void playSound (Sound sound)
+    {
+        audio.play(sound);
+    }
+
+    /**
+     * Sets the legend that is displayed across the screen
+     */
+    private void setLegend (String legend)
+    {
+        this.legend = legend;
+    }
+
+    /**
+     * Returns the legend that is displayed across the screen
+     */
+    public String getLegend ()
+    {
+        return legend;
+    }
+
+    /**
+     * Returns the ship, or null if there isn't one
+     */
+    public Ship getShip ()
+    {
+        return ship;
+    }
+
+    /**
+     * Configures the game screen to display the splash screen
+     */
+    private void splashScreen ()
+    {
+        // Clear the screen, reset the level, and display the legend
+        clear();
+        setLegend("Asteroids");
+
+        // Place four asteroids near the corners of the screen.
+        placeAsteroids();
+    }
+
+    /**
+     * The game is over. Displays a message to that effect.
+     */
+    private void finalScreen ()
+    {
+        setLegend(GAME_OVER);
+        keysEnabled = false;
+    }
+
+    /**
+     * Place a new ship in the center of the screen. Remove any existing ship first.
+     */
+    private void placeShip ()
+    {
+        // Place a new ship
+        Participant.expire(ship);
+        ship = new Ship(SIZE / 2, SIZE / 2, -Math.PI / 2, this);
+        addParticipant(ship);
+        setLegend("");
+        beatTimer.restart();
+    }
+
+    /**
+     * Places an asteroid near one corner of the screen. Gives it a random velocity and rotation.
+     */
+    private void placeAsteroids ()
+    {
+        SplittableRandom spawn = random.getSpawn();
+        addParticipant(Asteroid.create(spawn.nextInt(4), 2, EDGE_OFFSET + spawn.nextInt(100) - 50,
+                EDGE_OFFSET + spawn.nextInt(100) - 50, 3, this));
+        addParticipant(Asteroid.create(spawn.nextInt(4), 2, SIZE - EDGE_OFFSET + spawn.nextInt(100) - 50,
+                EDGE_OFFSET + spawn.nextInt(100) - 50, 3, this));
+        addParticipant(Asteroid.create(spawn.nextInt(4), 2, EDGE_OFFSET + spawn.nextInt(100) - 50,
+                SIZE - EDGE_OFFSET + spawn.nextInt(100) - 50, 3, this));
+        addParticipant(Asteroid.create(spawn.nextInt(4), 2, SIZE - EDGE_OFFSET + spawn.nextInt(100) - 50,
+                SIZE - EDGE_OFFSET + spawn.nextInt(100) - 50, 3, this));
+        for (int x = 0; x < level - 1; x++)
+        {
+            addParticipant(Asteroid.create(spawn.nextInt(4), 2, -EDGE_OFFSET + spawn.nextInt(100) - 50,
+                    -EDGE_OFFSET + spawn.nextInt(100) - 50, 3, this));
+        }
+    }
+
+    /**
+     * Places bullets on the screen.
+     */
+    private void placeBullets ()
+    {
+        if (pstate.countBullets() <= Constants.BULLET_LIMIT && ship != null)
+        {
+            addParticipant(Bullet.create(ship.getXNose(), ship.getYNose(), ship.getRotation(), this));
+
+            // Plays sounds when shooting
+            playSound(Sound.FIRE);
+        }
+    }
+
+    /**
+     * Places alien bullets on the screen.
+     */
+    private void placeAlienBullets ()
+    {
+        if (level == 2 && alien != null)
+        {
+            addParticipant(
+                    AlienBullet.create(alien.getX(), alien.getY(), random.getAI().nextDouble() * Math.PI * 2, this));
+        }
+        if (level > 2 && alien != null && ship != null)
+        {
+            // Angle to fire directly at ship
+            double angle = Math.atan2(ship.getY() - alien.getY(), ship.getX() - alien.getX());
+            // Adjust angle randomly by 5 degrees
+            double randAngleAdj = (random.getAI().nextInt(11) - 5) * Math.PI / 180;
+            // Add bullets
+            addParticipant(
+                    AlienBullet.create(alien.getX(), alien.getY(), Participant.normalize(angle) + randAngleAdj, this));
+        }
+    }
+
+    /**
+     * Places a heat seeking missile on the screen.
+     */
+    private void placeMissle ()
+    {
+        if (pstate.countMissles() < 1)
+        {
+            missle = new Missles(ship.getXNose(), ship.getYNose(), ship.getSpeed(), ship.getDirection(),
+                    ship.getRotation(), this);
+            addParticipant(missle);
+        }
+    }
+
+    /**
+     * Places alien ships on the screen. Removes any existing alien first.
+     */
+    private void placeAlien ()
+    {
+        if (level == 2)
+        {
+            alien = new Alien(1, 3, this);
+            addParticipant(alien);
+
+            // Play big alien sounds
+            audio.loop(Sound.BIG_SAUCER);
+        }
+        if (level > 2)
+        {
+            alien = new Alien(0, 5, this);
+            addParticipant(alien);
+
+            // Play small alien sounds
+            audio.loop(Sound.SMALL_SAUCER);
+        }
+    }
+
+    /**
+     * Clears the screen so that nothing is displayed
+     */
+    private void clear ()
+    {
+        pstate.clear();
+        setLegend("");
+        ship = null;
+        alien = null;
+        beatDelay = INITIAL_BEAT;
+        beatTimer.setPeriod(clock.toTicks(beatDelay));
+        beatTimer.restart();
+        alienTimer.restart();
+    }
+
+    /**
+     * Sets things up and begins a new game.
+     */
+    private void initialScreen ()
+    {
+        // Clear the screen
+        clear();
+
+        // Place asteroids
+        placeAsteroids();
+
+        // Place the ship
+        placeShip();
+
+        // Remove any alien ships from game.
+        alien = null;
+
+        // Reset statistics
+        lives = 3;  // should be 3, changed to give more lives when testing
+
+        // Reset Level
+        level = 1;  // should be 1, testing at different levels
+
+        // Reset points and kills
+        points = 0;
+        Arrays.fill(asteroidKills, 0);
+        alienKills = 0;
+
+        // game is off to begin
+        activeGame = false;
+
+        // Start listening to keys
+        keysEnabled = true;
+    }
+
+    /**
+     * Adds a new Participant
+     */
+    public void addParticipant (Participant p)
+    {
+        pstate.addParticipant(p);
+    }
+
+    /**
+     * Returns the pool that expired participants of the given class are kept in for reuse, or null if they aren't
+     * pooled. The hit and miss counts of the pools show how much the game is allocating.
+     */
+    public <T extends Participant> ParticipantPool<T> getPool (Class<T> type)
+    {
+        return pstate.getPool(type);
+    }
+
+    /**
+     * The ship has been destroyed
+     */
+    public void shipDestroyed ()
+    {
+        // Play sound
+        playSound(Sound.BANG_SHIP);
+
+        fireBullets = false;
+        beatTimer.stop();
+
+        // Decrement lives
+        lives--;
+
+        // Null out the ship
+        ship = null;
+
+        // Display a legend
+        setLegend("Ouch!");
+
+        if (lives == 0)
+        {
+
+        }
+        else
+        {
+            shipSpawn.start();
+        }
+
+        // Since the ship was destroyed, schedule a transition
+        scheduleTransition(END_DELAY);
+
+    }
+
+    /**
+     * The alien ship has been destroyed.
+     */
+    public void alienDestroyed ()
+    {
+        if (level == 2)
+        {
+            addPoints(ALIENSHIP_SCORE[1]);
+        }
+        if (level > 2)
+        {
+            addPoints(ALIENSHIP_SCORE[0]);
+        }
+        alien = null;
+        alienKills++;
+        alienTimer.restart();
+
+        // Plays sounds when alien is destroyed
+        playSound(Sound.BANG_ALIEN_SHIP);
+    }
+
+    /**
+     *
+     * @return the number of ship lives
+     */
+    public int shipLives ()
+    {
+        return lives;
+    }
+
+    /**
+     *
+     * @return the number of points
+     */
+    public int numPoints ()
+    {
+        return points;
+    }
+
+    public void addPoints (int Points)
+    {
+        points += Points;
+    }
+
+    /**
+     * Returns the number of asteroids of the given size (0 small, 1 medium, 2 large) destroyed this game.
+     */
+    public int getAsteroidKills (int size)
+    {
+        return asteroidKills[size];
+    }
+
+    /**
+     * Returns the number of alien ships destroyed this game.
+     */
+    public int getAlienKills ()
+    {
+        return alienKills;
+    }
+
+    /**
+     *
+     * @return the current Level
+     */
+    public int currentLevel ()
+    {
+        return level;
+    }
+
+    /**
+     *
+     * @return whether the game is active
+     */
+    public boolean isGameActive ()
+    {
+        return activeGame;
+    }
+
+    /**
+     * An asteroid has been destroyed
+     */
+    public void asteroidDestroyed (int astSize)
+    {
+        asteroidKills[astSize]++;
+
+        // If all the asteroids are gone, schedule a transition
+        if (pstate.countAsteroids() == 0)
+        {
+            beatTimer.stop();
+            alienTimer.stop();
+            beatDelay = INITIAL_BEAT;
+            if (alien != null)
+            {
+                Participant.expire(alien);
+                alien = null;
+            }
+            scheduleTransition(END_DELAY);
+            level++;
+            setLegend("Next Level: " + level);
+            newLevel = true;
+        }
+
+        // Plays sounds when an asteroid is destroyed
+        switch (astSize)
+        {
+            case 0:
+                playSound(Sound.BANG_SMALL);
+                break;
+            case 1:
+                playSound(Sound.BANG_MEDIUM);
+                break;
+            case 2:
+                playSound(Sound.BANG_LARGE);
+                break;
+        }
+    }
+
+    /**
+     * Schedules a transition m msecs in the future, replacing any transition that is already scheduled
+     */
+    private void scheduleTransition (int m)
+    {
+        transition.setPeriod(clock.toTicks(m));
+        transition.restart();
+    }
+
+    /**
+     * Starts a new game, as the start button does.
+     */
+    public void startGame ()
+    {
+        initialScreen();
+        activeGame = true;
+    }
+
+    /**
+     * Makes the ship turn in the given direction, or stop turning.
+     */
+    public void setTurn (turnDirection direction)
+    {
+        if (keysEnabled && ship != null)
+        {
+            ship.setTurnDirection(direction);
+        }
+    }
+
+    /**
+     * Turns the ship's thrust on or off.
+     */
+    public void setThrust (boolean on)
+    {
+        if (keysEnabled && ship != null)
+        {
+            ship.setAcceleration(on);
+        }
+    }
+
+    /**
+     * Makes the ship start or stop firing bullets. A bullet is fired right away when it starts, and then one every
+     * tick for as long as it keeps firing.
+     */
+    public void setFiring (boolean on)
+    {
+        if (keysEnabled && ship != null)
+        {
+            if (on && !fireBullets)
+            {
+                placeBullets();
+            }
+            fireBullets = on;
+        }
+    }
+
+    /**
+     * Makes the ship start or stop firing heat seeking missiles at the alien ship. This only works in the enhanced
+     * game.
+     */
+    public void setMissiles (boolean on)
+    {
+        if (keysEnabled && ship != null && isEnhanced)
+        {
+            placeMissle = on;
+        }
+    }
+
+    /**
+     * Advances the game by one tick: handles the inputs, runs the scheduled events that are due, reacts to the
+     * controls that are held down, moves the participants, and hands the result to the render sink. Nothing here
+     * depends on the real time, so the game plays out the same way however fast the ticks come.
+     */
+    public void step ()
+    {
+        // Handle the inputs that have come in since the last tick
+        input.poll(this);
+
+        // Run the scheduled events, which may make a game transition
+        clock.advance();
+
+        // Fire bullets when a firing key is pressed.
+        if (fireBullets && ship != null)
+        {
+            placeBullets();
+        }
+
+        // Stops the saucer sounds if there is no alien ship
+        if (alien == null)
+        {
+            audio.stop(Sound.SMALL_SAUCER);
+            audio.stop(Sound.BIG_SAUCER);
+        }
+
+        // For enhanced version, places a missle if M key is pressed
+        if (placeMissle && ship != null && alien != null)
+        {
+            placeMissle();
+        }
+
+        if (pstate.countMissles() >= 1 && alien != null && missle != null)
+        {
+            double angle = Math.atan2(alien.getY() - missle.getY(), alien.getX() - missle.getX());
+            missle.changeTurnDirection(Participant.normalize(angle));
+        }
+
+        // Move the participants to their new locations
+        pstate.moveParticipants();
+
+        // Let the screen know
+        render.stepFinished(this);
+    }
+
+    /**
+     * Fills in a snapshot of the step that has just been run, which took place at the given time and is to be shown
+     * for the given number of nanoseconds.
+     */
+    void capture (RenderSnapshot snapshot, long time, long tickNanos)
+    {
+        snapshot.begin(clock.getTick(), time, tickNanos);
+        ParticipantCursor iter = pstate.getParticipants();
+        while (iter.hasNext())
+        {
+            iter.next().capture(snapshot);
+        }
+        snapshot.setHud(points, level, lives, activeGame, legend);
+    }
+
+    /**
+     * Places an alien ship if it is time for one.
+     */
+    private void alienTimerExpired ()
+    {
+        if (level >= 2 && alien == null)
+        {
+            placeAlien();
+        }
+    }
+
+    /**
+     * Lets the alien ship fire.
+     */
+    private void alienBulletTimerExpired ()
+    {
+        if (alien != null && ship != null)
+        {
+            placeAlienBullets();
+        }
+    }
+
+    /**
+     * Changes the direction of the alien ship.
+     */
+    private void alienDirectionTimerExpired ()
+    {
+        if (alien != null)
+        {
+            alien.changeTurnDirection(alien.alienDirection());
+        }
+    }
+
+    /**
+     * Plays the next beat, alternating between the two beat sounds, and shortens the time until the one after it.
+     */
+    private void beat ()
+    {
+        playSound(toggleBeat ? Sound.BEAT1 : Sound.BEAT2);
+        toggleBeat = !toggleBeat;
+        if (beatDelay > FASTEST_BEAT + BEAT_DELTA)
+        {
+            beatDelay = beatDelay - BEAT_DELTA;
+            beatTimer.setPeriod(clock.toTicks(beatDelay));
+        }
+    }
+
+    /**
+     * Returns the number of steps that have been run.
+     */
+    public long getTick ()
+    {
+        return clock.getTick();
+    }
+
+    /**
+     * Returns an iterator over the active participants.
+     */
+    public Iterator<Participant> getParticipants ()
+    {
+        return pstate.getParticipants();
+    }
+
+    /**
+     * The transition time has been reached, so transition to a new state
+     */
+    private void performTransition ()
+    {
+        // If there are no lives left, the game is over. Show the final
+        // screen.
+        if (lives <= 0)
+        {
+            if (alien != null)
+            {
+                Participant.expire(alien);
+                alien = null;
+            }
+            alienTimer.stop();
+            beatTimer.stop();
+            finalScreen();
+        }
+        if (newLevel)
+        {
+            clear();
+            placeShip();
+            placeAsteroids();
+            newLevel = false;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package asteroids.game;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands RenderSnapshots from the simulation thread to the thread that paints, without locks. The simulation fills in
+ * its back snapshot and publishes it, which swaps it into the ready slot. The painter takes whatever is in the ready
+ * slot, if anything, and returns the snapshot it was drawing before to the spare slot. Neither side ever waits for the
+ * other, a snapshot is never changed while the painter has it, and at steady state no snapshots are allocated.
+ */
+final class SnapshotExchange
+{
+    /** The most recently published snapshot, if the painter hasn't taken it yet */
+    private final AtomicReference<RenderSnapshot> ready;
+
+    /** A snapshot the painter is done with */
+    private final AtomicReference<RenderSnapshot> spare;
+
+    /** The snapshot the simulation is filling in; only touched by the simulation thread */
+    private RenderSnapshot back;
+
+    /** The snapshot the painter is drawing; only touched by the painting thread */
+    private RenderSnapshot front;
+
+    /**
+     * Creates an exchange. Until something is published, the painter gets an empty snapshot.
+     */
+    SnapshotExchange ()
+    {
+        ready = new AtomicReference<>();
+        spare = new AtomicReference<>();
+        back = new RenderSnapshot();
+        front = new RenderSnapshot();
+    }
+
+    /**
+     * Returns the snapshot for the simulation to fill in.
+     */
+    RenderSnapshot getBack ()
+    {
+        return back;
+    }
+
+    /**
+     * Publishes the back snapshot. The simulation gets a different one to fill in next: the one that was published
+     * before, if the painter never took it, or else the one the painter has returned.
+     */
+    void publish ()
+    {
+        RenderSnapshot unread = ready.getAndSet(back);
+        if (unread != null)
+        {
+            back = unread;
+        }
+        else
+        {
+            back = spare.getAndSet(null);
+            if (back == null)
+            {
+                back = new RenderSnapshot();
+            }
+        }
+    }
+
+    /**
+     * Returns the most recently published snapshot, or the one returned last time if nothing has been published since.
+     * The snapshot stays unchanged until the next call.
+     */
+    RenderSnapshot getFront ()
+    {
+        RenderSnapshot latest = ready.getAndSet(null);
+        if (latest != null)
+        {
+            spare.set(front);
+            front = latest;
+        }
+        return front;
+    }
+}
@@ -0,0 +1,184 @@
+package asteroids.game;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid laid over the playing field that is used as the broad phase of collision detection. Each participant
+ * is placed into every cell that its bounding box touches, and only participants that share at least one cell are
+ * handed on to the (much more expensive) exact overlap test.
+ *
+ * Participants are identified by their index in the list being checked. Cell coordinates wrap around the edges of the
+ * field, so a participant that has drifted partly off the screen is still bucketed instead of being lost.
+ */
+class SpatialHash
+{
+    /** Number of cells along each side of the grid */
+    private final int cellsPerSide;
+
+    /** Width and height of each cell in pixels */
+    private final double cellSize;
+
+    /** The first entry in each cell, or -1 if the cell is empty */
+    private final int[] cellHead;
+
+    /** For each entry, the next entry in the same cell, or -1 */
+    private int[] entryNext;
+
+    /** For each entry, the index of the participant it refers to */
+    private int[] entryItem;
+
+    /** Number of entries in use */
+    private int entryCount;
+
+    /** For each participant, the range of cell columns and rows it occupies (unwrapped) */
+    private int[] colMin, colMax, rowMin, rowMax;
+
+    /** For each participant, the query that most recently reported it. Used to avoid duplicate candidates. */
+    private int[] stamp;
+
+    /** Identifies the current query */
+    private int query;
+
+    /** Candidates reported by the most recent query */
+    private int[] candidates;
+
+    /**
+     * Creates a grid that covers a square field of the given size with cells of roughly the given size.
+     */
+    public SpatialHash (int fieldSize, int preferredCellSize)
+    {
+        cellsPerSide = Math.max(1, fieldSize / Math.max(1, preferredCellSize));
+        cellSize = (double) fieldSize / cellsPerSide;
+        cellHead = new int[cellsPerSide * cellsPerSide];
+        entryNext = new int[64];
+        entryItem = new int[64];
+        colMin = new int[16];
+        colMax = new int[16];
+        rowMin = new int[16];
+        rowMax = new int[16];
+        stamp = new int[16];
+        candidates = new int[16];
+    }
+
+    /**
+     * Empties the grid and prepares it to hold participants with indices 0 through itemCount-1.
+     */
+    public void clear (int itemCount)
+    {
+        Arrays.fill(cellHead, -1);
+        entryCount = 0;
+        if (stamp.length < itemCount)
+        {
+            int length = Math.max(itemCount, stamp.length * 2);
+            colMin = new int[length];
+            colMax = new int[length];
+            rowMin = new int[length];
+            rowMax = new int[length];
+            stamp = new int[length];
+            candidates = new int[length];
+            query = 0;
+        }
+        Arrays.fill(colMax, 0, itemCount, -1);
+        Arrays.fill(colMin, 0, itemCount, 0);
+    }
+
+    /**
+     * Places the participant with the given index into every cell touched by the bounding box.
+     */
+    public void insert (int item, double minX, double minY, double maxX, double maxY)
+    {
+        int c0 = (int) Math.floor(minX / cellSize);
+        int c1 = (int) Math.floor(maxX / cellSize);
+        int r0 = (int) Math.floor(minY / cellSize);
+        int r1 = (int) Math.floor(maxY / cellSize);
+
+        // A box wider than the field covers every column (or row) exactly once
+        if (c1 - c0 >= cellsPerSide)
+        {
+            c0 = 0;
+            c1 = cellsPerSide - 1;
+        }
+        if (r1 - r0 >= cellsPerSide)
+        {
+            r0 = 0;
+            r1 = cellsPerSide - 1;
+        }
+        colMin[item] = c0;
+        colMax[item] = c1;
+        rowMin[item] = r0;
+        rowMax[item] = r1;
+
+        for (int r = r0; r <= r1; r++)
+        {
+            int row = Math.floorMod(r, cellsPerSide) * cellsPerSide;
+            for (int c = c0; c <= c1; c++)
+            {
+                int cell = row + Math.floorMod(c, cellsPerSide);
+                if (entryCount == entryNext.length)
+                {
+                    entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+                    entryItem = Arrays.copyOf(entryItem, entryCount * 2);
+                }
+                entryItem[entryCount] = item;
+                entryNext[entryCount] = cellHead[cell];
+                cellHead[cell] = entryCount;
+                entryCount++;
+            }
+        }
+    }
+
+    /**
+     * Finds every participant with an index greater than item that shares a cell with item. Returns the number of
+     * candidates found; they can be retrieved with getCandidate in descending order of index. A participant that was
+     * never inserted has no candidates.
+     */
+    public int findCandidates (int item)
+    {
+        if (++query == 0)
+        {
+            // The stamp counter wrapped, so old stamps could be mistaken for new ones
+            Arrays.fill(stamp, 0);
+            query = 1;
+        }
+
+        int count = 0;
+        for (int r = rowMin[item]; r <= rowMax[item]; r++)
+        {
+            int row = Math.floorMod(r, cellsPerSide) * cellsPerSide;
+            for (int c = colMin[item]; c <= colMax[item]; c++)
+            {
+                for (int e = cellHead[row + Math.floorMod(c, cellsPerSide)]; e >= 0; e = entryNext[e])
+                {
+                    int other = entryItem[e];
+                    if (other > item && stamp[other] != query)
+                    {
+                        stamp[other] = query;
+                        candidates[count++] = other;
+                    }
+                }
+            }
+        }
+
+        // Sort into descending order. The lists are short, so an insertion sort is fine.
+        for (int i = 1; i < count; i++)
+        {
+            int value = candidates[i];
+            int j = i - 1;
+            while (j >= 0 && candidates[j] < value)
+            {
+                candidates[j + 1] = candidates[j];
+                j--;
+            }
+            candidates[j + 1] = value;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the k-th candidate found by the most recent call to findCandidates.
+     */
+    public int getCandidate (int k)
+    {
+        return candidates[k];
+    }
+}
@@ -0,0 +1,255 @@
+package asteroids.game;
+
+import static asteroids.game.Constants.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+
+/**
+ * Outlines already rasterized into images, so that drawing a participant is a single image copy rather than a pass of
+ * the anti-aliasing path rasterizer. There is a sprite for each Outline in each of SPRITE_ROTATIONS evenly spaced
+ * rotations; a participant is drawn with the sprite whose rotation is nearest its own (the ship, which turns by
+ * ROTATION_STEPS, always hits one exactly). Since each variant of an outline, such as the ship with and without its
+ * flame, is a separate Outline, each gets its own sprites.
+ *
+ * The sprites of an atlas are either all anti-aliased or all not, so that GameRenderer can keep one of each and drop
+ * the anti-aliasing without going back to drawing the outlines. Sprites are made the first time they are needed, but
+ * no more than SPRITES_PER_FRAME of them in a frame; a draw that would make one beyond that draws nothing, and the
+ * caller draws the outline itself. Their pixels are kept within SPRITE_CACHE_PIXELS by throwing away the least
+ * recently used sprites.
+ */
+final class SpriteAtlas
+{
+    /**
+     * A rasterized outline, which is also a node in the list of sprites from most to least recently used.
+     */
+    private final static class Sprite
+    {
+        /** The outline and rotation bucket the sprite shows */
+        final Shape outline;
+        final int bucket;
+
+        /** The image, and where the outline's origin is within it */
+        final BufferedImage image;
+        final int originX, originY;
+
+        /** Neighbors in the list of sprites */
+        Sprite newer, older;
+
+        /** Creates a sprite that isn't in the list */
+        Sprite (Shape outline, int bucket, BufferedImage image, int originX, int originY)
+        {
+            this.outline = outline;
+            this.bucket = bucket;
+            this.image = image;
+            this.originX = originX;
+            this.originY = originY;
+        }
+
+        /** Returns the number of pixels in the image */
+        int pixels ()
+        {
+            return image.getWidth() * image.getHeight();
+        }
+    }
+
+    /** The sprites of each outline, by rotation bucket */
+    private final IdentityHashMap<Shape, Sprite[]> sprites;
+
+    /** The most and least recently used sprites */
+    private Sprite newest, oldest;
+
+    /** Number of pixels in all the sprites */
+    private long pixels;
+
+    /** Number of draws that found their sprite, that had to make it, and sprites thrown away */
+    private long hits, misses, evictions;
+
+    /** Number of draws that were left to the caller because enough sprites had been made in their frame */
+    private long deferred;
+
+    /** Number of sprites made in the current frame */
+    private int madeThisFrame;
+
+    /** The rotation of the sprite being rasterized */
+    private final AffineTransform rotation;
+
+    /** Whether the sprites are anti-aliased */
+    private final boolean antialiased;
+
+    /**
+     * Creates an empty atlas whose sprites are anti-aliased or not.
+     */
+    SpriteAtlas (boolean antialiased)
+    {
+        this.antialiased = antialiased;
+        sprites = new IdentityHashMap<>();
+        rotation = new AffineTransform();
+    }
+
+    /**
+     * Starts a new frame, in which SPRITES_PER_FRAME more sprites may be made.
+     */
+    void beginFrame ()
+    {
+        madeThisFrame = 0;
+    }
+
+    /**
+     * Draws the outline, rotated by the angle with the given cosine and sine, centered on (x, y). Returns false, and
+     * draws nothing, if the outline can't be cached because it isn't an immutable Outline, or if its sprite hasn't been
+     * made and SPRITES_PER_FRAME sprites have already been made in this frame.
+     */
+    boolean draw (Graphics2D g, Shape outline, double cos, double sin, double x, double y)
+    {
+        if (!(outline instanceof Outline))
+        {
+            return false;
+        }
+
+        int bucket = (int) Math.round(Math.atan2(sin, cos) * SPRITE_ROTATIONS / (2 * Math.PI));
+        bucket = ((bucket % SPRITE_ROTATIONS) + SPRITE_ROTATIONS) % SPRITE_ROTATIONS;
+        Sprite[] buckets = sprites.get(outline);
+        if (buckets == null)
+        {
+            buckets = new Sprite[SPRITE_ROTATIONS];
+            sprites.put(outline, buckets);
+        }
+
+        Sprite sprite = buckets[bucket];
+        if (sprite == null)
+        {
+            if (madeThisFrame >= SPRITES_PER_FRAME)
+            {
+                deferred++;
+                return false;
+            }
+            madeThisFrame++;
+            misses++;
+            sprite = rasterize(outline, bucket);
+            buckets[bucket] = sprite;
+            pixels += sprite.pixels();
+            link(sprite);
+            evict();
+        }
+        else
+        {
+            hits++;
+            if (sprite != newest)
+            {
+                unlink(sprite);
+                link(sprite);
+            }
+        }
+
+        g.drawImage(sprite.image, (int) Math.round(x) - sprite.originX, (int) Math.round(y) - sprite.originY, null);
+        return true;
+    }
+
+    /**
+     * Makes the sprite of the outline in the given rotation bucket.
+     */
+    private Sprite rasterize (Shape outline, int bucket)
+    {
+        rotation.setToRotation(bucket * 2 * Math.PI / SPRITE_ROTATIONS);
+        Rectangle2D bounds = rotation.createTransformedShape(outline).getBounds2D();
+
+        // Leave two pixels around the edge for the stroke and its anti-aliasing
+        int originX = (int) Math.ceil(-bounds.getMinX()) + 2;
+        int originY = (int) Math.ceil(-bounds.getMinY()) + 2;
+        int width = originX + (int) Math.ceil(bounds.getMaxX()) + 2;
+        int height = originY + (int) Math.ceil(bounds.getMaxY()) + 2;
+
+        BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height),
+                BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                antialiased ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING,
+                antialiased ? RenderingHints.VALUE_RENDER_QUALITY : RenderingHints.VALUE_RENDER_SPEED);
+        g.setColor(Color.white);
+        g.translate(originX, originY);
+        g.transform(rotation);
+        g.draw(outline);
+        g.dispose();
+        return new Sprite(outline, bucket, image, originX, originY);
+    }
+
+    /**
+     * Makes the sprite the most recently used.
+     */
+    private void link (Sprite sprite)
+    {
+        sprite.older = newest;
+        sprite.newer = null;
+        if (newest != null)
+        {
+            newest.newer = sprite;
+        }
+        newest = sprite;
+        if (oldest == null)
+        {
+            oldest = sprite;
+        }
+    }
+
+    /**
+     * Takes the sprite out of the list.
+     */
+    private void unlink (Sprite sprite)
+    {
+        if (sprite.newer != null)
+        {
+            sprite.newer.older = sprite.older;
+        }
+        else
+        {
+            newest = sprite.older;
+        }
+        if (sprite.older != null)
+        {
+            sprite.older.newer = sprite.newer;
+        }
+        else
+        {
+            oldest = sprite.newer;
+        }
+        sprite.newer = sprite.older = null;
+    }
+
+    /**
+     * Throws away the least recently used sprites until the rest fit within SPRITE_CACHE_PIXELS, always keeping the
+     * most recently used one.
+     */
+    private void evict ()
+    {
+        while (pixels > SPRITE_CACHE_PIXELS && oldest != newest)
+        {
+            Sprite sprite = oldest;
+            unlink(sprite);
+            sprites.get(sprite.outline)[sprite.bucket] = null;
+            pixels -= sprite.pixels();
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns the number of pixels in all the sprites.
+     */
+    long getPixels ()
+    {
+        return pixels;
+    }
+
+    /**
+     * Reports how well the atlas is working.
+     */
+    @Override
+    public String toString ()
+    {
+        return String.format("%d hits, %d misses, %d deferred, %d evictions, %d pixels", hits, misses, deferred,
+                evictions, pixels);
+    }
+}
@@ -0,0 +1,149 @@
+package asteroids.game;
+
+import java.util.Arrays;
+
+/**
+ * A hashed timing wheel that counts in simulation ticks. Each countdown is kept in the slot of the wheel for the tick
+ * on which it is due, in a doubly linked list threaded through the ParticipantCountdownTimer objects themselves, so
+ * scheduling and cancelling are constant time and allocate nothing. A countdown that is due more than one turn of the
+ * wheel away waits in its slot until its turn comes around.
+ */
+final class TimingWheel
+{
+    /** The lists of countdowns, one per slot */
+    private final ParticipantCountdownTimer[] slots;
+
+    /** slots.length - 1; the number of slots is a power of two */
+    private final int mask;
+
+    /** Number of ticks that have gone by */
+    private long tick;
+
+    /** Number of countdowns in the wheel */
+    private int size;
+
+    /** Countdowns that are due on the current tick, gathered before any of them is fired */
+    private ParticipantCountdownTimer[] due;
+
+    /**
+     * Creates an empty wheel with at least the given number of slots.
+     */
+    TimingWheel (int minimumSlots)
+    {
+        int count = Integer.highestOneBit(Math.max(1, minimumSlots - 1)) << 1;
+        slots = new ParticipantCountdownTimer[count];
+        mask = count - 1;
+        due = new ParticipantCountdownTimer[16];
+    }
+
+    /**
+     * Returns the number of ticks that have gone by.
+     */
+    long getTick ()
+    {
+        return tick;
+    }
+
+    /**
+     * Returns the number of countdowns waiting in the wheel.
+     */
+    int size ()
+    {
+        return size;
+    }
+
+    /**
+     * Schedules the countdown, which must not already be scheduled, to fire after the given number of ticks (at least
+     * one).
+     */
+    void schedule (ParticipantCountdownTimer t, int ticks)
+    {
+        long deadline = tick + Math.max(1, ticks);
+        int slot = (int) (deadline & mask);
+        t.deadline = deadline;
+        t.wheel = this;
+        t.prev = null;
+        t.next = slots[slot];
+        if (t.next != null)
+        {
+            t.next.prev = t;
+        }
+        slots[slot] = t;
+        size++;
+    }
+
+    /**
+     * Removes the countdown, which must be scheduled in this wheel.
+     */
+    void cancel (ParticipantCountdownTimer t)
+    {
+        if (t.prev != null)
+        {
+            t.prev.next = t.next;
+        }
+        else
+        {
+            slots[(int) (t.deadline & mask)] = t.next;
+        }
+        if (t.next != null)
+        {
+            t.next.prev = t.prev;
+        }
+        t.prev = t.next = null;
+        t.wheel = null;
+        size--;
+    }
+
+    /**
+     * Advances the wheel by one tick and fires the countdowns that are now due. They are all taken out of the wheel
+     * before the first one fires, so a callback is free to schedule or cancel other countdowns; a due countdown that is
+     * cancelled or restarted by an earlier callback doesn't fire.
+     */
+    void advance ()
+    {
+        tick++;
+        int count = 0;
+        ParticipantCountdownTimer t = slots[(int) (tick & mask)];
+        while (t != null)
+        {
+            ParticipantCountdownTimer next = t.next;
+            if (t.deadline == tick)
+            {
+                cancel(t);
+                t.firing = true;
+                if (count == due.length)
+                {
+                    due = Arrays.copyOf(due, count * 2);
+                }
+                due[count++] = t;
+            }
+            t = next;
+        }
+
+        // Fire in the order the countdowns were scheduled
+        for (int i = count - 1; i >= 0; i--)
+        {
+            ParticipantCountdownTimer fired = due[i];
+            due[i] = null;
+            if (fired.firing)
+            {
+                fired.firing = false;
+                fired.fire();
+            }
+        }
+    }
+
+    /**
+     * Removes every countdown without firing it.
+     */
+    void clear ()
+    {
+        for (int s = 0; s < slots.length; s++)
+        {
+            while (slots[s] != null)
+            {
+                cancel(slots[s]);
+            }
+        }
+    }
+}
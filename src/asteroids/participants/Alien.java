@@ -1,26 +1,26 @@
 package asteroids.participants;
 
-import static asteroids.game.Constants.RANDOM;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Path2D;
+import java.util.SplittableRandom;
 import asteroids.destroyers.AlienDestroyer;
 import asteroids.destroyers.AsteroidDestroyer;
 import asteroids.destroyers.ShipDestroyer;
 import asteroids.game.Constants;
-import asteroids.game.Controller;
 import asteroids.game.Participant;
+import asteroids.game.ReactsTo;
+import asteroids.game.SimulationEngine;
 
 /**
  * Represents aliens
  */
+@ReactsTo(AlienDestroyer.class)
 public class Alien extends Participant implements ShipDestroyer, AsteroidDestroyer
 {
     /** The outline of the ship */
     private Shape outline;
 
-    /** Game controller */
-    private Controller controller;
+    /** Game engine */
+    private SimulationEngine engine;
     
     /**Direction for alien ship */
     private double alienDir;
@@ -28,35 +28,13 @@ public class Alien extends Participant implements ShipDestroyer, AsteroidDestroy
     /**
      * Constructs an alien ship at the specified coordinates that is pointed in the given direction.
      */
-    public Alien (int alienSize, int alienSpeed, Controller controller)
+    public Alien (int alienSize, int alienSpeed, SimulationEngine engine)
     {
-        this.controller = controller;
-        setPosition(-5, Constants.RANDOM.nextDouble() * Constants.SIZE);
+        this.engine = engine;
+        setPosition(-5, engine.getRandom().getSpawn().nextDouble() * Constants.SIZE);
         setSpeed(alienSpeed);        
         setDirection(alienDirection());
-
-        Path2D.Double poly = new Path2D.Double();
-        poly.moveTo(10, 8);
-        poly.lineTo(-10, 8);
-        poly.lineTo(-20, 0);
-        poly.lineTo(20, 0);
-        poly.closePath();
-        poly.moveTo(20, 0);
-        poly.lineTo(10, -8);
-        poly.lineTo(-10, -8);
-        poly.lineTo(-20, 0);
-        poly.closePath();
-        poly.moveTo(10, -8);
-        poly.lineTo(6, -15);
-        poly.lineTo(-6, -15);
-        poly.lineTo(-10, -8);
-        poly.closePath();       
-        
-        // Scale to the desired size
-        double scale = Constants.ALIENSHIP_SCALE[alienSize];
-        poly.transform(AffineTransform.getScaleInstance(scale, scale));
-        
-        outline = poly;
+        outline = Outlines.alien(alienSize);
 
     }
 
@@ -72,7 +50,7 @@ public class Alien extends Participant implements ShipDestroyer, AsteroidDestroy
      */
     public double alienDirection()
     {
-        int directionChoice = Constants.RANDOM.nextInt(6);
+        int directionChoice = engine.getRandom().getAI().nextInt(6);
         double direction = 0.0;
 
         // Randomly choose the direction of alien ship.
@@ -124,18 +102,19 @@ public class Alien extends Participant implements ShipDestroyer, AsteroidDestroy
         if (p instanceof AlienDestroyer)
         {
             //Create debris from destruction
-            controller.addParticipant(new Debris(true, true, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
-            controller.addParticipant(new Debris(true, true, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
-            controller.addParticipant(new Debris(true, false, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
-            controller.addParticipant(new Debris(true, true, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
-            controller.addParticipant(new Debris(true, true, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
-            controller.addParticipant(new Debris(true, false, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
+            SplittableRandom debris = engine.getRandom().getDebris();
+            engine.addParticipant(Debris.create(true, true, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
+            engine.addParticipant(Debris.create(true, true, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
+            engine.addParticipant(Debris.create(true, false, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
+            engine.addParticipant(Debris.create(true, true, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
+            engine.addParticipant(Debris.create(true, true, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
+            engine.addParticipant(Debris.create(true, false, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
             
             // Expire the ship from the game
             Participant.expire(this);
 
-            // Tell the controller the alien was destroyed
-            controller.alienDestroyed();
+            // Tell the engine the alien was destroyed
+            engine.alienDestroyed();
         }
     }
 }
@@ -1,62 +1,77 @@
 package asteroids.participants;
 
 import java.awt.Shape;
-import java.awt.geom.Path2D;
 import asteroids.destroyers.AsteroidDestroyer;
 import asteroids.destroyers.ShipDestroyer;
 import asteroids.game.Constants;
-import asteroids.game.Controller;
 import asteroids.game.Participant;
 import asteroids.game.ParticipantCountdownTimer;
+import asteroids.game.ReactsTo;
+import asteroids.game.SimulationEngine;
 
 /**
  * Represents alien bullets
  */
+@ReactsTo(Ship.class)
 public class AlienBullet extends Participant implements ShipDestroyer, AsteroidDestroyer
 {
-    /** The game controller */
-    private Controller controller;
+    /** The game engine */
+    private SimulationEngine engine;
     
-    /**The shape of the bullet */
-    private Shape outline;  
+    /** Expires the bullet once its time is up */
+    private ParticipantCountdownTimer timer;
     
     /**
-     * Constructs alien bullets.  (double x, double y, double direction, controller) are parameters.
+     * Constructs alien bullets.  (double x, double y, double direction, engine) are parameters.
      */
-    public AlienBullet (double x, double y, double direction, Controller controller)
+    public AlienBullet (double x, double y, double direction, SimulationEngine engine)
     {
-        this.controller = controller;
+        reinitialize(x, y, direction, engine);
+    }
+
+    /**
+     * Returns an alien bullet with the given position and direction. An expired one from the engine's pool is
+     * reused if there is one; otherwise a new one is constructed.
+     */
+    public static AlienBullet create (double x, double y, double direction, SimulationEngine engine)
+    {
+        AlienBullet bullet = engine.getPool(AlienBullet.class).acquire();
+        if (bullet == null)
+        {
+            return new AlienBullet(x, y, direction, engine);
+        }
+        bullet.reinitialize(x, y, direction, engine);
+        return bullet;
+    }
+
+    /**
+     * Sets up the alien bullet as if it had just been constructed with the given parameters. Must not be called while
+     * the alien bullet is in a game.
+     */
+    public void reinitialize (double x, double y, double direction, SimulationEngine engine)
+    {
+        this.engine = engine;
         setPosition(x, y); 
         setSpeed(Constants.BULLET_SPEED);  
         setDirection(direction);   
-        createBulletOutline();
         
         //Makes the bullet expire after the specified time
-        new ParticipantCountdownTimer(this, "alienBullet", Constants.BULLET_DURATION);
+        if (timer == null)
+        {
+            timer = new ParticipantCountdownTimer(this, "alienBullet", Constants.BULLET_DURATION);
+        }
+        else
+        {
+            timer.restart(Constants.BULLET_DURATION);
+        }
     }
     
     @Override
     protected Shape getOutline ()
     {
-        return outline;
+        return Outlines.BULLET;
     }
     
-    /**
-     * Creates the outline of the bullet.
-     */
-    private void createBulletOutline ()
-    {
-        // This will contain the outline
-        Path2D.Double poly = new Path2D.Double();
-        
-        poly.moveTo(0, -1);
-        poly.lineTo(-1, 0);
-        poly.lineTo(0, 1);
-        poly.lineTo(1, 0);
-        poly.closePath();
-        outline = poly;
-    }
-
     @Override
     public void collidedWith (Participant p)
     {
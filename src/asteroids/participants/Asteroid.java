@@ -2,17 +2,19 @@ package asteroids.participants;
 
 import static asteroids.game.Constants.*;
 import java.awt.Shape;
-import java.awt.geom.*;
+import java.util.SplittableRandom;
 import asteroids.destroyers.AlienDestroyer;
 import asteroids.destroyers.AsteroidDestroyer;
 import asteroids.destroyers.ShipDestroyer;
 import asteroids.game.Constants;
-import asteroids.game.Controller;
 import asteroids.game.Participant;
+import asteroids.game.ReactsTo;
+import asteroids.game.SimulationEngine;
 
 /**
  * Represents asteroids
  */
+@ReactsTo(AsteroidDestroyer.class)
 public class Asteroid extends Participant implements ShipDestroyer, AlienDestroyer
 {
     /** The size of the asteroid (0 = small, 1 = medium, 2 = large) */
@@ -21,8 +23,8 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienDestroy
     /** The outline of the asteroid */
     private Shape outline;
 
-    /** The game controller */
-    private Controller controller;
+    /** The game engine */
+    private SimulationEngine engine;
 
     /**
      * Throws an IllegalArgumentException if size or variety is out of range.
@@ -31,7 +33,31 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienDestroy
      * positions it at the provided coordinates with a random rotation. Its velocity has the given speed but is in a
      * random direction.
      */
-    public Asteroid (int variety, int size, double x, double y, int speed, Controller controller)
+    public Asteroid (int variety, int size, double x, double y, int speed, SimulationEngine engine)
+    {
+        reinitialize(variety, size, x, y, speed, engine);
+    }
+
+    /**
+     * Returns an asteroid with the given parameters (see the constructor). An expired one from the engine's pool
+     * is reused if there is one; otherwise a new one is constructed.
+     */
+    public static Asteroid create (int variety, int size, double x, double y, int speed, SimulationEngine engine)
+    {
+        Asteroid asteroid = engine.getPool(Asteroid.class).acquire();
+        if (asteroid == null)
+        {
+            return new Asteroid(variety, size, x, y, speed, engine);
+        }
+        asteroid.reinitialize(variety, size, x, y, speed, engine);
+        return asteroid;
+    }
+
+    /**
+     * Sets up the asteroid as if it had just been constructed with the given parameters. Must not be called while the
+     * asteroid is in a game. Throws an IllegalArgumentException if size or variety is out of range.
+     */
+    public void reinitialize (int variety, int size, double x, double y, int speed, SimulationEngine engine)
     {
         // Make sure size and variety are valid
         if (size < 0 || size > 2)
@@ -44,12 +70,12 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienDestroy
         }
 
         // Create the asteroid
-        this.controller = controller;
+        this.engine = engine;
         this.size = size;
         setPosition(x, y);
-        setVelocity(speed, RANDOM.nextDouble() * 2 * Math.PI);
-        setRotation(2 * Math.PI * RANDOM.nextDouble());
-        createAsteroidOutline(variety, size);
+        setVelocity(speed, engine.getRandom().getSpawn().nextDouble() * 2 * Math.PI);
+        setRotation(2 * Math.PI * engine.getRandom().getSpawn().nextDouble());
+        outline = Outlines.asteroid(variety, size);
     }
 
     @Override
@@ -58,78 +84,6 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienDestroy
         return outline;
     }
 
-    /**
-     * Creates the outline of the asteroid based on its variety and size.
-     */
-    private void createAsteroidOutline (int variety, int size)
-    {
-        // This will contain the outline
-        Path2D.Double poly = new Path2D.Double();
-
-        // Fill out according to variety
-        if (variety == 0)
-        {
-            poly.moveTo(0, -30);
-            poly.lineTo(28, -15);
-            poly.lineTo(20, 20);
-            poly.lineTo(4, 8);
-            poly.lineTo(-1, 30);
-            poly.lineTo(-12, 15);
-            poly.lineTo(-5, 2);
-            poly.lineTo(-25, 7);
-            poly.lineTo(-10, -25);
-            poly.closePath();
-        }
-        else if (variety == 1)
-        {
-            poly.moveTo(10, -28);
-            poly.lineTo(7, -16);
-            poly.lineTo(30, -9);
-            poly.lineTo(30, 9);
-            poly.lineTo(10, 13);
-            poly.lineTo(5, 30);
-            poly.lineTo(-8, 28);
-            poly.lineTo(-6, 6);
-            poly.lineTo(-27, 12);
-            poly.lineTo(-30, -11);
-            poly.lineTo(-6, -15);
-            poly.lineTo(-6, -28);
-            poly.closePath();
-        }
-        else if (variety == 2)
-        {
-            poly.moveTo(10, -30);
-            poly.lineTo(30, 0);
-            poly.lineTo(15, 30);
-            poly.lineTo(0, 15);
-            poly.lineTo(-15, 30);
-            poly.lineTo(-30, 0);
-            poly.lineTo(-10, -30);
-            poly.closePath();
-        }
-        else
-        {
-            poly.moveTo(30, -18);
-            poly.lineTo(5, 5);
-            poly.lineTo(30, 15);
-            poly.lineTo(15, 30);
-            poly.lineTo(0, 25);
-            poly.lineTo(-15, 30);
-            poly.lineTo(-25, 8);
-            poly.lineTo(-10, -25);
-            poly.lineTo(0, -30);
-            poly.lineTo(10, -30);
-            poly.closePath();
-        }
-
-        // Scale to the desired size
-        double scale = ASTEROID_SCALE[size];
-        poly.transform(AffineTransform.getScaleInstance(scale, scale));
-
-        // Save the outline
-        outline = poly;
-    }
-
     /**
      * Returns the size of the asteroid
      */
@@ -147,36 +101,39 @@ public class Asteroid extends Participant implements ShipDestroyer, AlienDestroy
         
         if (p instanceof AsteroidDestroyer)
         {
+            SplittableRandom spawn = engine.getRandom().getSpawn();
+            SplittableRandom debris = engine.getRandom().getDebris();
+
             // Expire the asteroid
             switch (this.getSize())
             {
                 case 0: 
-                    controller.addPoints(100);
+                    engine.addPoints(ASTEROID_SCORE[0]);
                     break;
                 case 1: 
-                    controller.addPoints(50);
-                    controller.addParticipant(new Asteroid(RANDOM.nextInt(3), 0, this.getX(), this.getY(), RANDOM.nextInt(Constants.MAXIMUM_SMALL_ASTEROID_SPEED - Constants.MAXIMUM_LARGE_ASTEROID_SPEED + 1) + Constants.MAXIMUM_LARGE_ASTEROID_SPEED, controller));
-                    controller.addParticipant(new Asteroid(RANDOM.nextInt(3), 0, this.getX(), this.getY(), RANDOM.nextInt(Constants.MAXIMUM_SMALL_ASTEROID_SPEED - Constants.MAXIMUM_LARGE_ASTEROID_SPEED + 1) + Constants.MAXIMUM_LARGE_ASTEROID_SPEED, controller));
+                    engine.addPoints(ASTEROID_SCORE[1]);
+                    engine.addParticipant(Asteroid.create(spawn.nextInt(3), 0, this.getX(), this.getY(), spawn.nextInt(Constants.MAXIMUM_SMALL_ASTEROID_SPEED - Constants.MAXIMUM_LARGE_ASTEROID_SPEED + 1) + Constants.MAXIMUM_LARGE_ASTEROID_SPEED, engine));
+                    engine.addParticipant(Asteroid.create(spawn.nextInt(3), 0, this.getX(), this.getY(), spawn.nextInt(Constants.MAXIMUM_SMALL_ASTEROID_SPEED - Constants.MAXIMUM_LARGE_ASTEROID_SPEED + 1) + Constants.MAXIMUM_LARGE_ASTEROID_SPEED, engine));
                     break;
                 case 2: 
-                    controller.addPoints(20);
-                    controller.addParticipant(new Asteroid(RANDOM.nextInt(3), 1, this.getX(), this.getY(), RANDOM.nextInt(Constants.MAXIMUM_MEDIUM_ASTEROID_SPEED - Constants.MAXIMUM_LARGE_ASTEROID_SPEED + 1) + Constants.MAXIMUM_LARGE_ASTEROID_SPEED, controller));
-                    controller.addParticipant(new Asteroid(RANDOM.nextInt(3), 1, this.getX(), this.getY(), RANDOM.nextInt(Constants.MAXIMUM_MEDIUM_ASTEROID_SPEED - Constants.MAXIMUM_LARGE_ASTEROID_SPEED + 1) + Constants.MAXIMUM_LARGE_ASTEROID_SPEED, controller));
+                    engine.addPoints(ASTEROID_SCORE[2]);
+                    engine.addParticipant(Asteroid.create(spawn.nextInt(3), 1, this.getX(), this.getY(), spawn.nextInt(Constants.MAXIMUM_MEDIUM_ASTEROID_SPEED - Constants.MAXIMUM_LARGE_ASTEROID_SPEED + 1) + Constants.MAXIMUM_LARGE_ASTEROID_SPEED, engine));
+                    engine.addParticipant(Asteroid.create(spawn.nextInt(3), 1, this.getX(), this.getY(), spawn.nextInt(Constants.MAXIMUM_MEDIUM_ASTEROID_SPEED - Constants.MAXIMUM_LARGE_ASTEROID_SPEED + 1) + Constants.MAXIMUM_LARGE_ASTEROID_SPEED, engine));
                     break;           
             }
 
-            controller.addParticipant(new Debris(false, false, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
-            controller.addParticipant(new Debris(false, false, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
-            controller.addParticipant(new Debris(false, false, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
-            controller.addParticipant(new Debris(false, false, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
+            engine.addParticipant(Debris.create(false, false, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
+            engine.addParticipant(Debris.create(false, false, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
+            engine.addParticipant(Debris.create(false, false, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
+            engine.addParticipant(Debris.create(false, false, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
               
             //Store the size of the asteroid destroyed so correct sound can be played.
             int asteroidSizeSound = this.getSize();
             
             Participant.expire(this);
             
-            // Inform the controller
-            controller.asteroidDestroyed(asteroidSizeSound);           
+            // Inform the engine
+            engine.asteroidDestroyed(asteroidSizeSound);           
             
         }
     }
@@ -1,66 +1,77 @@
 package asteroids.participants;
 
 import java.awt.Shape;
-import java.awt.geom.Path2D;
-import javax.sound.sampled.Clip;
 import asteroids.destroyers.AlienDestroyer;
 import asteroids.destroyers.AsteroidDestroyer;
 import asteroids.game.Constants;
-import asteroids.game.Controller;
 import asteroids.game.Participant;
 import asteroids.game.ParticipantCountdownTimer;
+import asteroids.game.ReactsTo;
+import asteroids.game.SimulationEngine;
 
 /**
  * Represents bullets
  */
+@ReactsTo(Asteroid.class)
 public class Bullet extends Participant implements AsteroidDestroyer, AlienDestroyer
 {
-    /** The game controller */
-    private Controller controller;
+    /** The game engine */
+    private SimulationEngine engine;
     
-    /**The shape of the bullet */
-    private Shape outline;  
-    
-    /** A Clip that, when played, sounds like a weapon being fired */
-    private Clip bulletClip;
+    /** Expires the bullet once its time is up */
+    private ParticipantCountdownTimer timer;
     
     /**
-     * Constructs bullets.  Accepts x, y, direction, and controller as parameters.
+     * Constructs bullets.  Accepts x, y, direction, and engine as parameters.
+     */
+    public Bullet (double x, double y, double direction, SimulationEngine engine)
+    {
+        reinitialize(x, y, direction, engine);
+    }
+
+    /**
+     * Returns a bullet with the given position and direction. An expired one from the engine's pool is reused if
+     * there is one; otherwise a new one is constructed.
      */
-    public Bullet (double x, double y, double direction, Controller controller)
+    public static Bullet create (double x, double y, double direction, SimulationEngine engine)
     {
-        this.controller = controller;
+        Bullet bullet = engine.getPool(Bullet.class).acquire();
+        if (bullet == null)
+        {
+            return new Bullet(x, y, direction, engine);
+        }
+        bullet.reinitialize(x, y, direction, engine);
+        return bullet;
+    }
+
+    /**
+     * Sets up the bullet as if it had just been constructed with the given parameters. Must not be called while the
+     * bullet is in a game.
+     */
+    public void reinitialize (double x, double y, double direction, SimulationEngine engine)
+    {
+        this.engine = engine;
         setPosition(x, y); 
         setSpeed(Constants.BULLET_SPEED);        
         setDirection(direction);         
-        createBulletOutline();
         
         //Makes the bullet expire after the specified time
-        new ParticipantCountdownTimer(this, "bullet", Constants.BULLET_DURATION);
+        if (timer == null)
+        {
+            timer = new ParticipantCountdownTimer(this, "bullet", Constants.BULLET_DURATION);
+        }
+        else
+        {
+            timer.restart(Constants.BULLET_DURATION);
+        }
     }
     
     @Override
     protected Shape getOutline ()
     {
-        return outline;
+        return Outlines.BULLET;
     }
     
-    /**
-     * Creates the outline of the bullet.
-     */
-    private void createBulletOutline ()
-    {
-        // This will contain the outline
-        Path2D.Double poly = new Path2D.Double();
-        
-        poly.moveTo(0, -1);
-        poly.lineTo(-1, 0);
-        poly.lineTo(0, 1);
-        poly.lineTo(1, 0);
-        poly.closePath();
-        outline = poly;
-    }
-
     @Override
     public void collidedWith (Participant p)
     {
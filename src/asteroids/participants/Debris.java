@@ -1,19 +1,20 @@
 package asteroids.participants;
 
 import java.awt.Shape;
-import java.awt.geom.Path2D;
 import asteroids.game.Constants;
-import asteroids.game.Controller;
 import asteroids.game.Participant;
 import asteroids.game.ParticipantCountdownTimer;
+import asteroids.game.ReactsTo;
+import asteroids.game.SimulationEngine;
 
 /**
  * Represents debris
  */
+@ReactsTo({})
 public class Debris extends Participant
 {
-    /** The game controller */
-    private Controller controller;
+    /** The game engine */
+    private SimulationEngine engine;
 
     /** The shape of the bullet */
     private Shape outline;
@@ -24,17 +25,48 @@ public class Debris extends Participant
     /**For ship, specifies if it's for a long piece or short piece.*/
     private boolean isLong;
 
+    /** Expires the debris once its time is up */
+    private ParticipantCountdownTimer timer;
+
     /**
      * Constructs debris based on if a ship or asteroid is hit.
-     * Parameters (boolean ShipOrAst, boolean isLong, double x, double y, double direction, Controller controller)
+     * Parameters (boolean ShipOrAst, boolean isLong, double x, double y, double direction, SimulationEngine engine)
+     */
+    public Debris (boolean ShipOrAst, boolean LongOrShort, double x, double y, double direction,
+            SimulationEngine engine)
+    {
+        reinitialize(ShipOrAst, LongOrShort, x, y, direction, engine);
+    }
+
+    /**
+     * Returns debris with the given parameters. Expired debris from the engine's pool is reused if there is any;
+     * otherwise new debris is constructed.
+     */
+    public static Debris create (boolean ShipOrAst, boolean LongOrShort, double x, double y, double direction,
+            SimulationEngine engine)
+    {
+        Debris debris = engine.getPool(Debris.class).acquire();
+        if (debris == null)
+        {
+            return new Debris(ShipOrAst, LongOrShort, x, y, direction, engine);
+        }
+        debris.reinitialize(ShipOrAst, LongOrShort, x, y, direction, engine);
+        return debris;
+    }
+
+    /**
+     * Sets up the debris as if it had just been constructed with the given parameters. Must not be called while the
+     * debris is in a game.
      */
-    public Debris (boolean ShipOrAst, boolean LongOrShort, double x, double y, double direction, Controller controller)
+    public void reinitialize (boolean ShipOrAst, boolean LongOrShort, double x, double y, double direction,
+            SimulationEngine engine)
     {
-        this.controller = controller;
+        this.engine = engine;
         setPosition(x, y);
-        setSpeed(Constants.RANDOM.nextInt(3));
+        setSpeed(engine.getRandom().getDebris().nextInt(3));
         setDirection(direction);
-        setRotation(Constants.RANDOM.nextDouble() * 2 * Math.PI);
+        setRotation(engine.getRandom().getDebris().nextDouble() * 2 * Math.PI);
+
         isShip = ShipOrAst;
         isLong = LongOrShort;
         int debrisDuration = 0;
@@ -42,26 +74,34 @@ public class Debris extends Participant
         if (isShip)
         {
             debrisDuration = 1500;
-            if (isLong)
-            {
-                createLongShipDebrisOutline(); 
-                
-            }
-            else
-            {
-                createShortShipDebrisOutline();
-                
-            }
         }
         else
         {
-            createDebrisOutline();
-            debrisDuration = Constants.RANDOM.nextInt(1500) + 250;
+            debrisDuration = engine.getRandom().getDebris().nextInt(1500) + 250;
         }
 
+        if (!isShip)
+        {
+            outline = Outlines.DEBRIS;
+        }
+        else if (isLong)
+        {
+            outline = Outlines.LONG_SHIP_DEBRIS;
+        }
+        else
+        {
+            outline = Outlines.SHORT_SHIP_DEBRIS;
+        }
 
         // Makes the bullet expire after the specified time
-        new ParticipantCountdownTimer(this, "debris", debrisDuration);
+        if (timer == null)
+        {
+            timer = new ParticipantCountdownTimer(this, "debris", debrisDuration);
+        }
+        else
+        {
+            timer.restart(debrisDuration);
+        }
     }
 
 
@@ -71,50 +111,6 @@ public class Debris extends Participant
         return outline;
     }
 
-    /**
-     * Creates the outline of the debris.
-     */
-    private void createDebrisOutline ()
-    {
-        // This will contain the outline
-        Path2D.Double poly = new Path2D.Double();
-
-        poly.moveTo(0, -0.5);
-        poly.lineTo(-0.5, 0);
-        poly.lineTo(0, 0.5);
-        poly.lineTo(0.5, 0);
-        poly.closePath();
-        outline = poly;
-    }
-    
-    /**
-     * Creates the long pieces of debris when the ship is hit.
-     */
-    private void createLongShipDebrisOutline ()
-    {
-        // This will contain the outline
-        Path2D.Double poly = new Path2D.Double();
-
-        poly.moveTo(12, 0);
-        poly.lineTo(0, 12);
-        //poly.closePath();
-        outline = poly;
-    }
-    
-    /**
-     * Creates the short pieces of debris when the ship is hit.
-     */
-    private void createShortShipDebrisOutline ()
-    {
-        // This will contain the outline
-        Path2D.Double poly = new Path2D.Double();
-
-        poly.moveTo(3, 0);
-        poly.lineTo(-3, 0);
-        //poly.closePath();
-        outline = poly;
-    }
-
     @Override
     public void collidedWith (Participant p)
     {
@@ -2,26 +2,21 @@ package asteroids.participants;
 
 import static asteroids.game.Constants.SHIP_ACCELERATION;
 import java.awt.Shape;
-import java.awt.geom.Path2D;
 import asteroids.destroyers.AlienDestroyer;
 import asteroids.destroyers.AsteroidDestroyer;
-import asteroids.game.Controller;
 import asteroids.game.Participant;
 import asteroids.game.ParticipantCountdownTimer;
+import asteroids.game.ReactsTo;
+import asteroids.game.SimulationEngine;
 
 /**
  * Represents heat seeking missiles
  */
+@ReactsTo({ Alien.class, Asteroid.class })
 public class Missles extends Participant implements AlienDestroyer, AsteroidDestroyer
 {
-    /** The game controller */
-    private Controller controller;
-
-    /** The shape of the missile */
-    private Shape outline;
-
-    /** The shape of the missile with the flame */
-    private Shape outlineFlame;
+    /** The game engine */
+    private SimulationEngine engine;
 
     /** Direction for missiles in enhanced version */
     private double missleDir;
@@ -30,11 +25,11 @@ public class Missles extends Participant implements AlienDestroyer, AsteroidDest
     private boolean toggleFlame;
 
     /**
-     * Constructs heat seeking missiles. (double x, double y, double direction, controller) parameters.
+     * Constructs heat seeking missiles. (double x, double y, double direction, engine) parameters.
      */
-    public Missles (double x, double y, double speed, double direction, double rotation, Controller controller)
+    public Missles (double x, double y, double speed, double direction, double rotation, SimulationEngine engine)
     {
-        this.controller = controller;
+        this.engine = engine;
         missleDir = direction;
         setPosition(x, y);
         setSpeed(speed);
@@ -42,33 +37,6 @@ public class Missles extends Participant implements AlienDestroyer, AsteroidDest
         setDirection(direction);
         toggleFlame = true;
 
-        // This will contain the outline without the flame
-        Path2D.Double poly = new Path2D.Double();
-        poly.moveTo(25, 0);
-        poly.lineTo(18, -7);
-        poly.lineTo(0, -7);
-        poly.lineTo(0, 7);
-        poly.lineTo(18, 7);
-        poly.lineTo(25, 0);
-        poly.closePath();
-        outline = poly;
-
-        // This will contain the outline with the flame
-        Path2D.Double polyFlame = new Path2D.Double();
-        polyFlame.moveTo(25, 0);
-        polyFlame.lineTo(18, -7);
-        polyFlame.lineTo(0, -7);
-        polyFlame.lineTo(0, 7);
-        polyFlame.lineTo(18, 7);
-        polyFlame.lineTo(25, 0);
-        polyFlame.closePath();
-        // Draws the flame
-        polyFlame.moveTo(0, -5);
-        polyFlame.lineTo(0, 5);
-        polyFlame.lineTo(-10, 0);
-        polyFlame.closePath();
-        outlineFlame = polyFlame;
-
         // Makes the missile expire after the specified time
         new ParticipantCountdownTimer(this, "missle", 15000);
     }
@@ -79,11 +47,11 @@ public class Missles extends Participant implements AlienDestroyer, AsteroidDest
         toggleFlame = !toggleFlame;
         if (toggleFlame)
         {
-            return outlineFlame;
+            return Outlines.MISSLE_WITH_FLAME;
         }
         else
         {
-            return outline;
+            return Outlines.MISSLE;
         }
 
     }
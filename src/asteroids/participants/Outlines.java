@@ -0,0 +1,263 @@
+package asteroids.participants;
+
+import static asteroids.game.Constants.*;
+import java.awt.geom.Path2D;
+import asteroids.game.Outline;
+
+/**
+ * The catalog of participant outlines. Each outline is built once, when the class is loaded, and the same Outline is
+ * handed out to every participant that uses it, so creating a participant never builds any geometry.
+ */
+public final class Outlines
+{
+    /** The ship */
+    public final static Outline SHIP = shipOutline(false);
+
+    /** The ship with the accelerating flame */
+    public final static Outline SHIP_WITH_FLAME = shipOutline(true);
+
+    /** The missile */
+    public final static Outline MISSLE = missleOutline(false);
+
+    /** The missile with its flame */
+    public final static Outline MISSLE_WITH_FLAME = missleOutline(true);
+
+    /** A bullet, fired by either the ship or an alien */
+    public final static Outline BULLET = bulletOutline();
+
+    /** A piece of asteroid debris */
+    public final static Outline DEBRIS = debrisOutline();
+
+    /** A long piece of ship debris */
+    public final static Outline LONG_SHIP_DEBRIS = lineOutline(12, 0, 0, 12);
+
+    /** A short piece of ship debris */
+    public final static Outline SHORT_SHIP_DEBRIS = lineOutline(3, 0, -3, 0);
+
+    /** The alien ships of size 0 and 1 */
+    private final static Outline[] ALIENS = alienOutlines();
+
+    /** The asteroids, by variety (0 through 3) and then size (0 through 2) */
+    private final static Outline[][] ASTEROIDS = asteroidOutlines();
+
+    /**
+     * Not instantiable
+     */
+    private Outlines ()
+    {
+    }
+
+    /**
+     * Returns the outline of an asteroid of the given variety (0 through 3) and size (0 = small, 1 = medium,
+     * 2 = large).
+     */
+    public static Outline asteroid (int variety, int size)
+    {
+        return ASTEROIDS[variety][size];
+    }
+
+    /**
+     * Returns the outline of an alien ship of the given size (0 or 1).
+     */
+    public static Outline alien (int size)
+    {
+        return ALIENS[size];
+    }
+
+    /**
+     * Builds the outline of the ship, with or without the flame.
+     */
+    private static Outline shipOutline (boolean flame)
+    {
+        Path2D.Double poly = new Path2D.Double();
+        poly.moveTo(21, 0);
+        poly.lineTo(-21, 12);
+        poly.lineTo(-14, 10);
+        poly.lineTo(-14, -10);
+        poly.lineTo(-21, -12);
+        poly.closePath();
+        if (flame)
+        {
+            poly.moveTo(-14, -5);
+            poly.lineTo(-14, 5);
+            poly.lineTo(-25, 0);
+            poly.closePath();
+        }
+        return new Outline(poly);
+    }
+
+    /**
+     * Builds the outline of the missile, with or without the flame.
+     */
+    private static Outline missleOutline (boolean flame)
+    {
+        Path2D.Double poly = new Path2D.Double();
+        poly.moveTo(25, 0);
+        poly.lineTo(18, -7);
+        poly.lineTo(0, -7);
+        poly.lineTo(0, 7);
+        poly.lineTo(18, 7);
+        poly.lineTo(25, 0);
+        poly.closePath();
+        if (flame)
+        {
+            poly.moveTo(0, -5);
+            poly.lineTo(0, 5);
+            poly.lineTo(-10, 0);
+            poly.closePath();
+        }
+        return new Outline(poly);
+    }
+
+    /**
+     * Builds the outline of a bullet.
+     */
+    private static Outline bulletOutline ()
+    {
+        Path2D.Double poly = new Path2D.Double();
+        poly.moveTo(0, -1);
+        poly.lineTo(-1, 0);
+        poly.lineTo(0, 1);
+        poly.lineTo(1, 0);
+        poly.closePath();
+        return new Outline(poly);
+    }
+
+    /**
+     * Builds the outline of a piece of asteroid debris.
+     */
+    private static Outline debrisOutline ()
+    {
+        Path2D.Double poly = new Path2D.Double();
+        poly.moveTo(0, -0.5);
+        poly.lineTo(-0.5, 0);
+        poly.lineTo(0, 0.5);
+        poly.lineTo(0.5, 0);
+        poly.closePath();
+        return new Outline(poly);
+    }
+
+    /**
+     * Builds an outline that is a single open line segment.
+     */
+    private static Outline lineOutline (double x1, double y1, double x2, double y2)
+    {
+        Path2D.Double poly = new Path2D.Double();
+        poly.moveTo(x1, y1);
+        poly.lineTo(x2, y2);
+        return new Outline(poly);
+    }
+
+    /**
+     * Builds the outlines of the alien ships of each size.
+     */
+    private static Outline[] alienOutlines ()
+    {
+        Path2D.Double poly = new Path2D.Double();
+        poly.moveTo(10, 8);
+        poly.lineTo(-10, 8);
+        poly.lineTo(-20, 0);
+        poly.lineTo(20, 0);
+        poly.closePath();
+        poly.moveTo(20, 0);
+        poly.lineTo(10, -8);
+        poly.lineTo(-10, -8);
+        poly.lineTo(-20, 0);
+        poly.closePath();
+        poly.moveTo(10, -8);
+        poly.lineTo(6, -15);
+        poly.lineTo(-6, -15);
+        poly.lineTo(-10, -8);
+        poly.closePath();
+
+        Outline[] outlines = new Outline[ALIENSHIP_SCALE.length];
+        for (int size = 0; size < outlines.length; size++)
+        {
+            outlines[size] = new Outline(poly, ALIENSHIP_SCALE[size]);
+        }
+        return outlines;
+    }
+
+    /**
+     * Builds the outlines of the asteroids of each variety and size.
+     */
+    private static Outline[][] asteroidOutlines ()
+    {
+        Outline[][] outlines = new Outline[4][ASTEROID_SCALE.length];
+        for (int variety = 0; variety < outlines.length; variety++)
+        {
+            Path2D.Double poly = asteroidPath(variety);
+            for (int size = 0; size < ASTEROID_SCALE.length; size++)
+            {
+                outlines[variety][size] = new Outline(poly, ASTEROID_SCALE[size]);
+            }
+        }
+        return outlines;
+    }
+
+    /**
+     * Builds the unscaled path of an asteroid of the given variety.
+     */
+    private static Path2D.Double asteroidPath (int variety)
+    {
+        // This will contain the outline
+        Path2D.Double poly = new Path2D.Double();
+
+        // Fill out according to variety
+        if (variety == 0)
+        {
+            poly.moveTo(0, -30);
+            poly.lineTo(28, -15);
+            poly.lineTo(20, 20);
+            poly.lineTo(4, 8);
+            poly.lineTo(-1, 30);
+            poly.lineTo(-12, 15);
+            poly.lineTo(-5, 2);
+            poly.lineTo(-25, 7);
+            poly.lineTo(-10, -25);
+            poly.closePath();
+        }
+        else if (variety == 1)
+        {
+            poly.moveTo(10, -28);
+            poly.lineTo(7, -16);
+            poly.lineTo(30, -9);
+            poly.lineTo(30, 9);
+            poly.lineTo(10, 13);
+            poly.lineTo(5, 30);
+            poly.lineTo(-8, 28);
+            poly.lineTo(-6, 6);
+            poly.lineTo(-27, 12);
+            poly.lineTo(-30, -11);
+            poly.lineTo(-6, -15);
+            poly.lineTo(-6, -28);
+            poly.closePath();
+        }
+        else if (variety == 2)
+        {
+            poly.moveTo(10, -30);
+            poly.lineTo(30, 0);
+            poly.lineTo(15, 30);
+            poly.lineTo(0, 15);
+            poly.lineTo(-15, 30);
+            poly.lineTo(-30, 0);
+            poly.lineTo(-10, -30);
+            poly.closePath();
+        }
+        else
+        {
+            poly.moveTo(30, -18);
+            poly.lineTo(5, 5);
+            poly.lineTo(30, 15);
+            poly.lineTo(15, 30);
+            poly.lineTo(0, 25);
+            poly.lineTo(-15, 30);
+            poly.lineTo(-25, 8);
+            poly.lineTo(-10, -25);
+            poly.lineTo(0, -30);
+            poly.lineTo(10, -30);
+            poly.closePath();
+        }
+        return poly;
+    }
+}
@@ -3,25 +3,22 @@ package asteroids.participants;
 import static asteroids.game.Constants.*;
 import java.awt.Shape;
 import java.awt.geom.*;
-import javax.sound.sampled.Clip;
+import java.util.SplittableRandom;
 import asteroids.destroyers.*;
-import asteroids.game.Controller;
+import asteroids.game.AudioSink.Sound;
 import asteroids.game.Participant;
 import asteroids.game.ParticipantCountdownTimer;
+import asteroids.game.ReactsTo;
+import asteroids.game.SimulationEngine;
 
 /**
  * Represents ships
  */
+@ReactsTo(ShipDestroyer.class)
 public class Ship extends Participant implements AsteroidDestroyer, AlienDestroyer
 {
-    /** The outline of the ship */
-    private Shape outline;
-    
-    /**The outline of the ship with the accelerating flame.*/
-    private Shape outlineFlame;
-
-    /** Game controller */
-    private Controller controller;
+    /** Game engine */
+    private SimulationEngine engine;
 
     /**Stores the direction the ship should turn*/
     private turnDirection dir;
@@ -32,43 +29,18 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienDestroy
     /**Toggles the flame between off and on when ship is accelerating.*/
     private boolean toggleAccelFlame;
     
-    /**Sound when the ship is accelerating forward*/
-    private Clip thrust;
+    /** Used to compute the location of the nose without allocating a point each time */
+    private final Point2D.Double nose = new Point2D.Double();
 
     /**
      * Constructs a ship at the specified coordinates that is pointed in the given direction.
      */
-    public Ship (int x, int y, double direction, Controller controller)
+    public Ship (int x, int y, double direction, SimulationEngine engine)
     {
-        this.controller = controller;
+        this.engine = engine;
         setPosition(x, y);
         setRotation(direction);
         toggleAccelFlame = false;
-        thrust = controller.createClip("/sounds/thrust.wav");
-
-        Path2D.Double poly = new Path2D.Double();
-        poly.moveTo(21, 0);
-        poly.lineTo(-21, 12);
-        poly.lineTo(-14, 10);
-        poly.lineTo(-14, -10);
-        poly.lineTo(-21, -12);
-        poly.closePath();
-        outline = poly;
-        
-        Path2D.Double polyFlame = new Path2D.Double();
-        polyFlame.moveTo(21, 0);
-        polyFlame.lineTo(-21, 12);
-        polyFlame.lineTo(-14, 10);
-        polyFlame.lineTo(-14, -10);
-        polyFlame.lineTo(-21, -12);
-        polyFlame.closePath();
-        //Draws the flame 
-        polyFlame.moveTo(-14, -5);
-        polyFlame.lineTo(-14, 5);
-        polyFlame.lineTo(-25, 0);
-        polyFlame.closePath();
-        outlineFlame = polyFlame;
-        
         dir = turnDirection.NONE;
     }
 
@@ -77,9 +49,9 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienDestroy
      */
     public double getXNose ()
     {
-        Point2D.Double point = new Point2D.Double(20, 0);
-        transformPoint(point);
-        return point.getX();
+        nose.setLocation(20, 0);
+        transformPoint(nose);
+        return nose.getX();
     }
 
     /**
@@ -87,9 +59,9 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienDestroy
      */
     public double getYNose ()
     {
-        Point2D.Double point = new Point2D.Double(20, 0);
-        transformPoint(point);
-        return point.getY();
+        nose.setLocation(20, 0);
+        transformPoint(nose);
+        return nose.getY();
     }
 
     @Override
@@ -100,16 +72,16 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienDestroy
             toggleAccelFlame = !toggleAccelFlame;
             if (toggleAccelFlame)
             {
-                return outlineFlame;
+                return Outlines.SHIP_WITH_FLAME;
             }
             else
             {
-                return outline;
+                return Outlines.SHIP;
             }
         }
         else
         {
-            return outline;
+            return Outlines.SHIP;
         }        
     }
 
@@ -146,7 +118,7 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienDestroy
      */
     public void turnRight ()
     {
-        rotate(Math.PI / 16);
+        rotateBySteps(1);
     }
 
     /**
@@ -154,7 +126,7 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienDestroy
      */
     public void turnLeft ()
     {
-        rotate(-Math.PI / 16);
+        rotateBySteps(-1);
     }
 
     /**Checks if the accelerate (Up or W Key) is being pressed.*/
@@ -168,7 +140,7 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienDestroy
      */
     public void accelerate ()
     {
-        controller.playSound(thrust);
+        engine.playSound(Sound.THRUST);
         accelerate(SHIP_ACCELERATION);
     }
 
@@ -180,15 +152,16 @@ public class Ship extends Participant implements AsteroidDestroyer, AlienDestroy
     {
         if (p instanceof ShipDestroyer)
         {
-            controller.addParticipant(new Debris(true, true, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
-            controller.addParticipant(new Debris(true, true, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
-            controller.addParticipant(new Debris(true, false, this.getX(), this.getY(), this.getRotation() + RANDOM.nextDouble() * 2 * Math.PI, controller));
+            SplittableRandom debris = engine.getRandom().getDebris();
+            engine.addParticipant(Debris.create(true, true, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
+            engine.addParticipant(Debris.create(true, true, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
+            engine.addParticipant(Debris.create(true, false, this.getX(), this.getY(), this.getRotation() + debris.nextDouble() * 2 * Math.PI, engine));
             
             // Expire the ship from the game
             Participant.expire(this);
 
-            // Tell the controller the ship was destroyed
-            controller.shipDestroyed();
+            // Tell the engine the ship was destroyed
+            engine.shipDestroyed();
         }
     }
 